@@ -0,0 +1,60 @@
+package lecho.lib.hellocharts.animation;
+
+import lecho.lib.hellocharts.view.Chart;
+
+/**
+ * Data animator driven by shared {@link ChartFrameScheduler}.
+ */
+public class ChartDataAnimatorV16 extends FrameAnimator implements ChartDataAnimator {
+    private final Chart chart;
+    private ChartAnimationListener animationListener = new DummyChartAnimationListener();
+
+    public ChartDataAnimatorV16(Chart chart) {
+        this.chart = chart;
+    }
+
+    @Override
+    public void startAnimation(long duration) {
+        if (duration >= 0) {
+            start(duration);
+        } else {
+            start(DEFAULT_ANIMATION_DURATION);
+        }
+    }
+
+    @Override
+    public void cancelAnimation() {
+        cancel();
+    }
+
+    @Override
+    protected void onStart() {
+        animationListener.onAnimationStarted();
+    }
+
+    @Override
+    protected void onUpdate(float scale) {
+        chart.animationDataUpdate(scale);
+    }
+
+    @Override
+    protected void onEnd() {
+        chart.animationDataFinished();
+        animationListener.onAnimationFinished();
+    }
+
+    @Override
+    public boolean isAnimationStarted() {
+        return isStarted();
+    }
+
+    @Override
+    public void setChartAnimationListener(ChartAnimationListener animationListener) {
+        if (null == animationListener) {
+            this.animationListener = new DummyChartAnimationListener();
+        } else {
+            this.animationListener = animationListener;
+        }
+    }
+
+}
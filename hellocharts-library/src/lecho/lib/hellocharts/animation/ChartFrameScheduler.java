@@ -0,0 +1,165 @@
+package lecho.lib.hellocharts.animation;
+
+import android.annotation.SuppressLint;
+import android.os.Looper;
+import android.view.Choreographer;
+import android.view.View;
+
+import java.util.ArrayList;
+
+/**
+ * Process-wide frame scheduler shared by all charts. It registers a single {@link Choreographer.FrameCallback} and on
+ * every vsync ticks all running chart animations and then invalidates every chart that requested redraw, so many
+ * data/viewport changes of one chart made during a frame result in one invalidate. Ticks of animations that don't
+ * fit into the per-frame budget are postponed to the next frame, animations use frame time so postponed animation
+ * skips a frame but doesn't slow down.
+ * <p/>
+ * Scheduler must be used only from the UI thread except {@link #invalidate(View)}, it is available on API 16+.
+ */
+@SuppressLint("NewApi")
+public class ChartFrameScheduler implements Choreographer.FrameCallback {
+    /**
+     * Default time budget for animation ticks in one frame, half of a 60fps frame.
+     */
+    public static final long DEFAULT_FRAME_BUDGET_NANOS = 8000000;
+    private static ChartFrameScheduler instance;
+
+    private final Choreographer choreographer;
+    private final ArrayList<FrameClient> clients = new ArrayList<FrameClient>();
+    private final ArrayList<View> invalidatedViews = new ArrayList<View>();
+    private long frameBudgetNanos = DEFAULT_FRAME_BUDGET_NANOS;
+    /**
+     * Index of the first client to tick in the next frame, clients postponed because of budget go first.
+     */
+    private int nextClient;
+    private boolean isFrameScheduled;
+
+    private ChartFrameScheduler(Choreographer choreographer) {
+        this.choreographer = choreographer;
+    }
+
+    /**
+     * Returns scheduler instance, it has to be called for the first time from the UI thread.
+     */
+    public static ChartFrameScheduler getInstance() {
+        if (null == instance) {
+            instance = new ChartFrameScheduler(Choreographer.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Registers client that will be ticked on every frame until it returns false from
+     * {@link FrameClient#doFrame(long)} or is removed.
+     */
+    public void addClient(FrameClient client) {
+        if (!clients.contains(client)) {
+            clients.add(client);
+        }
+        scheduleFrame();
+    }
+
+    public void removeClient(FrameClient client) {
+        final int index = clients.indexOf(client);
+        if (index >= 0) {
+            removeClientAt(index);
+        }
+    }
+
+    /**
+     * Requests redraw of given view on the next frame, many requests for the same view are merged into one invalidate.
+     * It can be called from any thread, requests made outside of the UI thread are not merged.
+     */
+    public void invalidate(View view) {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            // Chart data is often set from worker threads, scheduler lists are not synchronized.
+            view.postInvalidateOnAnimation();
+            return;
+        }
+        if (!invalidatedViews.contains(view)) {
+            invalidatedViews.add(view);
+        }
+        scheduleFrame();
+    }
+
+    public long getFrameBudgetNanos() {
+        return frameBudgetNanos;
+    }
+
+    /**
+     * Sets maximum time spent on animation ticks in one frame, at least one animation is ticked in every frame.
+     */
+    public void setFrameBudgetNanos(long frameBudgetNanos) {
+        this.frameBudgetNanos = frameBudgetNanos;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        isFrameScheduled = false;
+        final long start = System.nanoTime();
+        int count = clients.size();
+        int index = nextClient < count ? nextClient : 0;
+        nextClient = 0;
+        while (count > 0 && !clients.isEmpty()) {
+            final FrameClient client = clients.get(index);
+            boolean isRunning = client.doFrame(frameTimeNanos);
+            if (index < clients.size() && clients.get(index) == client) {
+                if (isRunning) {
+                    ++index;
+                } else {
+                    removeClientAt(index);
+                }
+            } else {
+                // Client list was modified by callback, find the next client again.
+                index = Math.max(0, clients.indexOf(client) + 1);
+            }
+            --count;
+            if (index >= clients.size()) {
+                index = 0;
+            }
+            if (count > 0 && System.nanoTime() - start > frameBudgetNanos) {
+                nextClient = index;
+                break;
+            }
+        }
+
+        // Views may request invalidate again while being invalidated so iterate over a stable count.
+        final int invalidatedCount = invalidatedViews.size();
+        for (int i = 0; i < invalidatedCount; ++i) {
+            invalidatedViews.get(i).invalidate();
+        }
+        invalidatedViews.subList(0, invalidatedCount).clear();
+
+        if (!clients.isEmpty() || !invalidatedViews.isEmpty()) {
+            scheduleFrame();
+        }
+    }
+
+    private void removeClientAt(int index) {
+        clients.remove(index);
+        if (nextClient > index) {
+            --nextClient;
+        }
+    }
+
+    private void scheduleFrame() {
+        if (!isFrameScheduled) {
+            isFrameScheduled = true;
+            choreographer.postFrameCallback(this);
+        }
+    }
+
+    /**
+     * Animation driven by {@link ChartFrameScheduler}.
+     */
+    public interface FrameClient {
+
+        /**
+         * Called once per frame.
+         *
+         * @param frameTimeNanos frame time from {@link Choreographer}, use it instead of current time
+         * @return true if client needs next frame, false to be removed from scheduler
+         */
+        public boolean doFrame(long frameTimeNanos);
+    }
+}
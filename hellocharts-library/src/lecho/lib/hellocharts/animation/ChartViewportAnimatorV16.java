@@ -0,0 +1,73 @@
+package lecho.lib.hellocharts.animation;
+
+import lecho.lib.hellocharts.model.Viewport;
+import lecho.lib.hellocharts.view.Chart;
+
+/**
+ * Viewport animator driven by shared {@link ChartFrameScheduler}.
+ */
+public class ChartViewportAnimatorV16 extends FrameAnimator implements ChartViewportAnimator {
+    private final Chart chart;
+    private Viewport startViewport = new Viewport();
+    private Viewport targetViewport = new Viewport();
+    private Viewport newViewport = new Viewport();
+    private ChartAnimationListener animationListener = new DummyChartAnimationListener();
+
+    public ChartViewportAnimatorV16(Chart chart) {
+        this.chart = chart;
+    }
+
+    @Override
+    public void startAnimation(Viewport startViewport, Viewport targetViewport) {
+        startAnimation(startViewport, targetViewport, FAST_ANIMATION_DURATION);
+    }
+
+    @Override
+    public void startAnimation(Viewport startViewport, Viewport targetViewport, long duration) {
+        this.startViewport.set(startViewport);
+        this.targetViewport.set(targetViewport);
+        start(duration);
+    }
+
+    @Override
+    public void cancelAnimation() {
+        cancel();
+    }
+
+    @Override
+    protected void onStart() {
+        animationListener.onAnimationStarted();
+    }
+
+    @Override
+    protected void onUpdate(float scale) {
+        float diffLeft = (targetViewport.left - startViewport.left) * scale;
+        float diffTop = (targetViewport.top - startViewport.top) * scale;
+        float diffRight = (targetViewport.right - startViewport.right) * scale;
+        float diffBottom = (targetViewport.bottom - startViewport.bottom) * scale;
+        newViewport.set(startViewport.left + diffLeft, startViewport.top + diffTop, startViewport.right + diffRight,
+                startViewport.bottom + diffBottom);
+        chart.setCurrentViewport(newViewport);
+    }
+
+    @Override
+    protected void onEnd() {
+        chart.setCurrentViewport(targetViewport);
+        animationListener.onAnimationFinished();
+    }
+
+    @Override
+    public boolean isAnimationStarted() {
+        return isStarted();
+    }
+
+    @Override
+    public void setChartAnimationListener(ChartAnimationListener animationListener) {
+        if (null == animationListener) {
+            this.animationListener = new DummyChartAnimationListener();
+        } else {
+            this.animationListener = animationListener;
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package lecho.lib.hellocharts.animation;
+
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.Interpolator;
+
+/**
+ * Base for animators driven by {@link ChartFrameScheduler}, interpolates fraction of animation from frame time.
+ */
+abstract class FrameAnimator implements ChartFrameScheduler.FrameClient {
+    private final ChartFrameScheduler scheduler;
+    private final Interpolator interpolator = new AccelerateDecelerateInterpolator();
+    private long durationNanos;
+    /**
+     * Frame time of the first frame of animation or -1 if animation didn't get any frame yet.
+     */
+    private long startTimeNanos;
+    private boolean isStarted;
+
+    FrameAnimator() {
+        this.scheduler = ChartFrameScheduler.getInstance();
+    }
+
+    void start(long duration) {
+        this.durationNanos = duration * 1000000;
+        this.startTimeNanos = -1;
+        isStarted = true;
+        onStart();
+        scheduler.addClient(this);
+    }
+
+    /**
+     * Stops animation, like ValueAnimator canceled animation also ends.
+     */
+    void cancel() {
+        if (isStarted) {
+            isStarted = false;
+            scheduler.removeClient(this);
+            onEnd();
+        }
+    }
+
+    boolean isStarted() {
+        return isStarted;
+    }
+
+    @Override
+    public boolean doFrame(long frameTimeNanos) {
+        if (!isStarted) {
+            return false;
+        }
+        if (startTimeNanos < 0) {
+            startTimeNanos = frameTimeNanos;
+        }
+        final long elapsed = frameTimeNanos - startTimeNanos;
+        final float fraction = elapsed >= durationNanos ? 1 : (float) elapsed / durationNanos;
+        onUpdate(interpolator.getInterpolation(fraction));
+        if (fraction >= 1) {
+            isStarted = false;
+            onEnd();
+            return false;
+        }
+        return true;
+    }
+
+    protected abstract void onStart();
+
+    /**
+     * @param scale interpolated animation fraction from 0 to 1.0
+     */
+    protected abstract void onUpdate(float scale);
+
+    protected abstract void onEnd();
+}
@@ -0,0 +1,68 @@
+package lecho.lib.hellocharts.animation;
+
+import lecho.lib.hellocharts.view.PieChartView;
+
+/**
+ * Pie chart rotation animator driven by shared {@link ChartFrameScheduler}.
+ */
+public class PieChartRotationAnimatorV16 extends FrameAnimator implements PieChartRotationAnimator {
+    private final PieChartView chart;
+    private final long duration;
+    private float startRotation = 0;
+    private float targetRotation = 0;
+    private ChartAnimationListener animationListener = new DummyChartAnimationListener();
+
+    public PieChartRotationAnimatorV16(PieChartView chart) {
+        this(chart, FAST_ANIMATION_DURATION);
+    }
+
+    public PieChartRotationAnimatorV16(PieChartView chart, long duration) {
+        this.chart = chart;
+        this.duration = duration;
+    }
+
+    @Override
+    public void startAnimation(float startRotation, float targetRotation) {
+        this.startRotation = (startRotation % 360 + 360) % 360;
+        this.targetRotation = (targetRotation % 360 + 360) % 360;
+        start(duration);
+    }
+
+    @Override
+    public void cancelAnimation() {
+        cancel();
+    }
+
+    @Override
+    protected void onStart() {
+        animationListener.onAnimationStarted();
+    }
+
+    @Override
+    protected void onUpdate(float scale) {
+        float rotation = startRotation + (targetRotation - startRotation) * scale;
+        rotation = (rotation % 360 + 360) % 360;
+        chart.setChartRotation((int) rotation, false);
+    }
+
+    @Override
+    protected void onEnd() {
+        chart.setChartRotation((int) targetRotation, false);
+        animationListener.onAnimationFinished();
+    }
+
+    @Override
+    public boolean isAnimationStarted() {
+        return isStarted();
+    }
+
+    @Override
+    public void setChartAnimationListener(ChartAnimationListener animationListener) {
+        if (null == animationListener) {
+            this.animationListener = new DummyChartAnimationListener();
+        } else {
+            this.animationListener = animationListener;
+        }
+    }
+
+}
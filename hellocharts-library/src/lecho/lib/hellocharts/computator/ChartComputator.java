@@ -38,6 +38,10 @@ public class ChartComputator {
      * during animations.
      */
     protected ViewportChangeListener viewportChangeListener = new DummyVieportChangeListener();
+    /**
+     * If not null vertical range of current viewport is fitted to values visible in its horizontal range.
+     */
+    protected ViewportYFitter viewportYFitter;
 
     /**
      * Calculates available width and height. Should be called when chart dimensions change. ContentRect is relative to
@@ -107,9 +111,36 @@ public class ChartComputator {
         currentViewport.right = Math.min(maxViewport.right, right);
         currentViewport.bottom = Math.max(maxViewport.bottom, bottom);
 
+        if (null != viewportYFitter && viewportYFitter.fitViewportY(currentViewport)) {
+            constrainViewportHeight();
+        }
+
         viewportChangeListener.onViewportChanged(currentViewport);
     }
 
+    /**
+     * Keeps fitted viewport within maximum viewport and makes it at least minViewportHeight high, flat data would
+     * give viewport with 0 height otherwise.
+     */
+    private void constrainViewportHeight() {
+        float top = Math.min(maxViewport.top, currentViewport.top);
+        float bottom = Math.max(maxViewport.bottom, currentViewport.bottom);
+        if (top - bottom < minViewportHeight) {
+            final float center = (top + bottom) / 2;
+            top = center + minViewportHeight / 2;
+            bottom = center - minViewportHeight / 2;
+            if (top > maxViewport.top) {
+                top = maxViewport.top;
+                bottom = top - minViewportHeight;
+            } else if (bottom < maxViewport.bottom) {
+                bottom = maxViewport.bottom;
+                top = bottom + minViewportHeight;
+            }
+        }
+        currentViewport.top = top;
+        currentViewport.bottom = bottom;
+    }
+
     /**
      * Sets the current viewport (defined by {@link #currentViewport}) to the given X and Y positions.
      */
@@ -153,6 +184,54 @@ public class ChartComputator {
         return contentRectMinusAllMargins.bottom - pixelOffset;
     }
 
+    /**
+     * Translates chart X values into raw pixel values, result is the same as {@link #computeRawX(float)} called for
+     * every value but viewport scale is calculated once. Values from index from (inclusive) to index to (exclusive)
+     * are written to the same indexes of dst, src and dst can be the same array. Uses visible viewport, subclasses
+     * that change {@link #computeRawX(float)} should override this method too.
+     */
+    public void computeRawX(float[] src, int from, int to, float[] dst) {
+        final Viewport viewport = getVisibleViewport();
+        final float left = viewport.left;
+        final float scale = contentRectMinusAllMargins.width() / viewport.width();
+        final float rawLeft = contentRectMinusAllMargins.left;
+        for (int i = from; i < to; ++i) {
+            dst[i] = rawLeft + (src[i] - left) * scale;
+        }
+    }
+
+    /**
+     * Translates chart Y values into raw pixel values, see {@link #computeRawX(float[], int, int, float[])}.
+     */
+    public void computeRawY(float[] src, int from, int to, float[] dst) {
+        final Viewport viewport = getVisibleViewport();
+        final float bottom = viewport.bottom;
+        final float scale = contentRectMinusAllMargins.height() / viewport.height();
+        final float rawBottom = contentRectMinusAllMargins.bottom;
+        for (int i = from; i < to; ++i) {
+            dst[i] = rawBottom - (src[i] - bottom) * scale;
+        }
+    }
+
+    /**
+     * Translates points stored as interleaved X and Y values into raw pixel coordinates. Points from index from
+     * (inclusive) to index to (exclusive) are read from src[2 * index] and src[2 * index + 1] and written to the same
+     * positions of dst, src and dst can be the same array.
+     */
+    public void computeRawPoints(float[] src, int from, int to, float[] dst) {
+        final Viewport viewport = getVisibleViewport();
+        final float left = viewport.left;
+        final float bottom = viewport.bottom;
+        final float scaleX = contentRectMinusAllMargins.width() / viewport.width();
+        final float scaleY = contentRectMinusAllMargins.height() / viewport.height();
+        final float rawLeft = contentRectMinusAllMargins.left;
+        final float rawBottom = contentRectMinusAllMargins.bottom;
+        for (int i = from * 2, end = to * 2; i < end; i += 2) {
+            dst[i] = rawLeft + (src[i] - left) * scaleX;
+            dst[i + 1] = rawBottom - (src[i + 1] - bottom) * scaleY;
+        }
+    }
+
     /**
      * Translates viewport distance int pixel distance for X coordinates.
      */
@@ -311,6 +390,18 @@ public class ChartComputator {
         }
     }
 
+    public ViewportYFitter getViewportYFitter() {
+        return viewportYFitter;
+    }
+
+    /**
+     * Set fitter used to auto-fit vertical range of current viewport every time viewport changes, pass null to disable
+     * auto-fitting.
+     */
+    public void setViewportYFitter(ViewportYFitter viewportYFitter) {
+        this.viewportYFitter = viewportYFitter;
+    }
+
     public int getChartWidth() {
         return chartWidth;
     }
@@ -0,0 +1,17 @@
+package lecho.lib.hellocharts.computator;
+
+import lecho.lib.hellocharts.model.Viewport;
+
+/**
+ * Fits vertical range of viewport to chart values visible in its horizontal range. Set it with
+ * {@link ChartComputator#setViewportYFitter(ViewportYFitter)} to auto-fit Y axis while user scrolls or zooms the chart.
+ */
+public interface ViewportYFitter {
+
+    /**
+     * Sets top and bottom of given viewport to range of values between its left and right. Returns false and leaves
+     * viewport unchanged if there are no values in that range.
+     */
+    public boolean fitViewportY(Viewport viewport);
+
+}
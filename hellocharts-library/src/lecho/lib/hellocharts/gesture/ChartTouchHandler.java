@@ -8,6 +8,8 @@ import android.view.ViewParent;
 
 import lecho.lib.hellocharts.computator.ChartComputator;
 import lecho.lib.hellocharts.gesture.ChartScroller.ScrollResult;
+import lecho.lib.hellocharts.listener.ChartPerformanceListener;
+import lecho.lib.hellocharts.model.ChartOperation;
 import lecho.lib.hellocharts.model.SelectedValue;
 import lecho.lib.hellocharts.renderer.ChartRenderer;
 import lecho.lib.hellocharts.view.Chart;
@@ -48,6 +50,11 @@ public class ChartTouchHandler {
      */
     protected ContainerScrollType containerScrollType;
 
+    /**
+     * Receives duration of value touch checks, null if chart performance is not measured.
+     */
+    protected ChartPerformanceListener performanceListener;
+
     public ChartTouchHandler(Context context, Chart chart) {
         this.chart = chart;
         this.computator = chart.getChartComputator();
@@ -209,7 +216,15 @@ public class ChartTouchHandler {
         oldSelectedValue.set(selectedValue);
         selectedValue.clear();
 
-        if (renderer.checkTouch(touchX, touchY)) {
+        final boolean isTouched;
+        if (null == performanceListener) {
+            isTouched = renderer.checkTouch(touchX, touchY);
+        } else {
+            final long startTime = System.nanoTime();
+            isTouched = renderer.checkTouch(touchX, touchY);
+            performanceListener.onOperationMeasured(ChartOperation.CHECK_TOUCH, System.nanoTime() - startTime);
+        }
+        if (isTouched) {
             selectedValue.set(renderer.getSelectedValue());
         }
 
@@ -221,6 +236,10 @@ public class ChartTouchHandler {
         }
     }
 
+    public void setPerformanceListener(ChartPerformanceListener performanceListener) {
+        this.performanceListener = performanceListener;
+    }
+
     public boolean isZoomEnabled() {
         return isZoomEnabled;
     }
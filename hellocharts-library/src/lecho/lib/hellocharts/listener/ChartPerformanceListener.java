@@ -0,0 +1,23 @@
+package lecho.lib.hellocharts.listener;
+
+import lecho.lib.hellocharts.model.ChartFrameMetrics;
+import lecho.lib.hellocharts.model.ChartOperation;
+
+/**
+ * Use implementations of this listener to measure chart performance, see
+ * {@link lecho.lib.hellocharts.view.Chart#setPerformanceListener(ChartPerformanceListener)}. Listener is called on UI
+ * thread right after measured work, it should be fast.
+ */
+public interface ChartPerformanceListener {
+
+    /**
+     * Called after every frame drawn by chart. Metrics object is reused for the next frame.
+     */
+    public void onFrameMeasured(ChartFrameMetrics metrics);
+
+    /**
+     * Called after chart work done outside of drawing, duration is in nanoseconds.
+     */
+    public void onOperationMeasured(ChartOperation operation, long duration);
+
+}
@@ -0,0 +1,146 @@
+package lecho.lib.hellocharts.model;
+
+import java.util.Arrays;
+
+/**
+ * Structure-of-arrays buffer used by chart data during data animation. On the first frame of animation values with
+ * target different than origin are bound to the buffer by their index within chart data and their origins and
+ * differences are copied into contiguous arrays, every frame all bound values are interpolated in a single loop and
+ * written back only to the values that change. Values that don't change are not touched at all. Every value occupies
+ * one slot with given number of channels, i.e. 3 channels for X, Y and Z of a bubble.
+ * <p/>
+ * Values don't know about the buffer. Chart data compares origin and difference of bound value with its slot before
+ * writing it back, value changed during animation doesn't match and buffer is filled again. Buffer is also filled again
+ * when animation starts over.
+ * <p/>
+ * Renderers can use {@link #size()} and {@link #getIndex(int)} to find out which values are animated.
+ */
+public class AnimationBuffer {
+    private final int channels;
+    private float[] origins = new float[0];
+    private float[] diffs = new float[0];
+    private float[] values = new float[0];
+    /**
+     * Index of bound value within chart data, i.e. column index for SubcolumnValue.
+     */
+    private int[] indexes = new int[0];
+    /**
+     * Index of bound value within its parent, i.e. index of SubcolumnValue within column, 0 for values without parent.
+     */
+    private int[] subindexes = new int[0];
+    private int size;
+    private boolean isValid;
+    private float scale;
+
+    public AnimationBuffer(int channels) {
+        this.channels = channels;
+    }
+
+    /**
+     * Returns number of bound values, that is number of values changed by current animation.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns index within chart data of value bound to given slot, i.e. column index for column chart and value index
+     * for bubble and pie chart.
+     */
+    public int getIndex(int slot) {
+        return indexes[slot];
+    }
+
+    /**
+     * Returns index of value bound to given slot within its parent, i.e. sub-column index for column chart.
+     */
+    public int getSubindex(int slot) {
+        return subindexes[slot];
+    }
+
+    /**
+     * Returns current value of given channel of value in given slot.
+     */
+    public float get(int slot, int channel) {
+        return values[slot * channels + channel];
+    }
+
+    /**
+     * Interpolates all bound values, chart data writes them back to values after this call.
+     *
+     * @param scale value from 0 to 1.0
+     */
+    public void update(float scale) {
+        this.scale = scale;
+        final float[] origins = this.origins;
+        final float[] diffs = this.diffs;
+        final float[] values = this.values;
+        for (int i = 0, length = size * channels; i < length; ++i) {
+            values[i] = origins[i] + diffs[i] * scale;
+        }
+    }
+
+    /**
+     * Returns true if buffer has to be filled by chart data before interpolating given scale, that is if it is empty,
+     * some bound value was changed or animation started over.
+     */
+    boolean needsFill(float scale) {
+        return !isValid || scale < this.scale;
+    }
+
+    /**
+     * Marks buffer as filled.
+     */
+    void validate() {
+        isValid = true;
+    }
+
+    /**
+     * Marks buffer to be filled again on the next frame, called when bound value was changed during animation.
+     */
+    void invalidate() {
+        isValid = false;
+    }
+
+    /**
+     * Binds value to the next free slot and returns that slot, use {@link #set(int, int, float, float)} to fill it.
+     */
+    int bind(int index, int subindex) {
+        if (size == indexes.length) {
+            final int capacity = Math.max(16, size * 2);
+            indexes = Arrays.copyOf(indexes, capacity);
+            subindexes = Arrays.copyOf(subindexes, capacity);
+            origins = Arrays.copyOf(origins, capacity * channels);
+            diffs = Arrays.copyOf(diffs, capacity * channels);
+            values = Arrays.copyOf(values, capacity * channels);
+        }
+        indexes[size] = index;
+        subindexes[size] = subindex;
+        return size++;
+    }
+
+    void set(int slot, int channel, float origin, float diff) {
+        final int i = slot * channels + channel;
+        origins[i] = origin;
+        diffs[i] = diff;
+        values[i] = origin;
+    }
+
+    /**
+     * Returns true if given channel of slot was bound with given origin and difference, false means that value was
+     * changed since it was bound.
+     */
+    boolean matches(int slot, int channel, float origin, float diff) {
+        final int i = slot * channels + channel;
+        return origins[i] == origin && diffs[i] == diff;
+    }
+
+    /**
+     * Unbinds all values.
+     */
+    void clear() {
+        size = 0;
+        scale = 0;
+        isValid = false;
+    }
+}
@@ -20,6 +20,14 @@ public class BubbleChartData extends AbstractChartData {
     private float bubbleScale = DEFAULT_BUBBLE_SCALE;
     // TODO: consider Collections.emptyList()
     private List<BubbleValue> values = new ArrayList<BubbleValue>();
+    /**
+     * Interpolates values during data animation, filled on the first frame of animation.
+     */
+    private AnimationBuffer animationBuffer = new AnimationBuffer(3);
+    /**
+     * Incremented when values are set or changed in place, see {@link #getModificationCount()}.
+     */
+    private int modificationCount;
 
     public BubbleChartData() {
     }
@@ -59,8 +67,20 @@ public class BubbleChartData extends AbstractChartData {
 
     @Override
     public void update(float scale) {
-        for (BubbleValue value : values) {
-            value.update(scale);
+        if (animationBuffer.needsFill(scale)) {
+            animationBuffer.clear();
+            for (int i = 0, size = values.size(); i < size; ++i) {
+                values.get(i).bindAnimation(animationBuffer, i);
+            }
+            animationBuffer.validate();
+        }
+        animationBuffer.update(scale);
+        for (int slot = 0, size = animationBuffer.size(); slot < size; ++slot) {
+            final int index = animationBuffer.getIndex(slot);
+            if (index >= values.size() || !values.get(index).applyAnimation(animationBuffer, slot)) {
+                // Value was changed during animation, buffer is filled again on the next frame.
+                animationBuffer.invalidate();
+            }
         }
     }
 
@@ -69,6 +89,14 @@ public class BubbleChartData extends AbstractChartData {
         for (BubbleValue value : values) {
             value.finish();
         }
+        animationBuffer.clear();
+    }
+
+    /**
+     * Returns buffer with values changed by current data animation, it is filled on the first animation frame.
+     */
+    public AnimationBuffer getAnimationBuffer() {
+        return animationBuffer;
     }
 
     public List<BubbleValue> getValues() {
@@ -81,6 +109,24 @@ public class BubbleChartData extends AbstractChartData {
         } else {
             this.values = values;
         }
+        ++modificationCount;
+        return this;
+    }
+
+    /**
+     * Returns number of changes made to values of this data, it changes when values are set and when
+     * {@link #notifyValuesChanged()} is called. Renderer compares it to know when cached bubble positions are outdated.
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Call after values list or coordinates of values were changed in place, renderer caches bubble positions and
+     * updates them only when chart data is set, during data animation or after this call.
+     */
+    public BubbleChartData notifyValuesChanged() {
+        ++modificationCount;
         return this;
     }
 
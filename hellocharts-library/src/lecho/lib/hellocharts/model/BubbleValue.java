@@ -42,12 +42,12 @@ public class BubbleValue {
     private float diffX;
 
     /**
-     * Difference between originX value and target X value.
+     * Difference between originY value and target Y value.
      */
     private float diffY;
 
     /**
-     * Difference between originX value and target X value.
+     * Difference between originZ value and target Z value.
      */
     private float diffZ;
     private int color = ChartUtils.DEFAULT_COLOR;
@@ -69,7 +69,7 @@ public class BubbleValue {
     }
 
     public BubbleValue(BubbleValue bubbleValue) {
-        set(bubbleValue.x, bubbleValue.y, bubbleValue.z);
+        set(bubbleValue.getX(), bubbleValue.getY(), bubbleValue.getZ());
         setColor(bubbleValue.color);
         this.label = bubbleValue.label;
     }
@@ -84,6 +84,10 @@ public class BubbleValue {
         set(originX + diffX, originY + diffY, originZ + diffZ);
     }
 
+    /**
+     * Sets coordinates of this value. If value is already part of chart data call
+     * {@link BubbleChartData#notifyValuesChanged()} after changing it, renderer caches bubble positions.
+     */
     public BubbleValue set(float x, float y, float z) {
         this.x = x;
         this.y = y;
@@ -120,6 +124,48 @@ public class BubbleValue {
         return this.z;
     }
 
+    /**
+     * Returns X value at the beginning of data animation.
+     */
+    public float getOriginX() {
+        return originX;
+    }
+
+    /**
+     * Returns Y value at the beginning of data animation.
+     */
+    public float getOriginY() {
+        return originY;
+    }
+
+    /**
+     * Returns Z value at the beginning of data animation.
+     */
+    public float getOriginZ() {
+        return originZ;
+    }
+
+    /**
+     * Returns X value that will be reached when data animation finish.
+     */
+    public float getTargetX() {
+        return originX + diffX;
+    }
+
+    /**
+     * Returns Y value that will be reached when data animation finish.
+     */
+    public float getTargetY() {
+        return originY + diffY;
+    }
+
+    /**
+     * Returns Z value that will be reached when data animation finish.
+     */
+    public float getTargetZ() {
+        return originZ + diffZ;
+    }
+
     public int getColor() {
         return color;
     }
@@ -163,9 +209,40 @@ public class BubbleValue {
         return this;
     }
 
+    /**
+     * Binds this value to animation buffer with 3 channels if its target is different than origin.
+     *
+     * @param index index of this value within chart data
+     */
+    void bindAnimation(AnimationBuffer buffer, int index) {
+        if (diffX == 0 && diffY == 0 && diffZ == 0) {
+            return;
+        }
+        final int slot = buffer.bind(index, 0);
+        buffer.set(slot, 0, originX, diffX);
+        buffer.set(slot, 1, originY, diffY);
+        buffer.set(slot, 2, originZ, diffZ);
+    }
+
+    /**
+     * Sets current X, Y and Z interpolated by animation buffer.
+     *
+     * @return false if value was changed after it was bound to given slot, it is not updated then
+     */
+    boolean applyAnimation(AnimationBuffer buffer, int slot) {
+        if (!buffer.matches(slot, 0, originX, diffX) || !buffer.matches(slot, 1, originY, diffY)
+                || !buffer.matches(slot, 2, originZ, diffZ)) {
+            return false;
+        }
+        x = buffer.get(slot, 0);
+        y = buffer.get(slot, 1);
+        z = buffer.get(slot, 2);
+        return true;
+    }
+
     @Override
     public String toString() {
-        return "BubbleValue [x=" + x + ", y=" + y + ", z=" + z + "]";
+        return "BubbleValue [x=" + getX() + ", y=" + getY() + ", z=" + getZ() + "]";
     }
 
     @Override
@@ -177,15 +254,15 @@ public class BubbleValue {
 
         if (color != that.color) return false;
         if (darkenColor != that.darkenColor) return false;
-        if (Float.compare(that.diffX, diffX) != 0) return false;
-        if (Float.compare(that.diffY, diffY) != 0) return false;
-        if (Float.compare(that.diffZ, diffZ) != 0) return false;
-        if (Float.compare(that.originX, originX) != 0) return false;
-        if (Float.compare(that.originY, originY) != 0) return false;
-        if (Float.compare(that.originZ, originZ) != 0) return false;
-        if (Float.compare(that.x, x) != 0) return false;
-        if (Float.compare(that.y, y) != 0) return false;
-        if (Float.compare(that.z, z) != 0) return false;
+        if (Float.compare(that.getOriginX(), getOriginX()) != 0) return false;
+        if (Float.compare(that.getOriginY(), getOriginY()) != 0) return false;
+        if (Float.compare(that.getOriginZ(), getOriginZ()) != 0) return false;
+        if (Float.compare(that.getTargetX(), getTargetX()) != 0) return false;
+        if (Float.compare(that.getTargetY(), getTargetY()) != 0) return false;
+        if (Float.compare(that.getTargetZ(), getTargetZ()) != 0) return false;
+        if (Float.compare(that.getX(), getX()) != 0) return false;
+        if (Float.compare(that.getY(), getY()) != 0) return false;
+        if (Float.compare(that.getZ(), getZ()) != 0) return false;
         if (!Arrays.equals(label, that.label)) return false;
         if (shape != that.shape) return false;
 
@@ -194,15 +271,24 @@ public class BubbleValue {
 
     @Override
     public int hashCode() {
+        final float x = getX();
+        final float y = getY();
+        final float z = getZ();
         int result = (x != +0.0f ? Float.floatToIntBits(x) : 0);
         result = 31 * result + (y != +0.0f ? Float.floatToIntBits(y) : 0);
         result = 31 * result + (z != +0.0f ? Float.floatToIntBits(z) : 0);
+        final float originX = getOriginX();
+        final float originY = getOriginY();
+        final float originZ = getOriginZ();
+        final float targetX = getTargetX();
+        final float targetY = getTargetY();
+        final float targetZ = getTargetZ();
         result = 31 * result + (originX != +0.0f ? Float.floatToIntBits(originX) : 0);
         result = 31 * result + (originY != +0.0f ? Float.floatToIntBits(originY) : 0);
         result = 31 * result + (originZ != +0.0f ? Float.floatToIntBits(originZ) : 0);
-        result = 31 * result + (diffX != +0.0f ? Float.floatToIntBits(diffX) : 0);
-        result = 31 * result + (diffY != +0.0f ? Float.floatToIntBits(diffY) : 0);
-        result = 31 * result + (diffZ != +0.0f ? Float.floatToIntBits(diffZ) : 0);
+        result = 31 * result + (targetX != +0.0f ? Float.floatToIntBits(targetX) : 0);
+        result = 31 * result + (targetY != +0.0f ? Float.floatToIntBits(targetY) : 0);
+        result = 31 * result + (targetZ != +0.0f ? Float.floatToIntBits(targetZ) : 0);
         result = 31 * result + color;
         result = 31 * result + darkenColor;
         result = 31 * result + (shape != null ? shape.hashCode() : 0);
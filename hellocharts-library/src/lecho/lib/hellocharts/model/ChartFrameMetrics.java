@@ -0,0 +1,89 @@
+package lecho.lib.hellocharts.model;
+
+/**
+ * Timings and point counters of a single frame drawn by chart. Times are in nanoseconds. Points are values passed to
+ * renderer for drawing, value drawn both as line vertex and as point is counted twice. Culled points are the ones
+ * skipped because they were outside of viewport or were removed by decimation.
+ * <p/>
+ * The same object is reused for every frame, copy values you want to keep.
+ */
+public class ChartFrameMetrics {
+    private long axesBackgroundTime;
+    private long chartTime;
+    private long unclippedTime;
+    private long axesForegroundTime;
+    private int pointsSubmitted;
+    private int pointsDrawn;
+
+    /**
+     * Clears counters, called before frame is drawn.
+     */
+    public void reset() {
+        axesBackgroundTime = 0;
+        chartTime = 0;
+        unclippedTime = 0;
+        axesForegroundTime = 0;
+        pointsSubmitted = 0;
+        pointsDrawn = 0;
+    }
+
+    public void setStageTimes(long axesBackgroundTime, long chartTime, long unclippedTime, long axesForegroundTime) {
+        this.axesBackgroundTime = axesBackgroundTime;
+        this.chartTime = chartTime;
+        this.unclippedTime = unclippedTime;
+        this.axesForegroundTime = axesForegroundTime;
+    }
+
+    /**
+     * Called by renderers for every drawn series of values.
+     */
+    public void addPoints(int submitted, int drawn) {
+        pointsSubmitted += submitted;
+        pointsDrawn += drawn;
+    }
+
+    /**
+     * Time of drawing axes background, lines and labels of axes drawn behind chart.
+     */
+    public long getAxesBackgroundTime() {
+        return axesBackgroundTime;
+    }
+
+    /**
+     * Time of drawing chart data clipped to content rect.
+     */
+    public long getChartTime() {
+        return chartTime;
+    }
+
+    /**
+     * Time of drawing chart data that is not clipped to content rect, i.e. points and labels.
+     */
+    public long getUnclippedTime() {
+        return unclippedTime;
+    }
+
+    /**
+     * Time of drawing axes in front of chart.
+     */
+    public long getAxesForegroundTime() {
+        return axesForegroundTime;
+    }
+
+    public long getTotalTime() {
+        return axesBackgroundTime + chartTime + unclippedTime + axesForegroundTime;
+    }
+
+    public int getPointsSubmitted() {
+        return pointsSubmitted;
+    }
+
+    public int getPointsDrawn() {
+        return pointsDrawn;
+    }
+
+    public int getPointsCulled() {
+        return pointsSubmitted - pointsDrawn;
+    }
+
+}
@@ -0,0 +1,12 @@
+package lecho.lib.hellocharts.model;
+
+/**
+ * Chart work measured outside of drawing, see {@link lecho.lib.hellocharts.listener.ChartPerformanceListener}.
+ * <p/>
+ * CHECK_TOUCH - renderer looking for value under touch point.<br/>
+ * DATA_CHANGE - renderers processing new chart data, including viewport calculation.<br/>
+ * VIEWPORT_CALCULATION - renderer recalculating viewports after values were appended or animated.
+ */
+public enum ChartOperation {
+    CHECK_TOUCH, DATA_CHANGE, VIEWPORT_CALCULATION
+}
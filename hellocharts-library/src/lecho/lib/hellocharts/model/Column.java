@@ -52,6 +52,15 @@ public class Column {
         }
     }
 
+    /**
+     * Binds all values of this column to animation buffer of chart data.
+     */
+    void bindAnimation(AnimationBuffer buffer, int columnIndex) {
+        for (int i = 0, size = values.size(); i < size; ++i) {
+            values.get(i).bindAnimation(buffer, columnIndex, i);
+        }
+    }
+
     public List<SubcolumnValue> getValues() {
         return values;
     }
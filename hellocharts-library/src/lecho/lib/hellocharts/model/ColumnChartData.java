@@ -16,6 +16,10 @@ public class ColumnChartData extends AbstractChartData {
     private float baseValue = DEFAULT_BASE_VALUE;
     private List<Column> columns = new ArrayList<Column>();
     private boolean isStacked = false;
+    /**
+     * Interpolates values during data animation, filled on the first frame of animation.
+     */
+    private AnimationBuffer animationBuffer = new AnimationBuffer(1);
 
     public ColumnChartData() {
     }
@@ -56,10 +60,23 @@ public class ColumnChartData extends AbstractChartData {
 
     @Override
     public void update(float scale) {
-        for (Column column : columns) {
-            column.update(scale);
+        if (animationBuffer.needsFill(scale)) {
+            animationBuffer.clear();
+            for (int i = 0, size = columns.size(); i < size; ++i) {
+                columns.get(i).bindAnimation(animationBuffer, i);
+            }
+            animationBuffer.validate();
+        }
+        animationBuffer.update(scale);
+        for (int slot = 0, size = animationBuffer.size(); slot < size; ++slot) {
+            final int columnIndex = animationBuffer.getIndex(slot);
+            final int valueIndex = animationBuffer.getSubindex(slot);
+            if (columnIndex >= columns.size() || valueIndex >= columns.get(columnIndex).getValues().size()
+                    || !columns.get(columnIndex).getValues().get(valueIndex).applyAnimation(animationBuffer, slot)) {
+                // Value was changed during animation, buffer is filled again on the next frame.
+                animationBuffer.invalidate();
+            }
         }
-
     }
 
     @Override
@@ -67,6 +84,14 @@ public class ColumnChartData extends AbstractChartData {
         for (Column column : columns) {
             column.finish();
         }
+        animationBuffer.clear();
+    }
+
+    /**
+     * Returns buffer with values changed by current data animation, it is filled on the first animation frame.
+     */
+    public AnimationBuffer getAnimationBuffer() {
+        return animationBuffer;
     }
 
     public List<Column> getColumns() {
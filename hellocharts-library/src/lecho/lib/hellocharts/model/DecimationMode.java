@@ -0,0 +1,14 @@
+package lecho.lib.hellocharts.model;
+
+/**
+ * Controls if line is downsampled before drawing, see {@link Line#setDecimationMode(DecimationMode)}.
+ * <p/>
+ * NONE - all visible points are drawn.<br/>
+ * AUTO - number of drawn points is limited to width of chart content area in pixels.<br/>
+ * FIXED - number of drawn points is limited to {@link Line#getDecimationTarget()}.<br/>
+ * M4 - for every pixel column of content area the first, the last, the minimum and the maximum point are drawn. Unlike
+ * AUTO it never loses spikes and gives pixel exact result for straight lines.
+ */
+public enum DecimationMode {
+    NONE, AUTO, FIXED, M4
+}
@@ -2,7 +2,6 @@ package lecho.lib.hellocharts.model;
 
 import android.graphics.PathEffect;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import lecho.lib.hellocharts.formatter.LineChartValueFormatter;
@@ -17,6 +16,7 @@ public class Line {
     private static final int DEFAULT_LINE_STROKE_WIDTH_DP = 3;
     private static final int DEFAULT_POINT_RADIUS_DP = 6;
     private static final int DEFAULT_AREA_TRANSPARENCY = 64;
+    private static final int DEFAULT_DECIMATION_TARGET = 1000;
     public static final int UNINITIALIZED = 0;
     private int color = ChartUtils.DEFAULT_COLOR;
     private int pointColor = UNINITIALIZED;
@@ -36,9 +36,12 @@ public class Line {
     private boolean isSquare = false;
     private boolean isFilled = false;
     private ValueShape shape = ValueShape.CIRCLE;
+    private DecimationMode decimationMode = DecimationMode.NONE;
+    private int decimationTarget = DEFAULT_DECIMATION_TARGET;
     private PathEffect pathEffect;
     private LineChartValueFormatter formatter = new SimpleLineChartValueFormatter();
-    private List<PointValue> values = new ArrayList<PointValue>();
+    private PointSeries series = new PointSeries();
+    private List<PointValue> values = series.asList();
 
     public Line() {
 
@@ -48,6 +51,10 @@ public class Line {
         setValues(values);
     }
 
+    public Line(PointSeries series) {
+        setSeries(series);
+    }
+
     public Line(Line line) {
         this.color = line.color;
         this.pointColor = line.pointColor;
@@ -64,35 +71,85 @@ public class Line {
         this.isCubic = line.isCubic;
         this.isFilled = line.isFilled;
         this.shape = line.shape;
+        this.decimationMode = line.decimationMode;
+        this.decimationTarget = line.decimationTarget;
         this.pathEffect = line.pathEffect;
         this.formatter = line.formatter;
 
-        for (PointValue pointValue : line.values) {
-            this.values.add(new PointValue(pointValue));
-        }
+        line.syncSeries();
+        this.series = new PointSeries(line.series);
+        this.values = series.asList();
     }
 
     public void update(float scale) {
-        for (PointValue value : values) {
-            value.update(scale);
-        }
+        series.update(scale);
     }
 
     public void finish() {
-        for (PointValue value : values) {
-            value.finish();
-        }
+        series.finish();
     }
 
+    /**
+     * Returns values of this line. If line was created with {@link PointSeries} returned list is a view of that series.
+     */
     public List<PointValue> getValues() {
         return this.values;
     }
 
+    /**
+     * Set values for this line, values are copied into line's {@link PointSeries} and become views of that series so
+     * changes made through them(i.e. setTarget) are visible to the chart. Values that are bound to other line are copied.
+     * If you add or remove values from the given list later call set*ChartData method again.
+     */
     public void setValues(List<PointValue> values) {
+        releaseValues();
         if (null == values) {
-            this.values = new ArrayList<PointValue>();
+            this.series = new PointSeries();
+            this.values = series.asList();
         } else {
+            this.series = new PointSeries(values.size());
             this.values = values;
+            series.setValues(values);
+        }
+    }
+
+    /**
+     * Detaches values set with {@link #setValues(List)} from series of this line so they can be bound to other line.
+     * Points of this line don't change. Renderer calls it for lines removed from chart data.
+     */
+    public void releaseValues() {
+        if (!(values instanceof PointSeriesValues)) {
+            series.detachValues();
+        }
+    }
+
+    /**
+     * Returns column storage for points of this line, renderers read coordinates from that series.
+     */
+    public PointSeries getSeries() {
+        return series;
+    }
+
+    /**
+     * Set column storage for points of this line, use it for big data sets instead of list of PointValues.
+     */
+    public Line setSeries(PointSeries series) {
+        if (null == series) {
+            this.series = new PointSeries();
+        } else {
+            this.series = series;
+        }
+        this.values = this.series.asList();
+        return this;
+    }
+
+    /**
+     * Copies values list into series if that list was modified after {@link #setValues(List)} call. Called by renderer
+     * when chart data changed, it does nothing for lines created with {@link PointSeries}.
+     */
+    public void syncSeries() {
+        if (!series.isBoundTo(values)) {
+            series.setValues(values);
         }
     }
 
@@ -279,6 +336,43 @@ public class Line {
         return this;
     }
 
+    /**
+     * @see #setDecimationMode(DecimationMode)
+     */
+    public DecimationMode getDecimationMode() {
+        return decimationMode;
+    }
+
+    /**
+     * Set decimation mode for this line. When decimation is enabled visible points of line sorted by X are downsampled
+     * before building path, that makes drawing of big data sets much faster. Points and labels are not affected.
+     *
+     * @param decimationMode possible values: NONE, AUTO, FIXED, M4
+     * @return
+     */
+    public Line setDecimationMode(DecimationMode decimationMode) {
+        if (null != decimationMode) {
+            this.decimationMode = decimationMode;
+        }
+        return this;
+    }
+
+    /**
+     * @see #setDecimationTarget(int)
+     */
+    public int getDecimationTarget() {
+        return decimationTarget;
+    }
+
+    /**
+     * Set maximum number of points drawn for this line across visible viewport width in {@link DecimationMode#FIXED}
+     * mode, values smaller than 3 disable decimation.
+     */
+    public Line setDecimationTarget(int decimationTarget) {
+        this.decimationTarget = decimationTarget;
+        return this;
+    }
+
     public PathEffect getPathEffect() {
         return pathEffect;
     }
@@ -0,0 +1,267 @@
+package lecho.lib.hellocharts.model;
+
+/**
+ * Multi-resolution min/max index of {@link PointSeries}. Level 0 are points themselves, on level k every bucket covers
+ * 2^k consecutive array slots of the series and keeps slots of the point with minimum and maximum Y. Pyramid is built
+ * on first use and then updated together with the series, appending point costs O(log n). Operations that move points,
+ * like insert or data animation, invalidate the pyramid and it is rebuilt when used next time.
+ */
+public class MinMaxPyramid {
+    private final PointSeries series;
+
+    /**
+     * Slots of minimum and maximum values for levels from 1, minSlots[level - 1][bucket]. -1 means empty bucket.
+     */
+    private int[][] minSlots;
+    private int[][] maxSlots;
+    private int capacity;
+    private boolean isDirty = true;
+
+    MinMaxPyramid(PointSeries series) {
+        this.series = series;
+    }
+
+    /**
+     * Returns number of levels including level 0.
+     */
+    public int getLevelCount() {
+        build();
+        return minSlots.length + 1;
+    }
+
+    /**
+     * Returns level with buckets of at most given number of points, that is level closest to one pixel if
+     * pointsPerPixel is the number of visible points divided by content width.
+     */
+    public int chooseLevel(float pointsPerPixel) {
+        if (pointsPerPixel < 2) {
+            return 0;
+        }
+        final int level = 31 - Integer.numberOfLeadingZeros((int) pointsPerPixel);
+        return Math.min(level, getLevelCount() - 1);
+    }
+
+    /**
+     * Writes points from index range of the series into out series using buckets from given level. For every full
+     * bucket the first, the minimum, the maximum and the last point are written in their original order, points from
+     * partial buckets at the range edges are written as they are.
+     *
+     * @param from  index of the first point of the range
+     * @param to    index after the last point of the range
+     * @param level pyramid level, see {@link #chooseLevel(float)}
+     * @param out   series for the result, it is cleared before use so it can be reused between frames
+     */
+    public void decimate(int from, int to, int level, PointSeries out) {
+        out.clear();
+        build();
+        level = Math.min(level, minSlots.length);
+        final int bucketSize = 1 << level;
+        final int head = series.getHeadSlot();
+        int index = from;
+        while (index < to) {
+            final int slot = series.slot(index);
+            if (level > 0 && (slot & (bucketSize - 1)) == 0) {
+                final int bucketEnd = Math.min(slot + bucketSize, capacity);
+                // Bucket can be used if it is fully within range and doesn't contain the first point of circular
+                // series in the middle, in that case points in the bucket are not consecutive.
+                if (index + bucketEnd - slot <= to && (head <= slot || head >= bucketEnd)) {
+                    final int bucket = slot >> level;
+                    addBucket(slot, minSlots[level - 1][bucket], maxSlots[level - 1][bucket], bucketEnd - 1, out);
+                    index += bucketEnd - slot;
+                    continue;
+                }
+            }
+            out.add(series.getXAt(slot), series.getYAt(slot));
+            ++index;
+        }
+    }
+
+    /**
+     * Returns the smallest Y value of points from given index range in O(log n), range must not be empty.
+     *
+     * @param from index of the first point of the range
+     * @param to   index after the last point of the range
+     */
+    public float getMinY(int from, int to) {
+        return series.getYAt(querySlot(from, to, true));
+    }
+
+    /**
+     * Returns the biggest Y value of points from given index range in O(log n), range must not be empty.
+     *
+     * @param from index of the first point of the range
+     * @param to   index after the last point of the range
+     */
+    public float getMaxY(int from, int to) {
+        return series.getYAt(querySlot(from, to, false));
+    }
+
+    /**
+     * Finds slot of minimum or maximum value in index range. Range of circular series may wrap around the end of
+     * arrays, in that case it is split into two slot ranges.
+     */
+    private int querySlot(int from, int to, boolean isMin) {
+        if (from < 0 || to > series.size() || from >= to) {
+            throw new IndexOutOfBoundsException("Invalid range " + from + "-" + to + ", size is " + series.size());
+        }
+        build();
+        final int firstSlot = series.slot(from);
+        final int lastSlot = series.slot(to - 1);
+        if (firstSlot <= lastSlot) {
+            return querySlotRange(firstSlot, lastSlot + 1, isMin);
+        }
+        final int slot = querySlotRange(firstSlot, capacity, isMin);
+        final int otherSlot = querySlotRange(0, lastSlot + 1, isMin);
+        return isMin ? selectMin(slot, otherSlot) : selectMax(slot, otherSlot);
+    }
+
+    /**
+     * Bottom-up segment tree query for slots from fromSlot to toSlot(exclusive).
+     */
+    private int querySlotRange(int fromSlot, int toSlot, boolean isMin) {
+        int result = -1;
+        int level = 0;
+        while (fromSlot < toSlot) {
+            if ((fromSlot & 1) == 1) {
+                result = selectNode(result, level, fromSlot, isMin);
+                ++fromSlot;
+            }
+            if ((toSlot & 1) == 1) {
+                --toSlot;
+                result = selectNode(result, level, toSlot, isMin);
+            }
+            fromSlot >>= 1;
+            toSlot >>= 1;
+            ++level;
+        }
+        return result;
+    }
+
+    private int selectNode(int slot, int level, int node, boolean isMin) {
+        if (level == 0) {
+            return isMin ? selectMin(slot, node) : selectMax(slot, node);
+        }
+        return isMin ? selectMin(slot, minSlots[level - 1][node]) : selectMax(slot, maxSlots[level - 1][node]);
+    }
+
+    void invalidate() {
+        isDirty = true;
+    }
+
+    /**
+     * Updates buckets containing given slot after point in that slot was added, changed or removed.
+     */
+    void onSlotChanged(int slot) {
+        if (isDirty) {
+            return;
+        }
+        if (series.capacity() != capacity) {
+            isDirty = true;
+            return;
+        }
+        int bucket = slot >> 1;
+        for (int level = 1; level <= minSlots.length; ++level) {
+            updateBucket(level, bucket);
+            bucket >>= 1;
+        }
+    }
+
+    /**
+     * Builds pyramid if it was not built yet or was invalidated, other methods call it automatically.
+     */
+    public void build() {
+        if (!isDirty && series.capacity() == capacity) {
+            return;
+        }
+        if (series.capacity() != capacity || null == minSlots) {
+            capacity = series.capacity();
+            int levelCount = 0;
+            while ((1 << levelCount) < capacity) {
+                ++levelCount;
+            }
+            minSlots = new int[levelCount][];
+            maxSlots = new int[levelCount][];
+            for (int level = 1; level <= levelCount; ++level) {
+                final int bucketCount = (capacity + (1 << level) - 1) >> level;
+                minSlots[level - 1] = new int[bucketCount];
+                maxSlots[level - 1] = new int[bucketCount];
+            }
+        }
+        for (int level = 1; level <= minSlots.length; ++level) {
+            final int bucketCount = minSlots[level - 1].length;
+            for (int bucket = 0; bucket < bucketCount; ++bucket) {
+                updateBucket(level, bucket);
+            }
+        }
+        isDirty = false;
+    }
+
+    /**
+     * Recalculates bucket from its two children.
+     */
+    private void updateBucket(int level, int bucket) {
+        final int first = bucket << 1;
+        final int second = first + 1;
+        int min;
+        int max;
+        if (level == 1) {
+            min = max = series.isSlotOccupied(first) ? first : -1;
+            if (second < capacity && series.isSlotOccupied(second)) {
+                min = selectMin(min, second);
+                max = selectMax(max, second);
+            }
+        } else {
+            final int[] childMinSlots = minSlots[level - 2];
+            final int[] childMaxSlots = maxSlots[level - 2];
+            min = childMinSlots[first];
+            max = childMaxSlots[first];
+            if (second < childMinSlots.length) {
+                min = selectMin(min, childMinSlots[second]);
+                max = selectMax(max, childMaxSlots[second]);
+            }
+        }
+        minSlots[level - 1][bucket] = min;
+        maxSlots[level - 1][bucket] = max;
+    }
+
+    private int selectMin(int slot, int otherSlot) {
+        if (slot < 0) {
+            return otherSlot;
+        }
+        if (otherSlot < 0) {
+            return slot;
+        }
+        return series.getYAt(otherSlot) < series.getYAt(slot) ? otherSlot : slot;
+    }
+
+    private int selectMax(int slot, int otherSlot) {
+        if (slot < 0) {
+            return otherSlot;
+        }
+        if (otherSlot < 0) {
+            return slot;
+        }
+        return series.getYAt(otherSlot) > series.getYAt(slot) ? otherSlot : slot;
+    }
+
+    /**
+     * Adds points of one bucket in slot order skipping duplicates.
+     */
+    private void addBucket(int firstSlot, int minSlot, int maxSlot, int lastSlot, PointSeries out) {
+        final int lowerSlot = Math.min(minSlot, maxSlot);
+        final int upperSlot = Math.max(minSlot, maxSlot);
+        int previousSlot = firstSlot;
+        out.add(series.getXAt(firstSlot), series.getYAt(firstSlot));
+        if (lowerSlot > previousSlot) {
+            out.add(series.getXAt(lowerSlot), series.getYAt(lowerSlot));
+            previousSlot = lowerSlot;
+        }
+        if (upperSlot > previousSlot) {
+            out.add(series.getXAt(upperSlot), series.getYAt(upperSlot));
+            previousSlot = upperSlot;
+        }
+        if (lastSlot > previousSlot) {
+            out.add(series.getXAt(lastSlot), series.getYAt(lastSlot));
+        }
+    }
+}
@@ -37,6 +37,10 @@ public class PieChartData extends AbstractChartData {
     private String centerText2;
 
     private List<SliceValue> values = new ArrayList<SliceValue>();
+    /**
+     * Interpolates values during data animation, filled on the first frame of animation.
+     */
+    private AnimationBuffer animationBuffer = new AnimationBuffer(1);
 
     public PieChartData() {
         setAxisXBottom(null);
@@ -90,8 +94,20 @@ public class PieChartData extends AbstractChartData {
 
     @Override
     public void update(float scale) {
-        for (SliceValue value : values) {
-            value.update(scale);
+        if (animationBuffer.needsFill(scale)) {
+            animationBuffer.clear();
+            for (int i = 0, size = values.size(); i < size; ++i) {
+                values.get(i).bindAnimation(animationBuffer, i);
+            }
+            animationBuffer.validate();
+        }
+        animationBuffer.update(scale);
+        for (int slot = 0, size = animationBuffer.size(); slot < size; ++slot) {
+            final int index = animationBuffer.getIndex(slot);
+            if (index >= values.size() || !values.get(index).applyAnimation(animationBuffer, slot)) {
+                // Value was changed during animation, buffer is filled again on the next frame.
+                animationBuffer.invalidate();
+            }
         }
     }
 
@@ -100,6 +116,7 @@ public class PieChartData extends AbstractChartData {
         for (SliceValue value : values) {
             value.finish();
         }
+        animationBuffer.clear();
     }
 
     /**
@@ -118,6 +135,13 @@ public class PieChartData extends AbstractChartData {
         super.setAxisYLeft(null);
     }
 
+    /**
+     * Returns buffer with values changed by current data animation, it is filled on the first animation frame.
+     */
+    public AnimationBuffer getAnimationBuffer() {
+        return animationBuffer;
+    }
+
     public List<SliceValue> getValues() {
         return values;
     }
@@ -0,0 +1,126 @@
+package lecho.lib.hellocharts.model;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid index of {@link PointSeries} in data space, used to find points near given position without scanning
+ * the whole series, mainly for touch handling of series that are not sorted by X. Grid has about
+ * {@link #POINTS_PER_CELL} points per cell, it is built on first use and rebuilt lazily after series changed.
+ */
+public class PointGrid {
+    private static final int POINTS_PER_CELL = 4;
+    private final PointSeries series;
+
+    /**
+     * Point indexes sorted by cell, points of cell c are cellIndexes[cellStarts[c]] to cellIndexes[cellStarts[c + 1]].
+     */
+    private int[] cellStarts;
+    private int[] cellIndexes;
+    private int columns;
+    private int rows;
+    private float left;
+    private float bottom;
+    private float cellWidth;
+    private float cellHeight;
+    private boolean isDirty = true;
+
+    PointGrid(PointSeries series) {
+        this.series = series;
+    }
+
+    /**
+     * Returns index of the last point within ellipse with given center and radii or -1 if there is no such point.
+     */
+    public int findLast(float centerX, float centerY, float radiusX, float radiusY) {
+        if (series.isEmpty() || radiusX <= 0 || radiusY <= 0) {
+            return -1;
+        }
+        build();
+        final int firstColumn = column(centerX - radiusX);
+        final int lastColumn = column(centerX + radiusX);
+        final int firstRow = row(centerY - radiusY);
+        final int lastRow = row(centerY + radiusY);
+        int result = -1;
+        for (int row = firstRow; row <= lastRow; ++row) {
+            for (int column = firstColumn; column <= lastColumn; ++column) {
+                final int cell = row * columns + column;
+                for (int i = cellStarts[cell], end = cellStarts[cell + 1]; i < end; ++i) {
+                    final int index = cellIndexes[i];
+                    if (index <= result) {
+                        continue;
+                    }
+                    final float diffX = (series.getX(index) - centerX) / radiusX;
+                    final float diffY = (series.getY(index) - centerY) / radiusY;
+                    if (diffX * diffX + diffY * diffY <= 1) {
+                        result = index;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    void invalidate() {
+        isDirty = true;
+    }
+
+    /**
+     * Builds grid if it was not built yet or was invalidated, other methods call it automatically.
+     */
+    public void build() {
+        if (!isDirty || series.isEmpty()) {
+            return;
+        }
+        final int size = series.size();
+        final int cellCount = Math.max(1, size / POINTS_PER_CELL);
+        columns = rows = Math.max(1, (int) Math.sqrt(cellCount));
+        left = series.getMinX();
+        bottom = series.getMinY();
+        cellWidth = (series.getMaxX() - left) / columns;
+        cellHeight = (series.getMaxY() - bottom) / rows;
+        if (null == cellStarts || cellStarts.length < columns * rows + 1) {
+            cellStarts = new int[columns * rows + 1];
+        } else {
+            Arrays.fill(cellStarts, 0);
+        }
+        if (null == cellIndexes || cellIndexes.length < size) {
+            cellIndexes = new int[size];
+        }
+        // Counting sort of point indexes by cell, cellStarts[c + 1] counts points of cell c first.
+        for (int i = 0; i < size; ++i) {
+            ++cellStarts[cell(i) + 1];
+        }
+        for (int cell = 0; cell < columns * rows; ++cell) {
+            cellStarts[cell + 1] += cellStarts[cell];
+        }
+        for (int i = 0; i < size; ++i) {
+            final int cell = cell(i);
+            cellIndexes[cellStarts[cell]++] = i;
+        }
+        // Starts were moved to the ends of cells during sort, shift them back.
+        for (int cell = columns * rows; cell > 0; --cell) {
+            cellStarts[cell] = cellStarts[cell - 1];
+        }
+        cellStarts[0] = 0;
+        isDirty = false;
+    }
+
+    private int cell(int index) {
+        return row(series.getY(index)) * columns + column(series.getX(index));
+    }
+
+    private int column(float x) {
+        return clamp(cellWidth > 0 ? (int) ((x - left) / cellWidth) : 0, columns);
+    }
+
+    private int row(float y) {
+        return clamp(cellHeight > 0 ? (int) ((y - bottom) / cellHeight) : 0, rows);
+    }
+
+    private static int clamp(int cell, int count) {
+        if (cell < 0) {
+            return 0;
+        }
+        return cell < count ? cell : count - 1;
+    }
+}
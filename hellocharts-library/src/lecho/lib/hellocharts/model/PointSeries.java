@@ -0,0 +1,1143 @@
+package lecho.lib.hellocharts.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+import lecho.lib.hellocharts.view.Chart;
+
+/**
+ * Column oriented storage for line points. Coordinates are kept in parallel primitive arrays instead of one
+ * {@link PointValue} object per point, that makes lines with hundreds of thousands of points cheap for GC and lets
+ * renderers read coordinates directly. PointValues returned by {@link #getValue(int)} are thin views that read and write
+ * through to this series.
+ * <p/>
+ * Circular series has fixed capacity and works as ring buffer, when it is full {@link #add(float, float)} evicts the
+ * oldest point in O(1) so it is suitable for streaming data. After appending points call
+ * {@link Chart#onChartDataAppended()} to update the chart without full data reset.
+ * <p/>
+ * Series keeps its bounds and X order up to date while points are appended so renderers don't have to scan all points to
+ * calculate maximum viewport.
+ */
+public class PointSeries {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private float[] xs;
+    private float[] ys;
+    private int size;
+
+    /**
+     * Slot of the first point, always 0 for non-circular series.
+     */
+    private int head;
+    private boolean isCircular;
+
+    /**
+     * Labels are allocated on first use, most lines don't have custom labels.
+     */
+    private char[][] labels;
+
+    /**
+     * Origin values and differences used during data animation, allocated on first
+     * {@link #setTarget(int, float, float)} call and released when animation finishes.
+     */
+    private float[] originXs;
+    private float[] originYs;
+    private float[] diffXs;
+    private float[] diffYs;
+    /**
+     * Slots of points with non-zero differences, collected together with animation bounds so animation frames update
+     * only points that actually move.
+     */
+    private int[] animatedSlots;
+    private int animatedCount;
+
+    /**
+     * PointValue views bound to this series, allocated only if someone uses PointValue API. Views are indexed by slot
+     * not by point index so appending to circular series doesn't have to reindex them.
+     */
+    private PointValue[] views;
+
+    /**
+     * Cached bounds, valid only if {@link #isBoundsDirty} is false. For series sorted by X minX and maxX are read
+     * directly from the first and last point.
+     */
+    private float minX;
+    private float maxX;
+    private float minY;
+    private float maxY;
+    private boolean isSortedByX = true;
+    private boolean isBoundsDirty;
+
+    /**
+     * Bounds of origin and target values, calculated on the first frame of data animation. Points are interpolated
+     * linearly so their bounds are always within interpolation of these bounds and there is no need to scan all points
+     * on every frame.
+     */
+    private float startMinX;
+    private float startMaxX;
+    private float startMinY;
+    private float startMaxY;
+    private float targetMinX;
+    private float targetMaxX;
+    private float targetMinY;
+    private float targetMaxY;
+    private boolean isTargetSortedByX;
+    private boolean isAnimationBoundsValid;
+
+    /**
+     * Min/max index, created on first {@link #getPyramid()} call.
+     */
+    private MinMaxPyramid pyramid;
+    /**
+     * Grid index, created on first {@link #getGrid()} call.
+     */
+    private PointGrid grid;
+    /**
+     * Incremented on every change of point coordinates.
+     */
+    private int modificationCount;
+
+    public PointSeries() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PointSeries(int capacity) {
+        this(capacity, false);
+    }
+
+    /**
+     * @param capacity   initial capacity, for circular series that is also maximum number of points
+     * @param isCircular if true series works as ring buffer and evicts the oldest point when new one is added to full
+     *                   series
+     */
+    public PointSeries(int capacity, boolean isCircular) {
+        if (capacity < 1) {
+            capacity = 1;
+        }
+        xs = new float[capacity];
+        ys = new float[capacity];
+        this.isCircular = isCircular;
+    }
+
+    /**
+     * Copy constructor, copies current coordinates and labels.
+     */
+    public PointSeries(PointSeries series) {
+        this(series.isCircular ? series.capacity() : series.size, series.isCircular);
+        for (int i = 0; i < series.size; ++i) {
+            add(series.getX(i), series.getY(i));
+            if (null != series.getLabel(i)) {
+                setLabel(i, series.getLabel(i));
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int capacity() {
+        return xs.length;
+    }
+
+    public boolean isCircular() {
+        return isCircular;
+    }
+
+    public boolean isFull() {
+        return size == xs.length;
+    }
+
+    public float getX(int index) {
+        return xs[slot(index)];
+    }
+
+    public float getY(int index) {
+        return ys[slot(index)];
+    }
+
+    /**
+     * Copies points from index from (inclusive) to index to (exclusive) into dst as interleaved X and Y values starting
+     * at dst[0], dst must have room for 2 * (to - from) values.
+     */
+    public void getPoints(int from, int to, float[] dst) {
+        int slot = slot(from);
+        for (int i = 0, end = (to - from) * 2; i < end; i += 2) {
+            dst[i] = xs[slot];
+            dst[i + 1] = ys[slot];
+            if (++slot == xs.length) {
+                slot = 0;
+            }
+        }
+    }
+
+    public char[] getLabel(int index) {
+        if (null == labels) {
+            return null;
+        }
+        return labels[slot(index)];
+    }
+
+    /**
+     * Appends point at the end of this series. If series is circular and full the oldest point is evicted first, its
+     * PointValue view(if any) is detached and keeps its last values.
+     */
+    public PointSeries add(float x, float y) {
+        if (isCircular && size == xs.length) {
+            evictFirst();
+        } else {
+            ensureCapacity(size + 1);
+        }
+        final int slot = slot(size);
+        xs[slot] = x;
+        ys[slot] = y;
+        resetSlot(slot);
+        includeInBounds(x, y);
+        isAnimationBoundsValid = false;
+        ++size;
+        onSlotChanged(slot);
+        return this;
+    }
+
+    /**
+     * Appends coordinates and label of given value and binds that value to this series so later changes made through
+     * the value are visible to the chart.
+     */
+    public PointSeries add(PointValue value) {
+        final float x = value.getX();
+        final float y = value.getY();
+        final char[] label = value.getLabelAsChars();
+        value.detach();
+        add(x, y);
+        final int slot = slot(size - 1);
+        if (null != label) {
+            setLabelAt(slot, label);
+        }
+        bind(value, slot);
+        return this;
+    }
+
+    /**
+     * Inserts coordinates and label of given value at given index and binds that value to this series. Inserting into
+     * full circular series evicts the oldest point first.
+     */
+    public PointSeries insert(int index, PointValue value) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Invalid index " + index + ", size is " + size);
+        }
+        if (index == size) {
+            return add(value);
+        }
+        final float x = value.getX();
+        final float y = value.getY();
+        final char[] label = value.getLabelAsChars();
+        value.detach();
+
+        if (isCircular && size == xs.length) {
+            remove(0);
+            if (index > 0) {
+                --index;
+            }
+        }
+        ensureCapacity(size + 1);
+        linearize();
+        final int moved = size - index;
+        System.arraycopy(xs, index, xs, index + 1, moved);
+        System.arraycopy(ys, index, ys, index + 1, moved);
+        shift(labels, index, index + 1, moved);
+        shift(originXs, index, index + 1, moved);
+        shift(originYs, index, index + 1, moved);
+        shift(diffXs, index, index + 1, moved);
+        shift(diffYs, index, index + 1, moved);
+        shift(views, index, index + 1, moved);
+        reindexViews(index + 1, size + 1);
+        xs[index] = x;
+        ys[index] = y;
+        resetSlot(index);
+        ++size;
+        invalidateIndexes();
+        if (null != label) {
+            setLabelAt(index, label);
+        }
+        bind(value, index);
+        return this;
+    }
+
+    /**
+     * Removes point at given index, PointValue view of that point(if any) is detached and keeps its last values.
+     */
+    public PointSeries remove(int index) {
+        checkIndex(index);
+        if (index == 0 && isCircular) {
+            // Removing the oldest point from ring buffer doesn't need to move anything.
+            evictFirst();
+            return this;
+        }
+        linearize();
+        if (null != views && null != views[index]) {
+            views[index].detach();
+        }
+        final int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(xs, index + 1, xs, index, moved);
+            System.arraycopy(ys, index + 1, ys, index, moved);
+            shift(labels, index + 1, index, moved);
+            shift(originXs, index + 1, index, moved);
+            shift(originYs, index + 1, index, moved);
+            shift(diffXs, index + 1, index, moved);
+            shift(diffYs, index + 1, index, moved);
+            shift(views, index + 1, index, moved);
+            reindexViews(index, size - 1);
+        }
+        --size;
+        if (null != labels) {
+            labels[size] = null;
+        }
+        if (null != views) {
+            views[size] = null;
+        }
+        invalidateIndexes();
+        return this;
+    }
+
+    /**
+     * Removes all points, detached PointValue views keep their last values.
+     */
+    public void clear() {
+        for (int i = 0; i < size; ++i) {
+            final int slot = slot(i);
+            if (null != views && null != views[slot]) {
+                views[slot].detach();
+            }
+            if (null != labels) {
+                labels[slot] = null;
+            }
+        }
+        size = 0;
+        head = 0;
+        invalidateIndexes();
+    }
+
+    /**
+     * Replaces content of this series with copy of points from given index range of other series. Labels, animation
+     * state and PointValue views are not copied. Can be used to give other thread stable copy of points.
+     */
+    public void setPoints(PointSeries source, int from, int to) {
+        if (from < 0 || from > to || to > source.size) {
+            throw new IndexOutOfBoundsException("Invalid range " + from + "-" + to + ", size is " + source.size);
+        }
+        clear();
+        originXs = null;
+        originYs = null;
+        diffXs = null;
+        diffYs = null;
+        final int count = to - from;
+        ensureCapacity(count);
+        int sourceSlot = source.slot(from);
+        for (int copied = 0; copied < count; ) {
+            // Ring buffer of circular source is copied in at most two parts.
+            final int part = Math.min(count - copied, source.xs.length - sourceSlot);
+            System.arraycopy(source.xs, sourceSlot, xs, copied, part);
+            System.arraycopy(source.ys, sourceSlot, ys, copied, part);
+            copied += part;
+            sourceSlot = 0;
+        }
+        size = count;
+        invalidateIndexes();
+    }
+
+    /**
+     * Sets point coordinates, that also cancels target values set for that point.
+     */
+    public PointSeries set(int index, float x, float y) {
+        checkIndex(index);
+        setAt(slot(index), x, y);
+        return this;
+    }
+
+    /**
+     * Set target values that should be reached when data animation finish then call {@link Chart#startDataAnimation()}
+     */
+    public PointSeries setTarget(int index, float targetX, float targetY) {
+        checkIndex(index);
+        setTargetAt(slot(index), targetX, targetY);
+        return this;
+    }
+
+    public PointSeries setLabel(int index, char[] label) {
+        checkIndex(index);
+        setLabelAt(slot(index), label);
+        return this;
+    }
+
+    /**
+     * Updates all points by scale during animation, only points with target different than origin are touched.
+     *
+     * @param scale value from 0 to 1.0
+     */
+    public void update(float scale) {
+        if (null == originXs || size == 0) {
+            return;
+        }
+        if (!isAnimationBoundsValid) {
+            calculateAnimationBounds();
+        }
+        for (int i = 0; i < animatedCount; ++i) {
+            final int slot = animatedSlots[i];
+            xs[slot] = originXs[slot] + diffXs[slot] * scale;
+            ys[slot] = originYs[slot] + diffYs[slot] * scale;
+        }
+        minX = startMinX + (targetMinX - startMinX) * scale;
+        maxX = startMaxX + (targetMaxX - startMaxX) * scale;
+        minY = startMinY + (targetMinY - startMinY) * scale;
+        maxY = startMaxY + (targetMaxY - startMaxY) * scale;
+        isBoundsDirty = false;
+        onAnimatedSlotsChanged();
+    }
+
+    /**
+     * Inform series that animation finished, all points are set to their target values.
+     */
+    public void finish() {
+        if (null == originXs) {
+            return;
+        }
+        if (isAnimationBoundsValid) {
+            for (int i = 0; i < animatedCount; ++i) {
+                finishSlot(animatedSlots[i]);
+            }
+            onAnimatedSlotsChanged();
+            // All points reached their targets so target bounds are exact.
+            minX = targetMinX;
+            maxX = targetMaxX;
+            minY = targetMinY;
+            maxY = targetMaxY;
+            isSortedByX = isTargetSortedByX;
+            isBoundsDirty = false;
+            isAnimationBoundsValid = false;
+            animatedCount = 0;
+        } else {
+            for (int i = 0; i < size; ++i) {
+                finishSlot(slot(i));
+            }
+            invalidateIndexes();
+        }
+        // All points reached their targets, animation state is allocated again by the next setTarget call.
+        originXs = null;
+        originYs = null;
+        diffXs = null;
+        diffYs = null;
+        animatedSlots = null;
+    }
+
+    /**
+     * Returns number of points changed by current data animation, valid after the first animation frame.
+     */
+    public int getAnimatedCount() {
+        return isAnimationBoundsValid ? animatedCount : 0;
+    }
+
+    /**
+     * Returns index of i-th point changed by current data animation, see {@link #getAnimatedCount()}.
+     */
+    public int getAnimatedIndex(int i) {
+        final int index = animatedSlots[i] - head;
+        return index < 0 ? index + xs.length : index;
+    }
+
+    /**
+     * Returns min/max pyramid of this series. Pyramid is built on first call and then kept up to date with this series,
+     * it costs about 8 bytes of memory per point.
+     */
+    public MinMaxPyramid getPyramid() {
+        if (null == pyramid) {
+            pyramid = new MinMaxPyramid(this);
+        }
+        return pyramid;
+    }
+
+    /**
+     * Returns grid index of this series. Grid is built on first call and rebuilt lazily after series changed, it costs
+     * about 4 bytes of memory per point.
+     */
+    public PointGrid getGrid() {
+        if (null == grid) {
+            grid = new PointGrid(this);
+        }
+        return grid;
+    }
+
+    /**
+     * Returns counter incremented whenever coordinates of any point change, can be compared with previously read value
+     * to check if geometry computed from this series is still valid.
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Returns true if X values of this series never decrease. Renderers may use it to skip points outside of the
+     * viewport.
+     */
+    public boolean isSortedByX() {
+        updateBounds();
+        return isSortedByX;
+    }
+
+    /**
+     * Returns the smallest X value, result is undefined for empty series.
+     */
+    public float getMinX() {
+        updateBounds();
+        return isSortedByX ? xs[head] : minX;
+    }
+
+    /**
+     * Returns the biggest X value, result is undefined for empty series.
+     */
+    public float getMaxX() {
+        updateBounds();
+        return isSortedByX ? xs[slot(size - 1)] : maxX;
+    }
+
+    /**
+     * Returns the smallest Y value, result is undefined for empty series.
+     */
+    public float getMinY() {
+        updateBounds();
+        return minY;
+    }
+
+    /**
+     * Returns the biggest Y value, result is undefined for empty series.
+     */
+    public float getMaxY() {
+        updateBounds();
+        return maxY;
+    }
+
+    /**
+     * Returns index of the first point with X greater or equal to given value or {@link #size()} if there is no such
+     * point. Uses binary search so result is valid only if {@link #isSortedByX()} returns true.
+     */
+    public int lowerBound(float x) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (xs[slot(mid)] < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns index of the first point with X greater than given value or {@link #size()} if there is no such point.
+     * Uses binary search so result is valid only if {@link #isSortedByX()} returns true.
+     */
+    public int upperBound(float x) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (xs[slot(mid)] <= x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns PointValue view of point at given index. The same object is returned for the same point as long as the
+     * point is in this series.
+     */
+    public PointValue getValue(int index) {
+        checkIndex(index);
+        final int slot = slot(index);
+        if (null == views) {
+            views = new PointValue[xs.length];
+        }
+        PointValue view = views[slot];
+        if (null == view) {
+            view = new PointValue();
+            view.series = this;
+            view.slot = slot;
+            views[slot] = view;
+        }
+        return view;
+    }
+
+    /**
+     * Copies coordinates and label of point at given index into given standalone PointValue. Use it when you need a
+     * PointValue only temporarily and don't want to create views, i.e. for value formatters.
+     */
+    public PointValue getValue(int index, PointValue out) {
+        checkIndex(index);
+        final int slot = slot(index);
+        out.detach();
+        out.set(xs[slot], ys[slot]);
+        out.label = getLabelAt(slot);
+        return out;
+    }
+
+    /**
+     * Returns modifiable list of PointValue views backed by this series.
+     */
+    public List<PointValue> asList() {
+        return new PointSeriesValues(this);
+    }
+
+    /**
+     * Replaces content of this series with values from given list, values are bound to this series. Values already
+     * bound to other series, or listed more than once, are copied instead so they are not taken from the series that
+     * owns them, changes made through such values are visible only in that series. If series is circular and list is
+     * bigger than capacity only the last values are kept.
+     */
+    public void setValues(List<PointValue> values) {
+        // Detach own values first, they may be reordered in the list.
+        for (PointValue value : values) {
+            if (value.series == this) {
+                value.detach();
+            }
+        }
+        clear();
+        if (!isCircular) {
+            ensureCapacity(values.size());
+        }
+        for (PointValue value : values) {
+            if (null == value.series) {
+                add(value);
+            } else {
+                addCopy(value);
+            }
+        }
+    }
+
+    /**
+     * Detaches all PointValue views bound to this series, they keep their last values and can be bound to other
+     * series. Points of this series don't change.
+     */
+    public void detachValues() {
+        if (null == views) {
+            return;
+        }
+        for (int i = 0; i < size; ++i) {
+            final int slot = slot(i);
+            if (null != views[slot]) {
+                views[slot].detach();
+            }
+        }
+    }
+
+    /**
+     * Returns true if all values from given list are bound to this series in the same order or were copied into it
+     * because they are bound to other series.
+     */
+    boolean isBoundTo(List<PointValue> values) {
+        if (values instanceof PointSeriesValues) {
+            return ((PointSeriesValues) values).getSeries() == this;
+        }
+        if (values.size() != size) {
+            return false;
+        }
+        int index = 0;
+        for (PointValue value : values) {
+            final PointValue view = null != views ? views[slot(index)] : null;
+            if (view != value && (null != view || null == value.series)) {
+                return false;
+            }
+            ++index;
+        }
+        return true;
+    }
+
+    /**
+     * Makes sure series can hold given number of points, for circular series that also increases maximum number of
+     * points.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= xs.length) {
+            return;
+        }
+        linearize();
+        int newCapacity = xs.length + (xs.length >> 1);
+        if (newCapacity < capacity) {
+            newCapacity = capacity;
+        }
+        xs = Arrays.copyOf(xs, newCapacity);
+        ys = Arrays.copyOf(ys, newCapacity);
+        if (null != labels) {
+            labels = Arrays.copyOf(labels, newCapacity);
+        }
+        if (null != originXs) {
+            originXs = Arrays.copyOf(originXs, newCapacity);
+            originYs = Arrays.copyOf(originYs, newCapacity);
+            diffXs = Arrays.copyOf(diffXs, newCapacity);
+            diffYs = Arrays.copyOf(diffYs, newCapacity);
+        }
+        if (null != views) {
+            views = Arrays.copyOf(views, newCapacity);
+        }
+        invalidateSpatialIndexes();
+    }
+
+    float getXAt(int slot) {
+        return xs[slot];
+    }
+
+    float getYAt(int slot) {
+        return ys[slot];
+    }
+
+    char[] getLabelAt(int slot) {
+        return null == labels ? null : labels[slot];
+    }
+
+    float getOriginXAt(int slot) {
+        return null == originXs ? xs[slot] : originXs[slot];
+    }
+
+    float getOriginYAt(int slot) {
+        return null == originYs ? ys[slot] : originYs[slot];
+    }
+
+    float getDiffXAt(int slot) {
+        return null == diffXs ? 0 : diffXs[slot];
+    }
+
+    float getDiffYAt(int slot) {
+        return null == diffYs ? 0 : diffYs[slot];
+    }
+
+    void setAt(int slot, float x, float y) {
+        final float oldX = xs[slot];
+        final float oldY = ys[slot];
+        xs[slot] = x;
+        ys[slot] = y;
+        if (null != originXs) {
+            originXs[slot] = x;
+            originYs[slot] = y;
+            diffXs[slot] = 0;
+            diffYs[slot] = 0;
+        }
+        updateBoundsOnChange(slot, oldX, oldY, x, y);
+        isAnimationBoundsValid = false;
+        onSlotChanged(slot);
+    }
+
+    void setTargetAt(int slot, float targetX, float targetY) {
+        ensureAnimationBuffers();
+        setAt(slot, xs[slot], ys[slot]);
+        diffXs[slot] = targetX - originXs[slot];
+        diffYs[slot] = targetY - originYs[slot];
+    }
+
+    void setLabelAt(int slot, char[] label) {
+        if (null == labels) {
+            if (null == label) {
+                return;
+            }
+            labels = new char[xs.length][];
+        }
+        labels[slot] = label;
+    }
+
+    void updateAt(int slot, float scale) {
+        if (null == originXs) {
+            return;
+        }
+        final float oldX = xs[slot];
+        final float oldY = ys[slot];
+        xs[slot] = originXs[slot] + diffXs[slot] * scale;
+        ys[slot] = originYs[slot] + diffYs[slot] * scale;
+        updateBoundsOnChange(slot, oldX, oldY, xs[slot], ys[slot]);
+        onSlotChanged(slot);
+    }
+
+    void finishAt(int slot) {
+        if (null == originXs) {
+            return;
+        }
+        setAt(slot, originXs[slot] + diffXs[slot], originYs[slot] + diffYs[slot]);
+    }
+
+    void release(PointValue value) {
+        if (null != views && views[value.slot] == value) {
+            views[value.slot] = null;
+        }
+    }
+
+    /**
+     * Maps point index to array slot.
+     */
+    int slot(int index) {
+        final int slot = head + index;
+        return slot < xs.length ? slot : slot - xs.length;
+    }
+
+    int getHeadSlot() {
+        return head;
+    }
+
+    boolean isSlotOccupied(int slot) {
+        int index = slot - head;
+        if (index < 0) {
+            index += xs.length;
+        }
+        return index < size;
+    }
+
+    /**
+     * Removes the oldest point without moving other points.
+     */
+    private void evictFirst() {
+        if (null != views && null != views[head]) {
+            views[head].detach();
+        }
+        if (null != labels) {
+            labels[head] = null;
+        }
+        final int evictedSlot = head;
+        final float x = xs[head];
+        final float y = ys[head];
+        head = slot(1);
+        --size;
+        isAnimationBoundsValid = false;
+        onSlotChanged(evictedSlot);
+        if (size == 0) {
+            head = 0;
+            isBoundsDirty = true;
+        } else if (!isBoundsDirty) {
+            // Bounds have to be recalculated only if evicted point was an extreme, X is ignored for sorted series
+            // because then X bounds are read from the first and the last point.
+            if (y <= minY || y >= maxY || (!isSortedByX && (x <= minX || x >= maxX))) {
+                isBoundsDirty = true;
+            }
+        }
+    }
+
+    /**
+     * Extends cached bounds by point that is going to be appended at the end of this series.
+     */
+    private void includeInBounds(float x, float y) {
+        if (size == 0) {
+            minX = maxX = x;
+            minY = maxY = y;
+            isSortedByX = true;
+            isBoundsDirty = false;
+            return;
+        }
+        if (isBoundsDirty) {
+            return;
+        }
+        if (isSortedByX && x < xs[slot(size - 1)]) {
+            // Cached X bounds were not maintained for sorted series.
+            isSortedByX = false;
+            isBoundsDirty = true;
+            return;
+        }
+        if (x < minX) {
+            minX = x;
+        } else if (x > maxX) {
+            maxX = x;
+        }
+        if (y < minY) {
+            minY = y;
+        } else if (y > maxY) {
+            maxY = y;
+        }
+    }
+
+    /**
+     * Updates pyramid after point in given slot was added, changed or removed, grid is always rebuilt.
+     */
+    private void onSlotChanged(int slot) {
+        ++modificationCount;
+        if (null != pyramid) {
+            pyramid.onSlotChanged(slot);
+        }
+        if (null != grid) {
+            grid.invalidate();
+        }
+    }
+
+    /**
+     * Marks pyramid and grid as invalid after operation that moved many points.
+     */
+    private void invalidateSpatialIndexes() {
+        ++modificationCount;
+        if (null != pyramid) {
+            pyramid.invalidate();
+        }
+        if (null != grid) {
+            grid.invalidate();
+        }
+    }
+
+    /**
+     * Marks bounds, pyramid and grid as invalid after operation that changed many points.
+     */
+    private void invalidateIndexes() {
+        isBoundsDirty = true;
+        isAnimationBoundsValid = false;
+        invalidateSpatialIndexes();
+    }
+
+    /**
+     * Updates cached bounds after single point changed. Bounds are recalculated only if old value was an extreme and
+     * new value is not.
+     */
+    private void updateBoundsOnChange(int slot, float oldX, float oldY, float x, float y) {
+        if (isBoundsDirty) {
+            return;
+        }
+        if ((oldY <= minY && y > oldY) || (oldY >= maxY && y < oldY)) {
+            isBoundsDirty = true;
+            return;
+        }
+        if (isSortedByX) {
+            int index = slot - head;
+            if (index < 0) {
+                index += xs.length;
+            }
+            if ((index > 0 && x < xs[slot(index - 1)]) || (index < size - 1 && x > xs[slot(index + 1)])) {
+                // Cached X bounds were not maintained for sorted series.
+                isSortedByX = false;
+                isBoundsDirty = true;
+                return;
+            }
+        } else if ((oldX <= minX && x > oldX) || (oldX >= maxX && x < oldX)) {
+            isBoundsDirty = true;
+            return;
+        }
+        if (x < minX) {
+            minX = x;
+        } else if (x > maxX) {
+            maxX = x;
+        }
+        if (y < minY) {
+            minY = y;
+        } else if (y > maxY) {
+            maxY = y;
+        }
+    }
+
+    private void finishSlot(int slot) {
+        xs[slot] = originXs[slot] = originXs[slot] + diffXs[slot];
+        ys[slot] = originYs[slot] = originYs[slot] + diffYs[slot];
+        diffXs[slot] = 0;
+        diffYs[slot] = 0;
+    }
+
+    /**
+     * Updates pyramid after animation frame. If only a few points move they are updated one by one, otherwise pyramid
+     * is rebuilt when used next time.
+     */
+    private void onAnimatedSlotsChanged() {
+        if (animatedCount > size >> 4) {
+            invalidateSpatialIndexes();
+            return;
+        }
+        for (int i = 0; i < animatedCount; ++i) {
+            onSlotChanged(animatedSlots[i]);
+        }
+    }
+
+    /**
+     * Calculates bounds of origin and target values and collects slots of points that move during animation.
+     */
+    private void calculateAnimationBounds() {
+        if (null == animatedSlots || animatedSlots.length < xs.length) {
+            animatedSlots = new int[xs.length];
+        }
+        animatedCount = 0;
+        boolean isStartSortedByX = true;
+        isTargetSortedByX = true;
+        float lastStartX = originXs[head];
+        float lastTargetX = originXs[head] + diffXs[head];
+        startMinX = startMaxX = lastStartX;
+        startMinY = startMaxY = originYs[head];
+        targetMinX = targetMaxX = lastTargetX;
+        targetMinY = targetMaxY = originYs[head] + diffYs[head];
+        for (int i = 0; i < size; ++i) {
+            final int slot = slot(i);
+            if (diffXs[slot] != 0 || diffYs[slot] != 0) {
+                animatedSlots[animatedCount++] = slot;
+            }
+            if (i == 0) {
+                continue;
+            }
+            final float startX = originXs[slot];
+            final float startY = originYs[slot];
+            final float targetX = startX + diffXs[slot];
+            final float targetY = startY + diffYs[slot];
+            isStartSortedByX &= startX >= lastStartX;
+            isTargetSortedByX &= targetX >= lastTargetX;
+            lastStartX = startX;
+            lastTargetX = targetX;
+            startMinX = Math.min(startMinX, startX);
+            startMaxX = Math.max(startMaxX, startX);
+            startMinY = Math.min(startMinY, startY);
+            startMaxY = Math.max(startMaxY, startY);
+            targetMinX = Math.min(targetMinX, targetX);
+            targetMaxX = Math.max(targetMaxX, targetX);
+            targetMinY = Math.min(targetMinY, targetY);
+            targetMaxY = Math.max(targetMaxY, targetY);
+        }
+        // Interpolation of two sequences sorted by X is also sorted by X.
+        isSortedByX = isStartSortedByX && isTargetSortedByX;
+        isAnimationBoundsValid = true;
+    }
+
+    private void updateBounds() {
+        if (!isBoundsDirty) {
+            return;
+        }
+        isBoundsDirty = false;
+        isSortedByX = true;
+        if (size == 0) {
+            minX = maxX = minY = maxY = 0;
+            return;
+        }
+        float lastX = xs[head];
+        minX = maxX = lastX;
+        minY = maxY = ys[head];
+        for (int i = 1; i < size; ++i) {
+            final int slot = slot(i);
+            final float x = xs[slot];
+            final float y = ys[slot];
+            if (x < lastX) {
+                isSortedByX = false;
+            }
+            lastX = x;
+            if (x < minX) {
+                minX = x;
+            } else if (x > maxX) {
+                maxX = x;
+            }
+            if (y < minY) {
+                minY = y;
+            } else if (y > maxY) {
+                maxY = y;
+            }
+        }
+    }
+
+    /**
+     * Moves points so the first one is in slot 0, after that slots are equal to indexes. Used before operations that
+     * shift points.
+     */
+    private void linearize() {
+        if (head == 0) {
+            return;
+        }
+        // Animated slots are collected again after slots moved.
+        isAnimationBoundsValid = false;
+        xs = rotate(xs, head);
+        ys = rotate(ys, head);
+        if (null != labels) {
+            labels = rotate(labels, head);
+        }
+        if (null != originXs) {
+            originXs = rotate(originXs, head);
+            originYs = rotate(originYs, head);
+            diffXs = rotate(diffXs, head);
+            diffYs = rotate(diffYs, head);
+        }
+        if (null != views) {
+            views = rotate(views, head);
+        }
+        head = 0;
+        reindexViews(0, size);
+        invalidateSpatialIndexes();
+    }
+
+    /**
+     * Appends current coordinates and label of value bound to other series without binding it.
+     */
+    private void addCopy(PointValue value) {
+        final char[] label = value.getLabelAsChars();
+        add(value.getX(), value.getY());
+        if (null != label) {
+            setLabelAt(slot(size - 1), label);
+        }
+    }
+
+    private void bind(PointValue value, int slot) {
+        if (null == views) {
+            views = new PointValue[xs.length];
+        }
+        value.series = this;
+        value.slot = slot;
+        views[slot] = value;
+    }
+
+    private void resetSlot(int slot) {
+        if (null != originXs) {
+            originXs[slot] = xs[slot];
+            originYs[slot] = ys[slot];
+            diffXs[slot] = 0;
+            diffYs[slot] = 0;
+        }
+        if (null != labels) {
+            labels[slot] = null;
+        }
+        if (null != views) {
+            views[slot] = null;
+        }
+    }
+
+    private void reindexViews(int from, int to) {
+        if (null == views) {
+            return;
+        }
+        for (int i = from; i < to; ++i) {
+            if (null != views[i]) {
+                views[i].slot = i;
+            }
+        }
+    }
+
+    private void ensureAnimationBuffers() {
+        if (null != originXs) {
+            return;
+        }
+        originXs = Arrays.copyOf(xs, xs.length);
+        originYs = Arrays.copyOf(ys, ys.length);
+        diffXs = new float[xs.length];
+        diffYs = new float[ys.length];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Invalid index " + index + ", size is " + size);
+        }
+    }
+
+    private static void shift(Object array, int from, int to, int length) {
+        if (null != array) {
+            System.arraycopy(array, from, array, to, length);
+        }
+    }
+
+    private static float[] rotate(float[] array, int head) {
+        final float[] result = Arrays.copyOfRange(array, head, head + array.length);
+        System.arraycopy(array, 0, result, array.length - head, head);
+        return result;
+    }
+
+    private static <T> T[] rotate(T[] array, int head) {
+        final T[] result = Arrays.copyOfRange(array, head, head + array.length);
+        System.arraycopy(array, 0, result, array.length - head, head);
+        return result;
+    }
+}
@@ -0,0 +1,58 @@
+package lecho.lib.hellocharts.model;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * List of PointValue views backed by {@link PointSeries}. Values added to this list are copied into the series and bound
+ * to it.
+ */
+class PointSeriesValues extends AbstractList<PointValue> implements RandomAccess {
+    private final PointSeries series;
+
+    PointSeriesValues(PointSeries series) {
+        this.series = series;
+    }
+
+    PointSeries getSeries() {
+        return series;
+    }
+
+    @Override
+    public PointValue get(int index) {
+        return series.getValue(index);
+    }
+
+    @Override
+    public int size() {
+        return series.size();
+    }
+
+    @Override
+    public PointValue set(int index, PointValue value) {
+        final PointValue oldValue = series.getValue(index);
+        series.remove(index);
+        series.insert(index, value);
+        return oldValue;
+    }
+
+    @Override
+    public void add(int index, PointValue value) {
+        series.insert(index, value);
+        ++modCount;
+    }
+
+    @Override
+    public PointValue remove(int index) {
+        final PointValue oldValue = series.getValue(index);
+        series.remove(index);
+        ++modCount;
+        return oldValue;
+    }
+
+    @Override
+    public void clear() {
+        series.clear();
+        ++modCount;
+    }
+}
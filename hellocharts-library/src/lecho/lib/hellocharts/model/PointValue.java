@@ -5,17 +5,28 @@ import java.util.Arrays;
 import lecho.lib.hellocharts.view.Chart;
 
 /**
- * Single point coordinates, used for LineChartData.
+ * Single point coordinates, used for LineChartData. PointValue can be standalone object or a view of a point stored in
+ * {@link PointSeries}, in the second case all reads and writes go through to the series.
  */
 public class PointValue {
 
     private float x;
     private float y;
-    private float originX;
-    private float originY;
-    private float diffX;
-    private float diffY;
-    private char[] label;
+    /**
+     * Origin X and Y followed by differences to target X and Y of standalone value, null if value is not animated.
+     * Values bound to series keep animation state in the series.
+     */
+    private float[] animation;
+    char[] label;
+
+    /**
+     * Series this value is a view of or null for standalone value.
+     */
+    PointSeries series;
+    /**
+     * Slot of this value within {@link #series}.
+     */
+    int slot;
 
     public PointValue() {
         set(0, 0);
@@ -26,26 +37,39 @@ public class PointValue {
     }
 
     public PointValue(PointValue pointValue) {
-        set(pointValue.x, pointValue.y);
-        this.label = pointValue.label;
+        set(pointValue.getX(), pointValue.getY());
+        this.label = pointValue.getLabelAsChars();
     }
 
     public void update(float scale) {
-        x = originX + diffX * scale;
-        y = originY + diffY * scale;
+        if (null != series) {
+            series.updateAt(slot, scale);
+            return;
+        }
+        if (null != animation) {
+            x = animation[0] + animation[2] * scale;
+            y = animation[1] + animation[3] * scale;
+        }
     }
 
     public void finish() {
-        set(originX + diffX, originY + diffY);
+        if (null != series) {
+            series.finishAt(slot);
+            return;
+        }
+        if (null != animation) {
+            set(animation[0] + animation[2], animation[1] + animation[3]);
+        }
     }
 
     public PointValue set(float x, float y) {
+        if (null != series) {
+            series.setAt(slot, x, y);
+            return this;
+        }
         this.x = x;
         this.y = y;
-        this.originX = x;
-        this.originY = y;
-        this.diffX = 0;
-        this.diffY = 0;
+        this.animation = null;
         return this;
     }
 
@@ -53,43 +77,119 @@ public class PointValue {
      * Set target values that should be reached when data animation finish then call {@link Chart#startDataAnimation()}
      */
     public PointValue setTarget(float targetX, float targetY) {
+        if (null != series) {
+            series.setTargetAt(slot, targetX, targetY);
+            return this;
+        }
+        final float[] animation = null != this.animation ? this.animation : new float[4];
         set(x, y);
-        this.diffX = targetX - originX;
-        this.diffY = targetY - originY;
+        animation[0] = x;
+        animation[1] = y;
+        animation[2] = targetX - x;
+        animation[3] = targetY - y;
+        this.animation = animation;
         return this;
     }
 
     public float getX() {
+        if (null != series) {
+            return series.getXAt(slot);
+        }
         return this.x;
     }
 
     public float getY() {
+        if (null != series) {
+            return series.getYAt(slot);
+        }
         return this.y;
     }
 
     @Deprecated
     public char[] getLabel() {
-        return label;
+        return getLabelAsChars();
     }
 
     public PointValue setLabel(String label) {
-        this.label = label.toCharArray();
-        return this;
+        return setLabelChars(label.toCharArray());
     }
 
     public char[] getLabelAsChars() {
+        if (null != series) {
+            return series.getLabelAt(slot);
+        }
         return label;
     }
 
     @Deprecated
     public PointValue setLabel(char[] label) {
-        this.label = label;
+        return setLabelChars(label);
+    }
+
+    private PointValue setLabelChars(char[] label) {
+        if (null != series) {
+            series.setLabelAt(slot, label);
+        } else {
+            this.label = label;
+        }
         return this;
     }
 
+    /**
+     * Unbinds this value from its series, current coordinates, animation state and label are copied so this value
+     * stays valid as standalone object.
+     */
+    void detach() {
+        if (null == series) {
+            return;
+        }
+        final PointSeries oldSeries = series;
+        x = oldSeries.getXAt(slot);
+        y = oldSeries.getYAt(slot);
+        final float diffX = oldSeries.getDiffXAt(slot);
+        final float diffY = oldSeries.getDiffYAt(slot);
+        if (diffX != 0 || diffY != 0) {
+            animation = new float[]{oldSeries.getOriginXAt(slot), oldSeries.getOriginYAt(slot), diffX, diffY};
+        } else {
+            animation = null;
+        }
+        label = oldSeries.getLabelAt(slot);
+        oldSeries.release(this);
+        series = null;
+        slot = 0;
+    }
+
+    private float getOriginX() {
+        if (null != series) {
+            return series.getOriginXAt(slot);
+        }
+        return null == animation ? x : animation[0];
+    }
+
+    private float getOriginY() {
+        if (null != series) {
+            return series.getOriginYAt(slot);
+        }
+        return null == animation ? y : animation[1];
+    }
+
+    private float getDiffX() {
+        if (null != series) {
+            return series.getDiffXAt(slot);
+        }
+        return null == animation ? 0 : animation[2];
+    }
+
+    private float getDiffY() {
+        if (null != series) {
+            return series.getDiffYAt(slot);
+        }
+        return null == animation ? 0 : animation[3];
+    }
+
     @Override
     public String toString() {
-        return "PointValue [x=" + x + ", y=" + y + "]";
+        return "PointValue [x=" + getX() + ", y=" + getY() + "]";
     }
 
     @Override
@@ -99,19 +199,26 @@ public class PointValue {
 
         PointValue that = (PointValue) o;
 
-        if (Float.compare(that.diffX, diffX) != 0) return false;
-        if (Float.compare(that.diffY, diffY) != 0) return false;
-        if (Float.compare(that.originX, originX) != 0) return false;
-        if (Float.compare(that.originY, originY) != 0) return false;
-        if (Float.compare(that.x, x) != 0) return false;
-        if (Float.compare(that.y, y) != 0) return false;
-        if (!Arrays.equals(label, that.label)) return false;
+        if (Float.compare(that.getDiffX(), getDiffX()) != 0) return false;
+        if (Float.compare(that.getDiffY(), getDiffY()) != 0) return false;
+        if (Float.compare(that.getOriginX(), getOriginX()) != 0) return false;
+        if (Float.compare(that.getOriginY(), getOriginY()) != 0) return false;
+        if (Float.compare(that.getX(), getX()) != 0) return false;
+        if (Float.compare(that.getY(), getY()) != 0) return false;
+        if (!Arrays.equals(getLabelAsChars(), that.getLabelAsChars())) return false;
 
         return true;
     }
 
     @Override
     public int hashCode() {
+        final float x = getX();
+        final float y = getY();
+        final float originX = getOriginX();
+        final float originY = getOriginY();
+        final float diffX = getDiffX();
+        final float diffY = getDiffY();
+        final char[] label = getLabelAsChars();
         int result = (x != +0.0f ? Float.floatToIntBits(x) : 0);
         result = 31 * result + (y != +0.0f ? Float.floatToIntBits(y) : 0);
         result = 31 * result + (originX != +0.0f ? Float.floatToIntBits(originX) : 0);
@@ -58,7 +58,7 @@ public class SliceValue {
     }
 
     public SliceValue(SliceValue sliceValue) {
-        setValue(sliceValue.value);
+        setValue(sliceValue.getValue());
         setColor(sliceValue.color);
         this.sliceSpacing = sliceValue.sliceSpacing;
         this.label = sliceValue.label;
@@ -140,9 +140,42 @@ public class SliceValue {
         return label;
     }
 
+    /**
+     * Binds this value to animation buffer if its target is different than origin.
+     *
+     * @param index index of this value within chart data
+     */
+    void bindAnimation(AnimationBuffer buffer, int index) {
+        if (diff == 0) {
+            return;
+        }
+        buffer.set(buffer.bind(index, 0), 0, originValue, diff);
+    }
+
+    /**
+     * Sets current value interpolated by animation buffer.
+     *
+     * @return false if value was changed after it was bound to given slot, it is not updated then
+     */
+    boolean applyAnimation(AnimationBuffer buffer, int slot) {
+        if (!buffer.matches(slot, 0, originValue, diff)) {
+            return false;
+        }
+        value = buffer.get(slot, 0);
+        return true;
+    }
+
+    private float getOriginValue() {
+        return originValue;
+    }
+
+    private float getTargetValue() {
+        return originValue + diff;
+    }
+
     @Override
     public String toString() {
-        return "SliceValue [value=" + value + "]";
+        return "SliceValue [value=" + getValue() + "]";
     }
 
     @Override
@@ -154,10 +187,10 @@ public class SliceValue {
 
         if (color != that.color) return false;
         if (darkenColor != that.darkenColor) return false;
-        if (Float.compare(that.diff, diff) != 0) return false;
-        if (Float.compare(that.originValue, originValue) != 0) return false;
+        if (Float.compare(that.getOriginValue(), getOriginValue()) != 0) return false;
+        if (Float.compare(that.getTargetValue(), getTargetValue()) != 0) return false;
         if (sliceSpacing != that.sliceSpacing) return false;
-        if (Float.compare(that.value, value) != 0) return false;
+        if (Float.compare(that.getValue(), getValue()) != 0) return false;
         if (!Arrays.equals(label, that.label)) return false;
 
         return true;
@@ -165,9 +198,12 @@ public class SliceValue {
 
     @Override
     public int hashCode() {
+        final float value = getValue();
         int result = (value != +0.0f ? Float.floatToIntBits(value) : 0);
+        final float originValue = getOriginValue();
+        final float targetValue = getTargetValue();
         result = 31 * result + (originValue != +0.0f ? Float.floatToIntBits(originValue) : 0);
-        result = 31 * result + (diff != +0.0f ? Float.floatToIntBits(diff) : 0);
+        result = 31 * result + (targetValue != +0.0f ? Float.floatToIntBits(targetValue) : 0);
         result = 31 * result + color;
         result = 31 * result + darkenColor;
         result = 31 * result + sliceSpacing;
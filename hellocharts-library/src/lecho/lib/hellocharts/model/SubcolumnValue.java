@@ -33,7 +33,7 @@ public class SubcolumnValue {
     }
 
     public SubcolumnValue(SubcolumnValue columnValue) {
-        setValue(columnValue.value);
+        setValue(columnValue.getValue());
         setColor(columnValue.color);
         this.label = columnValue.label;
     }
@@ -50,6 +50,20 @@ public class SubcolumnValue {
         return value;
     }
 
+    /**
+     * Returns value at the beginning of data animation.
+     */
+    public float getOriginValue() {
+        return originValue;
+    }
+
+    /**
+     * Returns value that will be reached when data animation finish.
+     */
+    public float getTargetValue() {
+        return originValue + diff;
+    }
+
     public SubcolumnValue setValue(float value) {
         this.value = value;
         this.originValue = value;
@@ -103,9 +117,35 @@ public class SubcolumnValue {
         return this;
     }
 
+    /**
+     * Binds this value to animation buffer if its target is different than origin.
+     *
+     * @param columnIndex index of column of this value within chart data
+     * @param valueIndex  index of this value within column
+     */
+    void bindAnimation(AnimationBuffer buffer, int columnIndex, int valueIndex) {
+        if (diff == 0) {
+            return;
+        }
+        buffer.set(buffer.bind(columnIndex, valueIndex), 0, originValue, diff);
+    }
+
+    /**
+     * Sets current value interpolated by animation buffer.
+     *
+     * @return false if value was changed after it was bound to given slot, it is not updated then
+     */
+    boolean applyAnimation(AnimationBuffer buffer, int slot) {
+        if (!buffer.matches(slot, 0, originValue, diff)) {
+            return false;
+        }
+        value = buffer.get(slot, 0);
+        return true;
+    }
+
     @Override
     public String toString() {
-        return "ColumnValue [value=" + value + "]";
+        return "ColumnValue [value=" + getValue() + "]";
     }
 
     @Override
@@ -117,9 +157,9 @@ public class SubcolumnValue {
 
         if (color != that.color) return false;
         if (darkenColor != that.darkenColor) return false;
-        if (Float.compare(that.diff, diff) != 0) return false;
-        if (Float.compare(that.originValue, originValue) != 0) return false;
-        if (Float.compare(that.value, value) != 0) return false;
+        if (Float.compare(that.getOriginValue(), getOriginValue()) != 0) return false;
+        if (Float.compare(that.getTargetValue(), getTargetValue()) != 0) return false;
+        if (Float.compare(that.getValue(), getValue()) != 0) return false;
         if (!Arrays.equals(label, that.label)) return false;
 
         return true;
@@ -127,9 +167,12 @@ public class SubcolumnValue {
 
     @Override
     public int hashCode() {
+        final float value = getValue();
         int result = (value != +0.0f ? Float.floatToIntBits(value) : 0);
+        final float originValue = getOriginValue();
+        final float targetValue = getTargetValue();
         result = 31 * result + (originValue != +0.0f ? Float.floatToIntBits(originValue) : 0);
-        result = 31 * result + (diff != +0.0f ? Float.floatToIntBits(diff) : 0);
+        result = 31 * result + (targetValue != +0.0f ? Float.floatToIntBits(targetValue) : 0);
         result = 31 * result + color;
         result = 31 * result + darkenColor;
         result = 31 * result + (label != null ? Arrays.hashCode(label) : 0);
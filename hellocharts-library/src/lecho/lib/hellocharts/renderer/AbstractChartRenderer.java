@@ -11,6 +11,7 @@ import android.graphics.Typeface;
 
 import lecho.lib.hellocharts.computator.ChartComputator;
 import lecho.lib.hellocharts.model.ChartData;
+import lecho.lib.hellocharts.model.ChartFrameMetrics;
 import lecho.lib.hellocharts.model.SelectedValue;
 import lecho.lib.hellocharts.model.Viewport;
 import lecho.lib.hellocharts.util.ChartUtils;
@@ -51,6 +52,10 @@ public abstract class AbstractChartRenderer implements ChartRenderer {
     protected int labelMargin;
     protected boolean isValueLabelBackgroundEnabled;
     protected boolean isValueLabelBackgroundAuto;
+    /**
+     * Point counters of the frame being drawn, null if chart performance is not measured.
+     */
+    protected ChartFrameMetrics frameMetrics;
 
     public AbstractChartRenderer(Context context, Chart chart) {
         this.density = context.getResources().getDisplayMetrics().density;
@@ -76,6 +81,10 @@ public abstract class AbstractChartRenderer implements ChartRenderer {
         this.computator = chart.getChartComputator();
     }
 
+    @Override
+    public void onChartDetachedFromWindow() {
+    }
+
     @Override
     public void onChartDataChanged() {
         final ChartData data = chart.getChartData();
@@ -98,6 +107,32 @@ public abstract class AbstractChartRenderer implements ChartRenderer {
 
     }
 
+    @Override
+    public void onChartDataAppended() {
+        onChartViewportChanged();
+    }
+
+    @Override
+    public void onChartDataAnimationUpdate(float scale) {
+        onChartViewportChanged();
+    }
+
+    @Override
+    public void onChartDataAnimationFinished() {
+        onChartViewportChanged();
+    }
+
+    /**
+     * Interpolates viewport between start and target viewport. If values are animated linearly their bounds are always
+     * within interpolated viewport so it can be used instead of scanning all values on every animation frame.
+     */
+    protected static void interpolateViewport(Viewport start, Viewport target, float scale, Viewport out) {
+        out.left = start.left + (target.left - start.left) * scale;
+        out.top = start.top + (target.top - start.top) * scale;
+        out.right = start.right + (target.right - start.right) * scale;
+        out.bottom = start.bottom + (target.bottom - start.bottom) * scale;
+    }
+
     /**
      * Draws label text and label background if isValueLabelBackgroundEnabled is true.
      */
@@ -177,4 +212,9 @@ public abstract class AbstractChartRenderer implements ChartRenderer {
     public SelectedValue getSelectedValue() {
         return selectedValue;
     }
+
+    @Override
+    public void setFrameMetrics(ChartFrameMetrics frameMetrics) {
+        this.frameMetrics = frameMetrics;
+    }
 }
@@ -9,6 +9,8 @@ import android.graphics.Rect;
 import android.graphics.Typeface;
 import android.text.TextUtils;
 
+import java.util.List;
+
 import lecho.lib.hellocharts.computator.ChartComputator;
 import lecho.lib.hellocharts.model.Axis;
 import lecho.lib.hellocharts.model.AxisValue;
@@ -432,10 +434,12 @@ public class AxesRenderer {
             valuesToDrawTab[position] = new AxisValue[axis.getValues().size()];
         }
 
+        final List<AxisValue> axisValues = axis.getValues();
         float rawValue;
         int valueIndex = 0;
         int valueToDrawIndex = 0;
-        for (AxisValue axisValue : axis.getValues()) {
+        for (int i = 0, size = axisValues.size(); i < size; ++i) {
+            final AxisValue axisValue = axisValues.get(i);
             // Draw axis values that are within visible viewport.
             final float value = axisValue.getValue();
             if (value >= viewportMin && value <= viewportMax) {
@@ -489,17 +493,22 @@ public class AxesRenderer {
             autoValuesToDrawTab[position] = new float[autoValuesBufferTab[position].valuesNumber];
         }
 
+        final int valuesNumber = autoValuesBufferTab[position].valuesNumber;
+        final float[] values = autoValuesBufferTab[position].values;
+        final float[] rawValues = rawValuesTab[position];
+        // Translate all values at once, values outside of content rect are dropped below by overwriting them.
+        if (isAxisVertical) {
+            computator.computeRawY(values, 0, valuesNumber, rawValues);
+        } else {
+            computator.computeRawX(values, 0, valuesNumber, rawValues);
+        }
         float rawValue;
         int valueToDrawIndex = 0;
-        for (int i = 0; i < autoValuesBufferTab[position].valuesNumber; ++i) {
-            if (isAxisVertical) {
-                rawValue = computator.computeRawY(autoValuesBufferTab[position].values[i]);
-            } else {
-                rawValue = computator.computeRawX(autoValuesBufferTab[position].values[i]);
-            }
+        for (int i = 0; i < valuesNumber; ++i) {
+            rawValue = rawValues[i];
             if (checkRawValue(contentRect, rawValue, axis.isInside(), position, isAxisVertical)) {
-                rawValuesTab[position][valueToDrawIndex] = rawValue;
-                autoValuesToDrawTab[position][valueToDrawIndex] = autoValuesBufferTab[position].values[i];
+                rawValues[valueToDrawIndex] = rawValue;
+                autoValuesToDrawTab[position][valueToDrawIndex] = values[i];
                 ++valueToDrawIndex;
             }
         }
@@ -7,8 +7,11 @@ import android.graphics.PointF;
 import android.graphics.Rect;
 import android.graphics.RectF;
 
+import java.util.List;
+
 import lecho.lib.hellocharts.computator.ChartComputator;
 import lecho.lib.hellocharts.formatter.BubbleChartValueFormatter;
+import lecho.lib.hellocharts.model.AnimationBuffer;
 import lecho.lib.hellocharts.model.BubbleChartData;
 import lecho.lib.hellocharts.model.BubbleValue;
 import lecho.lib.hellocharts.model.SelectedValue.SelectedValueType;
@@ -16,13 +19,22 @@ import lecho.lib.hellocharts.model.ValueShape;
 import lecho.lib.hellocharts.model.Viewport;
 import lecho.lib.hellocharts.provider.BubbleChartDataProvider;
 import lecho.lib.hellocharts.util.ChartUtils;
+import lecho.lib.hellocharts.util.PointQuadTree;
 import lecho.lib.hellocharts.view.Chart;
 
 public class BubbleChartRenderer extends AbstractChartRenderer {
     private static final int DEFAULT_TOUCH_ADDITIONAL_DP = 4;
+    /**
+     * Half-diagonal of square bubble is radius * sqrt(2).
+     */
+    private static final float SQRT_2 = (float) Math.sqrt(2);
     private static final int MODE_DRAW = 0;
     private static final int MODE_HIGHLIGHT = 1;
 
+    private static final int VALUES_CURRENT = 0;
+    private static final int VALUES_ORIGIN = 1;
+    private static final int VALUES_TARGET = 2;
+
     private BubbleChartDataProvider dataProvider;
 
     /**
@@ -53,7 +65,15 @@ public class BubbleChartRenderer extends AbstractChartRenderer {
      */
     private float minRawRadius;
     private PointF bubbleCenter = new PointF();
+    /**
+     * Template of paints used to draw bubbles, see {@link #palette}.
+     */
     private Paint bubblePaint = new Paint();
+    /**
+     * Compiled paints of bubbles by value index, shared by bubbles with the same colour.
+     */
+    private ValueRenderState.Palette palette = new ValueRenderState.Palette(bubblePaint);
+    private ValueRenderState[] bubbleStates = new ValueRenderState[0];
 
     /**
      * Rect used for drawing bubbles with SHAPE_SQUARE.
@@ -65,6 +85,45 @@ public class BubbleChartRenderer extends AbstractChartRenderer {
     private BubbleChartValueFormatter valueFormatter;
     private Viewport tempMaximumViewport = new Viewport();
 
+    /**
+     * Bounds of bubble centers and maximum absolute Z value, recalculated when data changed and when viewport
+     * calculation is requested from outside since values could be modified in place.
+     */
+    private Viewport dataBounds = new Viewport();
+    private float dataMaxZ;
+    private boolean isDataBoundsDirty = true;
+
+    /**
+     * Bounds for values at the beginning and at the end of data animation, calculated on the first frame of animation
+     * and interpolated on next frames.
+     */
+    private Viewport startDataBounds = new Viewport();
+    private Viewport targetDataBounds = new Viewport();
+    private float startMaxZ;
+    private float targetMaxZ;
+    private boolean isAnimationBoundsValid = false;
+
+    /**
+     * Bubble centers, radii(before scaling) and quadtree over centers, updated when data changed, during data animation
+     * and after {@link BubbleChartData#notifyValuesChanged()}. Radius is square root of Z so it is cached
+     * instead of calculating it on every frame.
+     */
+    private float[] bubbleXs = new float[0];
+    private float[] bubbleYs = new float[0];
+    private float[] bubbleRadii = new float[0];
+    /**
+     * Raw centers of drawn bubbles as interleaved X and Y, transformed in one batch every frame.
+     */
+    private float[] rawCenters = new float[0];
+    private int bubbleCount;
+    private int bubblesModificationCount;
+    private float bubbleMaxRadius;
+    private PointQuadTree bubbleTree = new PointQuadTree();
+    /**
+     * False during data animation when bubbles move on every frame, bubbles are not culled then.
+     */
+    private boolean isBubbleTreeValid = false;
+
     public BubbleChartRenderer(Context context, Chart chart, BubbleChartDataProvider dataProvider) {
         super(context, chart);
         this.dataProvider = dataProvider;
@@ -95,18 +154,55 @@ public class BubbleChartRenderer extends AbstractChartRenderer {
         this.hasLabelsOnlyForSelected = data.hasLabelsOnlyForSelected();
         this.valueFormatter = data.getFormatter();
 
-        onChartViewportChanged();
+        isDataBoundsDirty = true;
+        isAnimationBoundsValid = false;
+        updateBubbles(true);
+        compileRenderStates();
+        updateMaximumViewport();
     }
 
     @Override
     public void onChartViewportChanged() {
+        // Values could be modified in place, cached bounds are reused only by data change and animation callbacks.
+        isDataBoundsDirty = true;
+        updateMaximumViewport();
+    }
+
+    private void updateMaximumViewport() {
         if (isViewportCalculationEnabled) {
+            if (isDataBoundsDirty) {
+                dataMaxZ = calculateDataBounds(dataBounds, VALUES_CURRENT);
+                isDataBoundsDirty = false;
+            }
             calculateMaxViewport();
             computator.setMaxViewport(tempMaximumViewport);
             computator.setCurrentViewport(computator.getMaximumViewport());
         }
     }
 
+    @Override
+    public void onChartDataAnimationUpdate(float scale) {
+        if (!isAnimationBoundsValid) {
+            startMaxZ = calculateDataBounds(startDataBounds, VALUES_ORIGIN);
+            targetMaxZ = calculateDataBounds(targetDataBounds, VALUES_TARGET);
+            isAnimationBoundsValid = true;
+        }
+        interpolateViewport(startDataBounds, targetDataBounds, scale, dataBounds);
+        dataMaxZ = startMaxZ + (targetMaxZ - startMaxZ) * scale;
+        isDataBoundsDirty = false;
+        updateAnimatedBubbles();
+        updateMaximumViewport();
+    }
+
+    @Override
+    public void onChartDataAnimationFinished() {
+        // Values are equal to targets now, next animation may have different targets.
+        isDataBoundsDirty = true;
+        isAnimationBoundsValid = false;
+        updateBubbles(true);
+        updateMaximumViewport();
+    }
+
     @Override
     public void draw(Canvas canvas) {
         drawBubbles(canvas);
@@ -123,32 +219,64 @@ public class BubbleChartRenderer extends AbstractChartRenderer {
     public boolean checkTouch(float touchX, float touchY) {
         selectedValue.clear();
         final BubbleChartData data = dataProvider.getBubbleChartData();
-        int valueIndex = 0;
-        for (BubbleValue bubbleValue : data.getValues()) {
-            float rawRadius = processBubble(bubbleValue, bubbleCenter);
-
-            if (ValueShape.SQUARE.equals(bubbleValue.getShape())) {
-                if (bubbleRect.contains(touchX, touchY)) {
-                    selectedValue.set(valueIndex, valueIndex, SelectedValueType.NONE);
+        final List<BubbleValue> values = data.getValues();
+        if (values.size() != bubbleCount || data.getModificationCount() != bubblesModificationCount) {
+            // Values list or values were modified without calling onChartDataChanged().
+            updateBubbles(true);
+        }
+        if (isBubbleTreeValid) {
+            final Rect contentRect = computator.getContentRectMinusAllMargins();
+            final Viewport viewport = computator.getCurrentViewport();
+            if (contentRect.width() <= 0 || contentRect.height() <= 0) {
+                return false;
+            }
+            final float valuesPerPixelX = viewport.width() / contentRect.width();
+            final float valuesPerPixelY = viewport.height() / contentRect.height();
+            final float touchValueX = viewport.left + (touchX - contentRect.left) * valuesPerPixelX;
+            final float touchValueY = viewport.bottom + (contentRect.bottom - touchY) * valuesPerPixelY;
+            final float rawRadius = calculateMaxRawRadius();
+            final int count = bubbleTree.query(touchValueX - rawRadius * valuesPerPixelX,
+                    touchValueY - rawRadius * valuesPerPixelY, touchValueX + rawRadius * valuesPerPixelX,
+                    touchValueY + rawRadius * valuesPerPixelY);
+            final int[] indexes = bubbleTree.getResult();
+            // The last bubble is drawn on top so it wins.
+            for (int i = count - 1; i >= 0; --i) {
+                if (isTouched(values.get(indexes[i]), indexes[i], touchX, touchY)) {
+                    return isTouched();
                 }
-            } else if (ValueShape.CIRCLE.equals(bubbleValue.getShape())) {
-                final float diffX = touchX - bubbleCenter.x;
-                final float diffY = touchY - bubbleCenter.y;
-                final float touchDistance = (float) Math.sqrt((diffX * diffX) + (diffY * diffY));
-
-                if (touchDistance <= rawRadius) {
-                    selectedValue.set(valueIndex, valueIndex, SelectedValueType.NONE);
+            }
+        } else {
+            for (int valueIndex = bubbleCount - 1; valueIndex >= 0; --valueIndex) {
+                if (isTouched(values.get(valueIndex), valueIndex, touchX, touchY)) {
+                    return isTouched();
                 }
-            } else {
-                throw new IllegalArgumentException("Invalid bubble shape: " + bubbleValue.getShape());
             }
-
-            ++valueIndex;
         }
-
         return isTouched();
     }
 
+    /**
+     * Selects bubble and returns true if it contains touch point.
+     */
+    private boolean isTouched(BubbleValue bubbleValue, int valueIndex, float touchX, float touchY) {
+        final float rawRadius = processBubble(bubbleValue, bubbleRadii[valueIndex],
+                computator.computeRawX(bubbleValue.getX()), computator.computeRawY(bubbleValue.getY()));
+        final boolean isTouched;
+        if (ValueShape.SQUARE.equals(bubbleValue.getShape())) {
+            isTouched = bubbleRect.contains(touchX, touchY);
+        } else if (ValueShape.CIRCLE.equals(bubbleValue.getShape())) {
+            final float diffX = touchX - bubbleCenter.x;
+            final float diffY = touchY - bubbleCenter.y;
+            isTouched = diffX * diffX + diffY * diffY <= rawRadius * rawRadius;
+        } else {
+            throw new IllegalArgumentException("Invalid bubble shape: " + bubbleValue.getShape());
+        }
+        if (isTouched) {
+            selectedValue.set(valueIndex, valueIndex, SelectedValueType.NONE);
+        }
+        return isTouched;
+    }
+
     /**
      * Removes empty spaces on sides of chart(left-right for landscape, top-bottom for portrait). *This method should be
      * called after layout had been drawn*. Because most often chart is drawn as rectangle with proportions other than
@@ -184,26 +312,63 @@ public class BubbleChartRenderer extends AbstractChartRenderer {
 
     private void drawBubbles(Canvas canvas) {
         final BubbleChartData data = dataProvider.getBubbleChartData();
-        for (BubbleValue bubbleValue : data.getValues()) {
-            drawBubble(canvas, bubbleValue);
+        final List<BubbleValue> values = data.getValues();
+        if (values.size() != bubbleCount || data.getModificationCount() != bubblesModificationCount) {
+            // Values list or values were modified without calling onChartDataChanged().
+            updateBubbles(true);
+        }
+        if (isBubbleTreeValid) {
+            final Rect contentRect = computator.getContentRectMinusAllMargins();
+            final Viewport viewport = computator.getVisibleViewport();
+            final float rawRadius = calculateMaxRawRadius();
+            final float marginX = contentRect.width() > 0 ? rawRadius * viewport.width() / contentRect.width() : 0;
+            final float marginY = contentRect.height() > 0 ? rawRadius * viewport.height() / contentRect.height() : 0;
+            final int count = bubbleTree.query(viewport.left - marginX, viewport.bottom - marginY,
+                    viewport.right + marginX, viewport.top + marginY);
+            final int[] indexes = bubbleTree.getResult();
+            for (int i = 0; i < count; ++i) {
+                rawCenters[i * 2] = bubbleXs[indexes[i]];
+                rawCenters[i * 2 + 1] = bubbleYs[indexes[i]];
+            }
+            computator.computeRawPoints(rawCenters, 0, count, rawCenters);
+            for (int i = 0; i < count; ++i) {
+                drawBubble(canvas, values.get(indexes[i]), indexes[i], rawCenters[i * 2], rawCenters[i * 2 + 1]);
+            }
+            if (null != frameMetrics) {
+                frameMetrics.addPoints(bubbleCount, count);
+            }
+        } else {
+            for (int valueIndex = 0; valueIndex < bubbleCount; ++valueIndex) {
+                rawCenters[valueIndex * 2] = bubbleXs[valueIndex];
+                rawCenters[valueIndex * 2 + 1] = bubbleYs[valueIndex];
+            }
+            computator.computeRawPoints(rawCenters, 0, bubbleCount, rawCenters);
+            for (int valueIndex = 0; valueIndex < bubbleCount; ++valueIndex) {
+                drawBubble(canvas, values.get(valueIndex), valueIndex, rawCenters[valueIndex * 2],
+                        rawCenters[valueIndex * 2 + 1]);
+            }
+            if (null != frameMetrics) {
+                frameMetrics.addPoints(bubbleCount, bubbleCount);
+            }
         }
     }
 
-    private void drawBubble(Canvas canvas, BubbleValue bubbleValue) {
-        float rawRadius = processBubble(bubbleValue, bubbleCenter);
+    private void drawBubble(Canvas canvas, BubbleValue bubbleValue, int valueIndex, float rawX, float rawY) {
+        float rawRadius = processBubble(bubbleValue, bubbleRadii[valueIndex], rawX, rawY);
         // Not touched bubbles are a little smaller than touched to give user touch feedback.
         rawRadius -= touchAdditional;
         bubbleRect.inset(touchAdditional, touchAdditional);
-        bubblePaint.setColor(bubbleValue.getColor());
-        drawBubbleShapeAndLabel(canvas, bubbleValue, rawRadius, MODE_DRAW);
+        drawBubbleShapeAndLabel(canvas, bubbleValue, rawRadius, getBubbleState(valueIndex, bubbleValue).paint,
+                MODE_DRAW);
 
     }
 
-    private void drawBubbleShapeAndLabel(Canvas canvas, BubbleValue bubbleValue, float rawRadius, int mode) {
+    private void drawBubbleShapeAndLabel(Canvas canvas, BubbleValue bubbleValue, float rawRadius, Paint paint,
+                                         int mode) {
         if (ValueShape.SQUARE.equals(bubbleValue.getShape())) {
-            canvas.drawRect(bubbleRect, bubblePaint);
+            canvas.drawRect(bubbleRect, paint);
         } else if (ValueShape.CIRCLE.equals(bubbleValue.getShape())) {
-            canvas.drawCircle(bubbleCenter.x, bubbleCenter.y, rawRadius, bubblePaint);
+            canvas.drawCircle(bubbleCenter.x, bubbleCenter.y, rawRadius, paint);
         } else {
             throw new IllegalArgumentException("Invalid bubble shape: " + bubbleValue.getShape());
         }
@@ -224,23 +389,50 @@ public class BubbleChartRenderer extends AbstractChartRenderer {
     private void highlightBubbles(Canvas canvas) {
         final BubbleChartData data = dataProvider.getBubbleChartData();
         BubbleValue bubbleValue = data.getValues().get(selectedValue.getFirstIndex());
-        highlightBubble(canvas, bubbleValue);
+        highlightBubble(canvas, bubbleValue, selectedValue.getFirstIndex());
+    }
+
+    private void highlightBubble(Canvas canvas, BubbleValue bubbleValue, int valueIndex) {
+        float rawRadius = processBubble(bubbleValue, bubbleRadii[valueIndex],
+                computator.computeRawX(bubbleValue.getX()), computator.computeRawY(bubbleValue.getY()));
+        drawBubbleShapeAndLabel(canvas, bubbleValue, rawRadius, getBubbleState(valueIndex, bubbleValue).darkenPaint,
+                MODE_HIGHLIGHT);
+    }
+
+    /**
+     * Compiles paints for all bubbles, called when chart data is set.
+     */
+    private void compileRenderStates() {
+        final List<BubbleValue> values = dataProvider.getBubbleChartData().getValues();
+        final int valuesCount = values.size();
+        palette.begin();
+        if (bubbleStates.length < valuesCount) {
+            bubbleStates = new ValueRenderState[valuesCount];
+        }
+        for (int valueIndex = 0; valueIndex < valuesCount; ++valueIndex) {
+            final BubbleValue value = values.get(valueIndex);
+            bubbleStates[valueIndex] = palette.get(value.getColor(), value.getDarkenColor());
+        }
     }
 
-    private void highlightBubble(Canvas canvas, BubbleValue bubbleValue) {
-        float rawRadius = processBubble(bubbleValue, bubbleCenter);
-        bubblePaint.setColor(bubbleValue.getDarkenColor());
-        drawBubbleShapeAndLabel(canvas, bubbleValue, rawRadius, MODE_HIGHLIGHT);
+    /**
+     * Returns compiled paints of given bubble. If bubble was added or its colour changed without setting chart data
+     * again states are compiled again.
+     */
+    private ValueRenderState getBubbleState(int valueIndex, BubbleValue value) {
+        if (valueIndex >= bubbleStates.length || null == bubbleStates[valueIndex]
+                || bubbleStates[valueIndex].color != value.getColor()) {
+            compileRenderStates();
+        }
+        return bubbleStates[valueIndex];
     }
 
     /**
-     * Calculate bubble radius and center x and y coordinates. Center x and x will be stored in point parameter, radius
-     * will be returned as float value.
+     * Calculate bubble radius for given raw center, center is stored in {@link #bubbleCenter} and radius is returned.
+     *
+     * @param radius cached bubble radius before scaling, see {@link #updateBubbles(boolean)}
      */
-    private float processBubble(BubbleValue bubbleValue, PointF point) {
-        final float rawX = computator.computeRawX(bubbleValue.getX());
-        final float rawY = computator.computeRawY(bubbleValue.getY());
-        float radius = (float) Math.sqrt(Math.abs(bubbleValue.getZ()) / Math.PI);
+    private float processBubble(BubbleValue bubbleValue, float radius, float rawX, float rawY) {
         float rawRadius;
         if (isBubbleScaledByX) {
             radius *= bubbleScaleX;
@@ -300,30 +492,124 @@ public class BubbleChartRenderer extends AbstractChartRenderer {
 
     }
 
-    private void calculateMaxViewport() {
+    /**
+     * Caches centers and radii of bubbles and optionally rebuilds quadtree, without rebuild tree is marked as invalid
+     * and bubbles are not culled until next rebuild.
+     */
+    private void updateBubbles(boolean rebuildTree) {
+        final BubbleChartData data = dataProvider.getBubbleChartData();
+        final List<BubbleValue> values = data.getValues();
+        bubbleCount = values.size();
+        bubblesModificationCount = data.getModificationCount();
+        if (bubbleRadii.length < bubbleCount) {
+            bubbleXs = new float[bubbleCount];
+            bubbleYs = new float[bubbleCount];
+            bubbleRadii = new float[bubbleCount];
+            rawCenters = new float[bubbleCount * 2];
+        }
+        bubbleMaxRadius = 0;
+        for (int i = 0; i < bubbleCount; ++i) {
+            final BubbleValue bubbleValue = values.get(i);
+            bubbleXs[i] = bubbleValue.getX();
+            bubbleYs[i] = bubbleValue.getY();
+            bubbleRadii[i] = (float) Math.sqrt(Math.abs(bubbleValue.getZ()) / Math.PI);
+            bubbleMaxRadius = Math.max(bubbleMaxRadius, bubbleRadii[i]);
+        }
+        if (rebuildTree) {
+            bubbleTree.build(bubbleXs, bubbleYs, bubbleCount);
+        }
+        isBubbleTreeValid = rebuildTree;
+    }
+
+    /**
+     * Updates cached centers and radii of bubbles changed by data animation, see
+     * {@link BubbleChartData#getAnimationBuffer()}. Quadtree is marked as invalid if any bubble moves.
+     */
+    private void updateAnimatedBubbles() {
+        final BubbleChartData data = dataProvider.getBubbleChartData();
+        final List<BubbleValue> values = data.getValues();
+        if (values.size() != bubbleCount) {
+            updateBubbles(false);
+            return;
+        }
+        final AnimationBuffer animationBuffer = data.getAnimationBuffer();
+        for (int i = 0, size = animationBuffer.size(); i < size; ++i) {
+            final int index = animationBuffer.getIndex(i);
+            final BubbleValue bubbleValue = values.get(index);
+            bubbleXs[index] = bubbleValue.getX();
+            bubbleYs[index] = bubbleValue.getY();
+            bubbleRadii[index] = (float) Math.sqrt(Math.abs(bubbleValue.getZ()) / Math.PI);
+            // Max radius may only grow here, it is calculated again when animation finish.
+            bubbleMaxRadius = Math.max(bubbleMaxRadius, bubbleRadii[index]);
+            isBubbleTreeValid = false;
+        }
+    }
+
+    /**
+     * Returns maximum distance in pixels from bubble center to its edge, used to pad quadtree queries.
+     */
+    private float calculateMaxRawRadius() {
+        float rawRadius;
+        if (isBubbleScaledByX) {
+            rawRadius = computator.computeRawDistanceX(bubbleMaxRadius * bubbleScaleX);
+        } else {
+            rawRadius = computator.computeRawDistanceY(bubbleMaxRadius * bubbleScaleY);
+        }
+        rawRadius = Math.max(rawRadius, minRawRadius + touchAdditional);
+        // Square bubbles reach further in the corners.
+        return rawRadius * SQRT_2;
+    }
+
+    /**
+     * Calculates bounds of bubble centers for current, origin or target values and returns maximum absolute Z value.
+     */
+    private float calculateDataBounds(Viewport bounds, int valuesMode) {
         float maxZ = Float.MIN_VALUE;
-        tempMaximumViewport.set(Float.MAX_VALUE, Float.MIN_VALUE, Float.MIN_VALUE, Float.MAX_VALUE);
+        bounds.set(Float.MAX_VALUE, Float.MIN_VALUE, Float.MIN_VALUE, Float.MAX_VALUE);
         BubbleChartData data = dataProvider.getBubbleChartData();
-        // TODO: Optimize.
         for (BubbleValue bubbleValue : data.getValues()) {
-            if (Math.abs(bubbleValue.getZ()) > maxZ) {
-                maxZ = Math.abs(bubbleValue.getZ());
+            final float x;
+            final float y;
+            final float z;
+            if (VALUES_CURRENT == valuesMode) {
+                x = bubbleValue.getX();
+                y = bubbleValue.getY();
+                z = bubbleValue.getZ();
+            } else if (VALUES_ORIGIN == valuesMode) {
+                x = bubbleValue.getOriginX();
+                y = bubbleValue.getOriginY();
+                z = bubbleValue.getOriginZ();
+            } else if (VALUES_TARGET == valuesMode) {
+                x = bubbleValue.getTargetX();
+                y = bubbleValue.getTargetY();
+                z = bubbleValue.getTargetZ();
+            } else {
+                throw new IllegalStateException("Invalid values mode: " + valuesMode);
+            }
+            if (Math.abs(z) > maxZ) {
+                maxZ = Math.abs(z);
             }
-            if (bubbleValue.getX() < tempMaximumViewport.left) {
-                tempMaximumViewport.left = bubbleValue.getX();
+            if (x < bounds.left) {
+                bounds.left = x;
             }
-            if (bubbleValue.getX() > tempMaximumViewport.right) {
-                tempMaximumViewport.right = bubbleValue.getX();
+            if (x > bounds.right) {
+                bounds.right = x;
             }
-            if (bubbleValue.getY() < tempMaximumViewport.bottom) {
-                tempMaximumViewport.bottom = bubbleValue.getY();
+            if (y < bounds.bottom) {
+                bounds.bottom = y;
             }
-            if (bubbleValue.getY() > tempMaximumViewport.top) {
-                tempMaximumViewport.top = bubbleValue.getY();
+            if (y > bounds.top) {
+                bounds.top = y;
             }
         }
+        return maxZ;
+    }
+
+    private void calculateMaxViewport() {
+        final BubbleChartData data = dataProvider.getBubbleChartData();
+        tempMaximumViewport.set(dataBounds);
 
-        maxRadius = (float) Math.sqrt(maxZ / Math.PI);
+        maxRadius = (float) Math.sqrt(dataMaxZ / Math.PI);
 
         // Number 4 is determined by trials and errors method, no magic behind it:).
         bubbleScaleX = tempMaximumViewport.width() / (maxRadius * 4);
@@ -2,6 +2,8 @@ package lecho.lib.hellocharts.renderer;
 
 import android.graphics.Canvas;
 
+import lecho.lib.hellocharts.model.ChartFrameMetrics;
+import lecho.lib.hellocharts.model.PointSeries;
 import lecho.lib.hellocharts.model.SelectedValue;
 import lecho.lib.hellocharts.model.Viewport;
 
@@ -12,14 +14,45 @@ public interface ChartRenderer {
 
     public void onChartSizeChanged();
 
+    /**
+     * Called when chart view was detached from window, renderer should release offscreen buffers. Renderer can be used
+     * again if view is attached later. Does nothing by default.
+     */
+    public default void onChartDetachedFromWindow() {
+    }
+
     public void onChartDataChanged();
 
+    /**
+     * Called when values were appended to existing chart data, i.e. to circular {@link PointSeries}. Renderer should
+     * update viewports without full data reset. By default only viewports are recalculated.
+     */
+    public default void onChartDataAppended() {
+        onChartViewportChanged();
+    }
+
+    /**
+     * Called on every frame of data animation after chart data was updated with given scale. By default viewports are
+     * recalculated.
+     */
+    public default void onChartDataAnimationUpdate(float scale) {
+        onChartViewportChanged();
+    }
+
+    /**
+     * Called when data animation finished or was canceled and chart data was set to target values. By default viewports
+     * are recalculated.
+     */
+    public default void onChartDataAnimationFinished() {
+        onChartViewportChanged();
+    }
+
     public void onChartViewportChanged();
 
     public void resetRenderer();
 
     /**
-     * Draw chart data.
+     * Draw chart data. Called on every frame, it should not allocate objects unless chart data or size changed.
      */
     public void draw(Canvas canvas);
 
@@ -30,7 +63,8 @@ public interface ChartRenderer {
 
     /**
      * Checks if given pixel coordinates corresponds to any chart value. If yes return true and set selectedValue, if
-     * not selectedValue should be *cleared* and method should return false.
+     * not selectedValue should be *cleared* and method should return false. Called for touch events, it should not
+     * allocate objects.
      */
     public boolean checkTouch(float touchX, float touchY);
 
@@ -60,4 +94,11 @@ public interface ChartRenderer {
 
     public SelectedValue getSelectedValue();
 
+    /**
+     * Sets metrics that renderer should update with point counters while drawing, null disables counting. Renderer
+     * doesn't count points by default.
+     */
+    public default void setFrameMetrics(ChartFrameMetrics frameMetrics) {
+    }
+
 }
@@ -5,8 +5,12 @@ import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.Paint.Cap;
 import android.graphics.PointF;
+import android.graphics.Rect;
 import android.graphics.RectF;
 
+import java.util.List;
+
+import lecho.lib.hellocharts.model.AnimationBuffer;
 import lecho.lib.hellocharts.model.Column;
 import lecho.lib.hellocharts.model.ColumnChartData;
 import lecho.lib.hellocharts.model.SelectedValue.SelectedValueType;
@@ -27,6 +31,10 @@ public class ColumnChartRenderer extends AbstractChartRenderer {
     private static final int MODE_CHECK_TOUCH = 1;
     private static final int MODE_HIGHLIGHT = 2;
 
+    private static final int VALUES_CURRENT = 0;
+    private static final int VALUES_ORIGIN = 1;
+    private static final int VALUES_TARGET = 2;
+
     private ColumnChartDataProvider dataProvider;
 
     /**
@@ -40,10 +48,16 @@ public class ColumnChartRenderer extends AbstractChartRenderer {
     private int subcolumnSpacing;
 
     /**
-     * Paint used to draw every column.
+     * Template of paints used to draw columns, see {@link #palette}.
      */
     private Paint columnPaint = new Paint();
 
+    /**
+     * Compiled paints of subcolumns by column index and subcolumn index, shared by subcolumns with the same colour.
+     */
+    private ValueRenderState.Palette palette = new ValueRenderState.Palette(columnPaint);
+    private ValueRenderState[][] subcolumnStates = new ValueRenderState[0][];
+
     /**
      * Holds coordinates for currently processed column/sub-column.
      */
@@ -54,12 +68,37 @@ public class ColumnChartRenderer extends AbstractChartRenderer {
      */
     private PointF touchedPoint = new PointF();
 
+    /**
+     * Range of columns calculated by {@link #calculateColumnRange(float, float, float)}, columnsTo is exclusive.
+     */
+    int columnsFrom;
+    int columnsTo;
+    /**
+     * Number of subcolumns of all columns for frame metrics, counted when render states are compiled.
+     */
+    private int subcolumnsCount;
+
     private float fillRatio;
 
     private float baseValue;
 
     private Viewport tempMaximumViewport = new Viewport();
 
+    /**
+     * Maximum viewport calculated from current values, recalculated when data changed and when viewport calculation is
+     * requested from outside since values could be modified in place.
+     */
+    private boolean isMaximumViewportDirty = true;
+
+    /**
+     * Maximum viewports for values at the beginning and at the end of data animation, calculated on the first frame of
+     * animation and interpolated on next frames.
+     */
+    private Viewport startMaximumViewport = new Viewport();
+    private Viewport targetMaximumViewport = new Viewport();
+    private boolean isAnimationViewportValid = false;
+    private Viewport tempColumnViewport = new Viewport();
+
     public ColumnChartRenderer(Context context, Chart chart, ColumnChartDataProvider dataProvider) {
         super(context, chart);
         this.dataProvider = dataProvider;
@@ -81,19 +120,58 @@ public class ColumnChartRenderer extends AbstractChartRenderer {
         ColumnChartData data = dataProvider.getColumnChartData();
         fillRatio = data.getFillRatio();
         baseValue = data.getBaseValue();
+        compileRenderStates();
 
-        onChartViewportChanged();
+        isMaximumViewportDirty = true;
+        isAnimationViewportValid = false;
+        updateMaximumViewport();
     }
 
     @Override
     public void onChartViewportChanged() {
+        // Values could be modified in place, cached viewport is reused only by data change and animation callbacks.
+        isMaximumViewportDirty = true;
+        updateMaximumViewport();
+    }
+
+    private void updateMaximumViewport() {
         if (isViewportCalculationEnabled) {
-            calculateMaxViewport();
+            if (isMaximumViewportDirty) {
+                calculateMaxViewport(tempMaximumViewport, VALUES_CURRENT);
+                isMaximumViewportDirty = false;
+            }
             computator.setMaxViewport(tempMaximumViewport);
             computator.setCurrentViewport(computator.getMaximumViewport());
         }
     }
 
+    @Override
+    public void onChartDataAnimationUpdate(float scale) {
+        if (!isAnimationViewportValid) {
+            if (isMaximumViewportDirty) {
+                calculateMaxViewport(startMaximumViewport, VALUES_ORIGIN);
+            } else {
+                // Animation has just started so current values are equal to origin values.
+                startMaximumViewport.set(tempMaximumViewport);
+            }
+            if (!calculateTargetMaxViewportForChanged()) {
+                calculateMaxViewport(targetMaximumViewport, VALUES_TARGET);
+            }
+            isAnimationViewportValid = true;
+        }
+        interpolateViewport(startMaximumViewport, targetMaximumViewport, scale, tempMaximumViewport);
+        isMaximumViewportDirty = false;
+        updateMaximumViewport();
+    }
+
+    @Override
+    public void onChartDataAnimationFinished() {
+        // Values are equal to targets now, next animation may have different targets.
+        isMaximumViewportDirty = true;
+        isAnimationViewportValid = false;
+        updateMaximumViewport();
+    }
+
     public void draw(Canvas canvas) {
         final ColumnChartData data = dataProvider.getColumnChartData();
         if (data.isStacked()) {
@@ -125,59 +203,115 @@ public class ColumnChartRenderer extends AbstractChartRenderer {
         return isTouched();
     }
 
-    private void calculateMaxViewport() {
+    /**
+     * Calculates maximum viewport for current, origin or target values.
+     */
+    private void calculateMaxViewport(Viewport maxViewport, int valuesMode) {
         final ColumnChartData data = dataProvider.getColumnChartData();
         // Column chart always has X values from 0 to numColumns-1, to add some margin on the left and right I added
         // extra 0.5 to the each side, that margins will be negative scaled according to number of columns, so for more
         // columns there will be less margin.
-        tempMaximumViewport.set(-0.5f, baseValue, data.getColumns().size() - 0.5f, baseValue);
+        maxViewport.set(-0.5f, baseValue, data.getColumns().size() - 0.5f, baseValue);
         if (data.isStacked()) {
-            calculateMaxViewportForStacked(data);
+            calculateMaxViewportForStacked(data, maxViewport, valuesMode);
         } else {
-            calculateMaxViewportForSubcolumns(data);
+            calculateMaxViewportForSubcolumns(data, maxViewport, valuesMode);
         }
     }
 
-    private void calculateMaxViewportForSubcolumns(ColumnChartData data) {
-        for (Column column : data.getColumns()) {
-            for (SubcolumnValue columnValue : column.getValues()) {
-                if (columnValue.getValue() >= baseValue && columnValue.getValue() > tempMaximumViewport.top) {
-                    tempMaximumViewport.top = columnValue.getValue();
-                }
-                if (columnValue.getValue() < baseValue && columnValue.getValue() < tempMaximumViewport.bottom) {
-                    tempMaximumViewport.bottom = columnValue.getValue();
-                }
+    /**
+     * Calculates target maximum viewport by extending start maximum viewport with columns changed by animation, see
+     * {@link ColumnChartData#getAnimationBuffer()}. Returns false if some changed column reaches the edge of start
+     * viewport, in that case viewport may shrink and all columns have to be checked.
+     */
+    private boolean calculateTargetMaxViewportForChanged() {
+        final ColumnChartData data = dataProvider.getColumnChartData();
+        final AnimationBuffer animationBuffer = data.getAnimationBuffer();
+        final Viewport columnViewport = tempColumnViewport;
+        targetMaximumViewport.set(startMaximumViewport);
+        for (int i = 0, size = animationBuffer.size(); i < size; ++i) {
+            final Column column = data.getColumns().get(animationBuffer.getIndex(i));
+            columnViewport.set(startMaximumViewport.left, baseValue, startMaximumViewport.right, baseValue);
+            includeColumn(column, data.isStacked(), columnViewport, VALUES_ORIGIN);
+            if ((columnViewport.top > baseValue && columnViewport.top >= startMaximumViewport.top)
+                    || (columnViewport.bottom < baseValue && columnViewport.bottom <= startMaximumViewport.bottom)) {
+                return false;
             }
+            includeColumn(column, data.isStacked(), targetMaximumViewport, VALUES_TARGET);
+        }
+        return true;
+    }
+
+    private void calculateMaxViewportForSubcolumns(ColumnChartData data, Viewport maxViewport, int valuesMode) {
+        for (Column column : data.getColumns()) {
+            includeColumn(column, false, maxViewport, valuesMode);
         }
     }
 
-    private void calculateMaxViewportForStacked(ColumnChartData data) {
+    private void calculateMaxViewportForStacked(ColumnChartData data, Viewport maxViewport, int valuesMode) {
         for (Column column : data.getColumns()) {
+            includeColumn(column, true, maxViewport, valuesMode);
+        }
+    }
+
+    /**
+     * Extends top and bottom of maximum viewport to contain given column.
+     */
+    private void includeColumn(Column column, boolean isStacked, Viewport maxViewport, int valuesMode) {
+        if (isStacked) {
             float sumPositive = baseValue;
             float sumNegative = baseValue;
             for (SubcolumnValue columnValue : column.getValues()) {
-                if (columnValue.getValue() >= baseValue) {
-                    sumPositive += columnValue.getValue();
+                final float value = getValue(columnValue, valuesMode);
+                if (value >= baseValue) {
+                    sumPositive += value;
                 } else {
-                    sumNegative += columnValue.getValue();
+                    sumNegative += value;
                 }
             }
-            if (sumPositive > tempMaximumViewport.top) {
-                tempMaximumViewport.top = sumPositive;
+            if (sumPositive > maxViewport.top) {
+                maxViewport.top = sumPositive;
             }
-            if (sumNegative < tempMaximumViewport.bottom) {
-                tempMaximumViewport.bottom = sumNegative;
+            if (sumNegative < maxViewport.bottom) {
+                maxViewport.bottom = sumNegative;
             }
+        } else {
+            for (SubcolumnValue columnValue : column.getValues()) {
+                final float value = getValue(columnValue, valuesMode);
+                if (value >= baseValue && value > maxViewport.top) {
+                    maxViewport.top = value;
+                }
+                if (value < baseValue && value < maxViewport.bottom) {
+                    maxViewport.bottom = value;
+                }
+            }
+        }
+    }
+
+    private float getValue(SubcolumnValue columnValue, int valuesMode) {
+        if (VALUES_CURRENT == valuesMode) {
+            return columnValue.getValue();
+        } else if (VALUES_ORIGIN == valuesMode) {
+            return columnValue.getOriginValue();
+        } else if (VALUES_TARGET == valuesMode) {
+            return columnValue.getTargetValue();
+        } else {
+            throw new IllegalStateException("Invalid values mode: " + valuesMode);
         }
     }
 
     private void drawColumnsForSubcolumns(Canvas canvas) {
-        final ColumnChartData data = dataProvider.getColumnChartData();
+        final List<Column> columns = dataProvider.getColumnChartData().getColumns();
         final float columnWidth = calculateColumnWidth();
-        int columnIndex = 0;
-        for (Column column : data.getColumns()) {
+        calculateVisibleColumnRange(columnWidth);
+        int drawnCount = 0;
+        for (int columnIndex = columnsFrom; columnIndex < columnsTo; ++columnIndex) {
+            final Column column = columns.get(columnIndex);
             processColumnForSubcolumns(canvas, column, columnWidth, columnIndex, MODE_DRAW);
-            ++columnIndex;
+            drawnCount += column.getValues().size();
+        }
+        if (null != frameMetrics) {
+            frameMetrics.addPoints(subcolumnsCount, drawnCount);
         }
     }
 
@@ -192,13 +326,12 @@ public class ColumnChartRenderer extends AbstractChartRenderer {
         // Using member variable to hold touch point to avoid too much parameters in methods.
         touchedPoint.x = touchX;
         touchedPoint.y = touchY;
-        final ColumnChartData data = dataProvider.getColumnChartData();
+        final List<Column> columns = dataProvider.getColumnChartData().getColumns();
         final float columnWidth = calculateColumnWidth();
-        int columnIndex = 0;
-        for (Column column : data.getColumns()) {
+        calculateTouchedColumnRange(touchX, columnWidth);
+        for (int columnIndex = columnsFrom; columnIndex < columnsTo; ++columnIndex) {
             // canvas is not needed for checking touch
-            processColumnForSubcolumns(null, column, columnWidth, columnIndex, MODE_CHECK_TOUCH);
-            ++columnIndex;
+            processColumnForSubcolumns(null, columns.get(columnIndex), columnWidth, columnIndex, MODE_CHECK_TOUCH);
         }
     }
 
@@ -218,9 +351,9 @@ public class ColumnChartRenderer extends AbstractChartRenderer {
         // First subcolumn will starts at the left edge of current column,
         // rawValueX is horizontal center of that column
         float subcolumnRawX = rawX - halfColumnWidth;
-        int valueIndex = 0;
-        for (SubcolumnValue columnValue : column.getValues()) {
-            columnPaint.setColor(columnValue.getColor());
+        final List<SubcolumnValue> values = column.getValues();
+        for (int valueIndex = 0, size = values.size(); valueIndex < size; ++valueIndex) {
+            final SubcolumnValue columnValue = values.get(valueIndex);
             if (subcolumnRawX > rawX + halfColumnWidth) {
                 break;
             }
@@ -228,10 +361,12 @@ public class ColumnChartRenderer extends AbstractChartRenderer {
             calculateRectToDraw(columnValue, subcolumnRawX, subcolumnRawX + subcolumnWidth, baseRawY, rawY);
             switch (mode) {
                 case MODE_DRAW:
-                    drawSubcolumn(canvas, column, columnValue, false);
+                    drawSubcolumn(canvas, column, columnValue, getSubcolumnState(columnIndex, valueIndex, columnValue),
+                            false);
                     break;
                 case MODE_HIGHLIGHT:
-                    highlightSubcolumn(canvas, column, columnValue, valueIndex, false);
+                    highlightSubcolumn(canvas, column, columnValue, valueIndex,
+                            getSubcolumnState(columnIndex, valueIndex, columnValue), false);
                     break;
                 case MODE_CHECK_TOUCH:
                     checkRectToDraw(columnIndex, valueIndex);
@@ -242,18 +377,22 @@ public class ColumnChartRenderer extends AbstractChartRenderer {
                     throw new IllegalStateException("Cannot process column in mode: " + mode);
             }
             subcolumnRawX += subcolumnWidth + subcolumnSpacing;
-            ++valueIndex;
         }
     }
 
     private void drawColumnForStacked(Canvas canvas) {
-        final ColumnChartData data = dataProvider.getColumnChartData();
+        final List<Column> columns = dataProvider.getColumnChartData().getColumns();
         final float columnWidth = calculateColumnWidth();
         // Columns are indexes from 0 to n, column index is also column X value
-        int columnIndex = 0;
-        for (Column column : data.getColumns()) {
+        calculateVisibleColumnRange(columnWidth);
+        int drawnCount = 0;
+        for (int columnIndex = columnsFrom; columnIndex < columnsTo; ++columnIndex) {
+            final Column column = columns.get(columnIndex);
             processColumnForStacked(canvas, column, columnWidth, columnIndex, MODE_DRAW);
-            ++columnIndex;
+            drawnCount += column.getValues().size();
+        }
+        if (null != frameMetrics) {
+            frameMetrics.addPoints(subcolumnsCount, drawnCount);
         }
     }
 
@@ -268,13 +407,12 @@ public class ColumnChartRenderer extends AbstractChartRenderer {
     private void checkTouchForStacked(float touchX, float touchY) {
         touchedPoint.x = touchX;
         touchedPoint.y = touchY;
-        final ColumnChartData data = dataProvider.getColumnChartData();
+        final List<Column> columns = dataProvider.getColumnChartData().getColumns();
         final float columnWidth = calculateColumnWidth();
-        int columnIndex = 0;
-        for (Column column : data.getColumns()) {
+        calculateTouchedColumnRange(touchX, columnWidth);
+        for (int columnIndex = columnsFrom; columnIndex < columnsTo; ++columnIndex) {
             // canvas is not needed for checking touch
-            processColumnForStacked(null, column, columnWidth, columnIndex, MODE_CHECK_TOUCH);
-            ++columnIndex;
+            processColumnForStacked(null, columns.get(columnIndex), columnWidth, columnIndex, MODE_CHECK_TOUCH);
         }
     }
 
@@ -284,9 +422,9 @@ public class ColumnChartRenderer extends AbstractChartRenderer {
         float mostPositiveValue = baseValue;
         float mostNegativeValue = baseValue;
         float subcolumnBaseValue = baseValue;
-        int valueIndex = 0;
-        for (SubcolumnValue columnValue : column.getValues()) {
-            columnPaint.setColor(columnValue.getColor());
+        final List<SubcolumnValue> values = column.getValues();
+        for (int valueIndex = 0, size = values.size(); valueIndex < size; ++valueIndex) {
+            final SubcolumnValue columnValue = values.get(valueIndex);
             if (columnValue.getValue() >= baseValue) {
                 // Using values instead of raw pixels make code easier to
                 // understand(for me)
@@ -301,10 +439,12 @@ public class ColumnChartRenderer extends AbstractChartRenderer {
             calculateRectToDraw(columnValue, rawX - halfColumnWidth, rawX + halfColumnWidth, rawBaseY, rawY);
             switch (mode) {
                 case MODE_DRAW:
-                    drawSubcolumn(canvas, column, columnValue, true);
+                    drawSubcolumn(canvas, column, columnValue, getSubcolumnState(columnIndex, valueIndex, columnValue),
+                            true);
                     break;
                 case MODE_HIGHLIGHT:
-                    highlightSubcolumn(canvas, column, columnValue, valueIndex, true);
+                    highlightSubcolumn(canvas, column, columnValue, valueIndex,
+                            getSubcolumnState(columnIndex, valueIndex, columnValue), true);
                     break;
                 case MODE_CHECK_TOUCH:
                     checkRectToDraw(columnIndex, valueIndex);
@@ -314,35 +454,124 @@ public class ColumnChartRenderer extends AbstractChartRenderer {
                     // be thrown
                     throw new IllegalStateException("Cannot process column in mode: " + mode);
             }
-            ++valueIndex;
         }
     }
 
-    private void drawSubcolumn(Canvas canvas, Column column, SubcolumnValue columnValue, boolean isStacked) {
-        canvas.drawRect(drawRect, columnPaint);
+    private void drawSubcolumn(Canvas canvas, Column column, SubcolumnValue columnValue, ValueRenderState state,
+                               boolean isStacked) {
+        canvas.drawRect(drawRect, state.paint);
         if (column.hasLabels()) {
             drawLabel(canvas, column, columnValue, isStacked, labelOffset);
         }
     }
 
     private void highlightSubcolumn(Canvas canvas, Column column, SubcolumnValue columnValue, int valueIndex,
-                                    boolean isStacked) {
+                                    ValueRenderState state, boolean isStacked) {
         if (selectedValue.getSecondIndex() == valueIndex) {
-            columnPaint.setColor(columnValue.getDarkenColor());
             canvas.drawRect(drawRect.left - touchAdditionalWidth, drawRect.top, drawRect.right + touchAdditionalWidth,
-                    drawRect.bottom, columnPaint);
+                    drawRect.bottom, state.darkenPaint);
             if (column.hasLabels() || column.hasLabelsOnlyForSelected()) {
                 drawLabel(canvas, column, columnValue, isStacked, labelOffset);
             }
         }
     }
 
+    /**
+     * Compiles paints for all subcolumns, called when chart data is set.
+     */
+    private void compileRenderStates() {
+        final List<Column> columns = dataProvider.getColumnChartData().getColumns();
+        final int columnsCount = columns.size();
+        palette.begin();
+        subcolumnsCount = 0;
+        if (subcolumnStates.length < columnsCount) {
+            subcolumnStates = new ValueRenderState[columnsCount][];
+        }
+        for (int columnIndex = 0; columnIndex < columnsCount; ++columnIndex) {
+            final List<SubcolumnValue> values = columns.get(columnIndex).getValues();
+            final int valuesCount = values.size();
+            subcolumnsCount += valuesCount;
+            ValueRenderState[] states = subcolumnStates[columnIndex];
+            if (null == states || states.length < valuesCount) {
+                states = new ValueRenderState[valuesCount];
+                subcolumnStates[columnIndex] = states;
+            }
+            for (int valueIndex = 0; valueIndex < valuesCount; ++valueIndex) {
+                final SubcolumnValue value = values.get(valueIndex);
+                states[valueIndex] = palette.get(value.getColor(), value.getDarkenColor());
+            }
+        }
+    }
+
+    /**
+     * Returns compiled paints of given subcolumn. If subcolumn was added or its colour changed without setting chart
+     * data again states are compiled again.
+     */
+    private ValueRenderState getSubcolumnState(int columnIndex, int valueIndex, SubcolumnValue value) {
+        if (columnIndex < subcolumnStates.length) {
+            final ValueRenderState[] states = subcolumnStates[columnIndex];
+            if (null != states && valueIndex < states.length && null != states[valueIndex]
+                    && states[valueIndex].color == value.getColor()) {
+                return states[valueIndex];
+            }
+        }
+        compileRenderStates();
+        return subcolumnStates[columnIndex][valueIndex];
+    }
+
     private void checkRectToDraw(int columnIndex, int valueIndex) {
         if (drawRect.contains(touchedPoint.x, touchedPoint.y)) {
             selectedValue.set(columnIndex, valueIndex, SelectedValueType.COLUMN);
         }
     }
 
+    /**
+     * Calculates range of columns visible in viewport. One more column is added on each side because its label may be
+     * wider than the column itself.
+     */
+    void calculateVisibleColumnRange(float columnWidth) {
+        final Viewport viewport = computator.getVisibleViewport();
+        calculateColumnRange(viewport.left, viewport.right, columnWidth);
+        columnsFrom = Math.max(columnsFrom - 1, 0);
+        columnsTo = Math.min(columnsTo + 1, dataProvider.getColumnChartData().getColumns().size());
+    }
+
+    /**
+     * Calculates range of columns that may contain touch point, usually that is a single column.
+     */
+    void calculateTouchedColumnRange(float touchX, float columnWidth) {
+        final Rect contentRect = computator.getContentRectMinusAllMargins();
+        final Viewport viewport = computator.getVisibleViewport();
+        if (contentRect.width() <= 0) {
+            columnsFrom = columnsTo = 0;
+            return;
+        }
+        final float touchValueX = viewport.left + (touchX - contentRect.left) * viewport.width() / contentRect.width();
+        calculateColumnRange(touchValueX, touchValueX, columnWidth);
+    }
+
+    /**
+     * Calculates range of columns overlapping given range of X values. Columns are indexes from 0 to n and column index
+     * is also column X value, so the range is computed directly without iterating columns. Columns are widened by one
+     * pixel on each side so rounding of pixels to values doesn't miss columns with an edge exactly on the range edge.
+     */
+    private void calculateColumnRange(float left, float right, float columnWidth) {
+        final Rect contentRect = computator.getContentRectMinusAllMargins();
+        final Viewport viewport = computator.getVisibleViewport();
+        final int columnsCount = dataProvider.getColumnChartData().getColumns().size();
+        if (contentRect.width() <= 0) {
+            columnsFrom = 0;
+            columnsTo = columnsCount;
+            return;
+        }
+        final float halfColumnWidth = (columnWidth / 2 + 1) * viewport.width() / contentRect.width();
+        columnsFrom = (int) Math.max(0, Math.ceil(left - halfColumnWidth));
+        columnsTo = (int) Math.min(columnsCount, Math.floor(right + halfColumnWidth) + 1);
+        if (columnsTo < columnsFrom) {
+            columnsTo = columnsFrom;
+        }
+    }
+
     private float calculateColumnWidth() {
         // columnWidht should be at least 2 px
         float columnWidth = fillRatio * computator.getContentRectMinusAllMargins().width() / computator
@@ -6,6 +6,7 @@ import android.graphics.Canvas;
 import java.util.ArrayList;
 import java.util.List;
 
+import lecho.lib.hellocharts.model.ChartFrameMetrics;
 import lecho.lib.hellocharts.model.Viewport;
 import lecho.lib.hellocharts.view.Chart;
 
@@ -13,6 +14,11 @@ public class ComboChartRenderer extends AbstractChartRenderer {
 
     protected List<ChartRenderer> renderers;
     protected Viewport unionViewport = new Viewport();
+    /**
+     * If true all renderers draw into one shared software buffer, sub-renderers should have their own buffers disabled.
+     */
+    private boolean isSoftwareBufferEnabled;
+    private SoftwareBuffer softwareBuffer = new SoftwareBuffer();
 
     public ComboChartRenderer(Context context, Chart chart) {
         super(context, chart);
@@ -21,49 +27,111 @@ public class ComboChartRenderer extends AbstractChartRenderer {
 
     @Override
     public void onChartSizeChanged() {
-        for (ChartRenderer renderer : renderers) {
+        for (int i = 0, size = renderers.size(); i < size; ++i) {
+            final ChartRenderer renderer = renderers.get(i);
             renderer.onChartSizeChanged();
         }
+        updateSoftwareBuffer();
+    }
+
+    @Override
+    public void onChartDetachedFromWindow() {
+        for (int i = 0, size = renderers.size(); i < size; ++i) {
+            final ChartRenderer renderer = renderers.get(i);
+            renderer.onChartDetachedFromWindow();
+        }
+        softwareBuffer.release();
     }
 
     @Override
     public void onChartDataChanged() {
         super.onChartDataChanged();
-        for (ChartRenderer renderer : renderers) {
+        for (int i = 0, size = renderers.size(); i < size; ++i) {
+            final ChartRenderer renderer = renderers.get(i);
             renderer.onChartDataChanged();
+            unionMaximumViewport(i, renderer);
+        }
+        applyUnionViewport();
+    }
+
+    @Override
+    public void onChartDataAppended() {
+        for (int i = 0, size = renderers.size(); i < size; ++i) {
+            final ChartRenderer renderer = renderers.get(i);
+            renderer.onChartDataAppended();
+            unionMaximumViewport(i, renderer);
         }
-        onChartViewportChanged();
+        applyUnionViewport();
+    }
+
+    @Override
+    public void onChartDataAnimationUpdate(float scale) {
+        for (int i = 0, size = renderers.size(); i < size; ++i) {
+            final ChartRenderer renderer = renderers.get(i);
+            renderer.onChartDataAnimationUpdate(scale);
+            unionMaximumViewport(i, renderer);
+        }
+        applyUnionViewport();
+    }
+
+    @Override
+    public void onChartDataAnimationFinished() {
+        for (int i = 0, size = renderers.size(); i < size; ++i) {
+            final ChartRenderer renderer = renderers.get(i);
+            renderer.onChartDataAnimationFinished();
+            unionMaximumViewport(i, renderer);
+        }
+        applyUnionViewport();
     }
 
     @Override
     public void onChartViewportChanged() {
         if (isViewportCalculationEnabled) {
-            int rendererIndex = 0;
-            for (ChartRenderer renderer : renderers) {
+            for (int i = 0, size = renderers.size(); i < size; ++i) {
+                final ChartRenderer renderer = renderers.get(i);
                 renderer.onChartViewportChanged();
-                if (rendererIndex == 0) {
-                    unionViewport.set(renderer.getMaximumViewport());
-                } else {
-                    unionViewport.union(renderer.getMaximumViewport());
-                }
-                ++rendererIndex;
+                unionMaximumViewport(i, renderer);
             }
-            computator.setMaxViewport(unionViewport);
-            computator.setCurrentViewport(unionViewport);
+            applyUnionViewport();
         }
+    }
 
+    /**
+     * Adds maximum viewport just calculated by given renderer to union viewport. Renderers calculate viewport in data
+     * callbacks, calling their {@link ChartRenderer#onChartViewportChanged()} again would scan values once more.
+     */
+    private void unionMaximumViewport(int rendererIndex, ChartRenderer renderer) {
+        if (rendererIndex == 0) {
+            unionViewport.set(renderer.getMaximumViewport());
+        } else {
+            unionViewport.union(renderer.getMaximumViewport());
+        }
+    }
 
+    private void applyUnionViewport() {
+        if (isViewportCalculationEnabled) {
+            computator.setMaxViewport(unionViewport);
+            computator.setCurrentViewport(unionViewport);
+        }
     }
 
     public void draw(Canvas canvas) {
-        for (ChartRenderer renderer : renderers) {
-            renderer.draw(canvas);
+        final boolean isBuffered = isSoftwareBufferEnabled
+                && softwareBuffer.prepare(computator.getChartWidth(), computator.getChartHeight());
+        final Canvas drawCanvas = isBuffered ? softwareBuffer.beginDraw() : canvas;
+        for (int i = 0, size = renderers.size(); i < size; ++i) {
+            final ChartRenderer renderer = renderers.get(i);
+            renderer.draw(drawCanvas);
+        }
+        if (isBuffered) {
+            softwareBuffer.endDraw(canvas);
         }
     }
 
     @Override
     public void drawUnclipped(Canvas canvas) {
-        for (ChartRenderer renderer : renderers) {
+        for (int i = 0, size = renderers.size(); i < size; ++i) {
+            final ChartRenderer renderer = renderers.get(i);
             renderer.drawUnclipped(canvas);
         }
     }
@@ -91,9 +159,43 @@ public class ComboChartRenderer extends AbstractChartRenderer {
 
     @Override
     public void clearTouch() {
-        for (ChartRenderer renderer : renderers) {
+        for (int i = 0, size = renderers.size(); i < size; ++i) {
+            final ChartRenderer renderer = renderers.get(i);
             renderer.clearTouch();
         }
         selectedValue.clear();
     }
+
+    @Override
+    public void setFrameMetrics(ChartFrameMetrics frameMetrics) {
+        super.setFrameMetrics(frameMetrics);
+        for (int i = 0, size = renderers.size(); i < size; ++i) {
+            final ChartRenderer renderer = renderers.get(i);
+            renderer.setFrameMetrics(frameMetrics);
+        }
+    }
+
+    /**
+     * @see #setSoftwareBufferEnabled(boolean)
+     */
+    public boolean isSoftwareBufferEnabled() {
+        return isSoftwareBufferEnabled;
+    }
+
+    /**
+     * Set true to draw all sub-renderers into one shared full size software bitmap instead of view canvas. False by
+     * default.
+     */
+    public void setSoftwareBufferEnabled(boolean isEnabled) {
+        this.isSoftwareBufferEnabled = isEnabled;
+        updateSoftwareBuffer();
+    }
+
+    private void updateSoftwareBuffer() {
+        if (isSoftwareBufferEnabled) {
+            softwareBuffer.prepare(computator.getChartWidth(), computator.getChartHeight());
+        } else {
+            softwareBuffer.release();
+        }
+    }
 }
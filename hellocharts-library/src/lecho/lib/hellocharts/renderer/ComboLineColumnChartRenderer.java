@@ -36,5 +36,9 @@ public class ComboLineColumnChartRenderer extends ComboChartRenderer {
 
         renderers.add(this.columnChartRenderer);
         renderers.add(this.lineChartRenderer);
+
+        // Columns and lines share one buffer instead of line renderer allocating its own.
+        setSoftwareBufferEnabled(lineChartRenderer.isSoftwareBufferEnabled());
+        lineChartRenderer.setSoftwareBufferEnabled(false);
     }
 }
\ No newline at end of file
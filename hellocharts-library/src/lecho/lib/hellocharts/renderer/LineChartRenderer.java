@@ -1,19 +1,25 @@
 package lecho.lib.hellocharts.renderer;
 
 import android.content.Context;
-import android.graphics.Bitmap;
 import android.graphics.Canvas;
-import android.graphics.Color;
-import android.graphics.LinearGradient;
 import android.graphics.Paint;
 import android.graphics.Paint.Cap;
 import android.graphics.Path;
-import android.graphics.PorterDuff.Mode;
 import android.graphics.Rect;
-import android.graphics.Shader;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.View;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import lecho.lib.hellocharts.computator.ViewportYFitter;
+import lecho.lib.hellocharts.model.DecimationMode;
 import lecho.lib.hellocharts.model.Line;
 import lecho.lib.hellocharts.model.LineChartData;
+import lecho.lib.hellocharts.model.PointSeries;
 import lecho.lib.hellocharts.model.PointValue;
 import lecho.lib.hellocharts.model.SelectedValue.SelectedValueType;
 import lecho.lib.hellocharts.model.ValueShape;
@@ -25,10 +31,20 @@ import lecho.lib.hellocharts.view.Chart;
 /**
  * Renderer for line chart. Can draw lines, cubic lines, filled area chart and scattered chart.
  */
-public class LineChartRenderer extends AbstractChartRenderer {
-    private static final float LINE_SMOOTHNESS = 0.16f;
+public class LineChartRenderer extends AbstractChartRenderer implements ViewportYFitter {
     private static final int DEFAULT_LINE_STROKE_WIDTH_DP = 3;
     private static final int DEFAULT_TOUCH_TOLERANCE_MARGIN_DP = 4;
+    /**
+     * Touch area check accepts points within radius * sqrt(2) from touch point.
+     */
+    private static final float SQRT_2 = (float) Math.sqrt(2);
+
+    /**
+     * Fraction of viewport width added to cached paths on both sides, chart can be scrolled by that distance before
+     * paths have to be built again. It covers several frames of a fast fling while paths are only 1.5 times as wide as
+     * content.
+     */
+    private static final float PATH_MARGIN = 0.25f;
 
     private static final int MODE_DRAW = 0;
     private static final int MODE_HIGHLIGHT = 1;
@@ -40,13 +56,92 @@ public class LineChartRenderer extends AbstractChartRenderer {
     private float baseValue;
 
     private int touchToleranceMargin;
-    private Path path = new Path();
+    /**
+     * Templates of paints compiled for every line, see {@link #lineStates}.
+     */
     private Paint linePaint = new Paint();
     private Paint pointPaint = new Paint();
+    /**
+     * Compiled styles of lines by line index, compiled when chart data is set. Only the first {@link #lineStatesCount}
+     * states are current.
+     */
+    private LineRenderState[] lineStates = new LineRenderState[0];
+    private int lineStatesCount;
 
-    private Bitmap softwareBitmap;
-    private Canvas softwareCanvas = new Canvas();
+    /**
+     * If true lines are drawn into full size software bitmap which is then drawn on view canvas, if false they are drawn
+     * directly on view canvas.
+     */
+    private boolean isSoftwareBufferEnabled = true;
+    private SoftwareBuffer softwareBuffer = new SoftwareBuffer();
     private Viewport tempMaximumViewport = new Viewport();
+    /**
+     * Standalone value passed to value formatter when drawing labels, reused to avoid creating views of series points.
+     */
+    private PointValue labelValue = new PointValue();
+    /**
+     * Index of the first point to process and index after the last point to process, calculated by
+     * {@link #calculateVisibleRange(PointSeries, int)}.
+     */
+    private int visibleFrom;
+    private int visibleTo;
+    private boolean isViewportAutoFitYEnabled = false;
+    /**
+     * Pixel coordinates of visible points as interleaved X and Y values, reused between frames.
+     */
+    private float[] rawPoints = new float[0];
+    /**
+     * Builds paths of front frame on the UI thread.
+     */
+    private LinePathBuilder pathBuilder = new LinePathBuilder();
+    /**
+     * Executor for geometry preparation or null if paths are built in {@link #draw(Canvas)}.
+     */
+    private Executor geometryExecutor;
+    /**
+     * Builds paths of back frame. It copies points on the UI thread when frame is requested and builds paths on
+     * executor thread, never both at the same time.
+     */
+    private LinePathBuilder backgroundPathBuilder = new LinePathBuilder();
+    /**
+     * Frame drawn by {@link #draw(Canvas)}, it is kept between draws and reused while chart is scrolled. Back frame is
+     * prepared by geometry executor, frames are swapped on the UI thread when back frame is ready.
+     */
+    private LineFrame frontFrame = new LineFrame();
+    private LineFrame backFrame = new LineFrame();
+    private boolean isFramePending;
+    /**
+     * Incremented when chart data is set, line settings are read only then.
+     */
+    private int dataVersion;
+    private Handler handler;
+    private final Runnable prepareFrameRunnable = new Runnable() {
+        @Override
+        public void run() {
+            // Frame reads only points copied when it was recorded, lines can change on the UI thread meanwhile.
+            backFrame.build(backgroundPathBuilder);
+            handler.post(swapFramesRunnable);
+        }
+    };
+    private final Runnable swapFramesRunnable = new Runnable() {
+        @Override
+        public void run() {
+            isFramePending = false;
+            if (null == geometryExecutor) {
+                backFrame.clear();
+                return;
+            }
+            final List<Line> lines = dataProvider.getLineChartData().getLines();
+            if (backFrame.isReady && backFrame.dataVersion == dataVersion && backFrame.isDataCurrent(lines)) {
+                final LineFrame frame = frontFrame;
+                frontFrame = backFrame;
+                backFrame = frame;
+            }
+            if (chart instanceof View) {
+                ((View) chart).invalidate();
+            }
+        }
+    };
 
     public LineChartRenderer(Context context, Chart chart, LineChartDataProvider dataProvider) {
         super(context, chart);
@@ -66,28 +161,55 @@ public class LineChartRenderer extends AbstractChartRenderer {
 
     }
 
+    @Override
+    public void resetRenderer() {
+        super.resetRenderer();
+        computator.setViewportYFitter(isViewportAutoFitYEnabled ? this : null);
+    }
+
     public void onChartSizeChanged() {
         final int internalMargin = calculateContentRectInternalMargin();
         computator.insetContentRectByInternalMargins(internalMargin, internalMargin,
                 internalMargin, internalMargin);
-        if (computator.getChartWidth() > 0 && computator.getChartHeight() > 0) {
-            softwareBitmap = Bitmap.createBitmap(computator.getChartWidth(), computator.getChartHeight(),
-                    Bitmap.Config.ARGB_8888);
-            softwareCanvas.setBitmap(softwareBitmap);
-        }
+        updateSoftwareBuffer();
     }
 
     @Override
     public void onChartDataChanged() {
         super.onChartDataChanged();
+        final List<Line> lines = dataProvider.getLineChartData().getLines();
+        for (int i = 0; i < lineStatesCount; ++i) {
+            // Values of removed lines are often put into new lines, release them so new lines bind them.
+            final Line previousLine = lineStates[i].line;
+            if (!lines.contains(previousLine)) {
+                previousLine.releaseValues();
+            }
+        }
+        for (Line line : lines) {
+            line.syncSeries();
+            if (!DecimationMode.NONE.equals(line.getDecimationMode())) {
+                // Decimation reads pyramid when many points are visible, build it now instead of during first frame,
+                // later it is updated when points are appended.
+                line.getSeries().getPyramid().build();
+            }
+        }
         final int internalMargin = calculateContentRectInternalMargin();
         computator.insetContentRectByInternalMargins(internalMargin, internalMargin,
                 internalMargin, internalMargin);
         baseValue = dataProvider.getLineChartData().getBaseValue();
+        compileRenderStates();
+        ++dataVersion;
 
         onChartViewportChanged();
     }
 
+    @Override
+    public void onChartDataAppended() {
+        // Points could be evicted from circular series so selected index may point to other value now.
+        selectedValue.clear();
+        onChartViewportChanged();
+    }
+
     @Override
     public void onChartViewportChanged() {
         if (isViewportCalculationEnabled) {
@@ -97,47 +219,36 @@ public class LineChartRenderer extends AbstractChartRenderer {
         }
     }
 
+    @Override
+    public void onChartDetachedFromWindow() {
+        softwareBuffer.release();
+    }
+
     @Override
     public void draw(Canvas canvas) {
         final LineChartData data = dataProvider.getLineChartData();
 
-        final Canvas drawCanvas;
-
-        // softwareBitmap can be null if chart is rendered in layout editor. In that case use default canvas and not
-        // softwareCanvas.
-        if (null != softwareBitmap) {
-            drawCanvas = softwareCanvas;
-            drawCanvas.drawColor(Color.TRANSPARENT, Mode.CLEAR);
-        } else {
-            drawCanvas = canvas;
-        }
+        // Buffer is borrowed again if it was returned when chart was detached from window. There is no buffer if it is
+        // disabled or if chart is rendered in layout editor, in that case use default canvas.
+        final boolean isBuffered = isSoftwareBufferEnabled
+                && softwareBuffer.prepare(computator.getChartWidth(), computator.getChartHeight());
+        final Canvas drawCanvas = isBuffered ? softwareBuffer.beginDraw() : canvas;
 
-        for (Line line : data.getLines()) {
-            if (line.hasLines()) {
-                if (line.isCubic()) {
-                    drawSmoothPath(drawCanvas, line);
-                } else if (line.isSquare()) {
-                    drawSquarePath(drawCanvas, line);
-                } else {
-                    drawPath(drawCanvas, line);
-                }
-            }
-        }
+        drawFrame(drawCanvas, data);
 
-        if (null != softwareBitmap) {
-            canvas.drawBitmap(softwareBitmap, 0, 0, null);
+        if (isBuffered) {
+            softwareBuffer.endDraw(canvas);
         }
     }
 
     @Override
     public void drawUnclipped(Canvas canvas) {
-        final LineChartData data = dataProvider.getLineChartData();
-        int lineIndex = 0;
-        for (Line line : data.getLines()) {
+        final List<Line> lines = dataProvider.getLineChartData().getLines();
+        for (int lineIndex = 0, size = lines.size(); lineIndex < size; ++lineIndex) {
+            final Line line = lines.get(lineIndex);
             if (checkIfShouldDrawPoints(line)) {
                 drawPoints(canvas, line, lineIndex, MODE_DRAW);
             }
-            ++lineIndex;
         }
         if (isTouched()) {
             // Redraw touched point to bring it to the front
@@ -146,52 +257,205 @@ public class LineChartRenderer extends AbstractChartRenderer {
     }
 
     private boolean checkIfShouldDrawPoints(Line line) {
-        return line.hasPoints() || line.getValues().size() == 1;
+        return line.hasPoints() || line.getSeries().size() == 1;
     }
 
     @Override
     public boolean checkTouch(float touchX, float touchY) {
         selectedValue.clear();
         final LineChartData data = dataProvider.getLineChartData();
-        int lineIndex = 0;
-        for (Line line : data.getLines()) {
-            if (checkIfShouldDrawPoints(line)) {
-                int pointRadius = ChartUtils.dp2px(density, line.getPointRadius());
-                int valueIndex = 0;
-                for (PointValue pointValue : line.getValues()) {
-                    final float rawValueX = computator.computeRawX(pointValue.getX());
-                    final float rawValueY = computator.computeRawY(pointValue.getY());
-                    if (isInArea(rawValueX, rawValueY, touchX, touchY, pointRadius + touchToleranceMargin)) {
-                        selectedValue.set(lineIndex, valueIndex, SelectedValueType.LINE);
-                    }
-                    ++valueIndex;
+        final Rect contentRect = computator.getContentRectMinusAllMargins();
+        if (contentRect.width() <= 0 || contentRect.height() <= 0) {
+            return false;
+        }
+        final Viewport viewport = computator.getCurrentViewport();
+        final float valuesPerPixelX = viewport.width() / contentRect.width();
+        final float valuesPerPixelY = viewport.height() / contentRect.height();
+        final float touchValueX = viewport.left + (touchX - contentRect.left) * valuesPerPixelX;
+        final float touchValueY = viewport.bottom + (contentRect.bottom - touchY) * valuesPerPixelY;
+        final List<Line> lines = data.getLines();
+        for (int lineIndex = 0, size = lines.size(); lineIndex < size; ++lineIndex) {
+            final Line line = lines.get(lineIndex);
+            if (checkIfShouldDrawPoints(line) && !line.getSeries().isEmpty()) {
+                final float radius = getLineState(lineIndex, line).pointRadius + touchToleranceMargin;
+                final int valueIndex;
+                if (line.getSeries().isSortedByX()) {
+                    valueIndex = findTouchedValue(line.getSeries(), touchX, touchY, touchValueX, radius *
+                            SQRT_2 * valuesPerPixelX, radius);
+                } else {
+                    // Touch area is a circle in pixels so it is an ellipse in data space.
+                    valueIndex = line.getSeries().getGrid().findLast(touchValueX, touchValueY, radius * SQRT_2 *
+                            valuesPerPixelX, radius * SQRT_2 * valuesPerPixelY);
+                }
+                if (valueIndex >= 0) {
+                    selectedValue.set(lineIndex, valueIndex, SelectedValueType.LINE);
                 }
             }
-            ++lineIndex;
         }
         return isTouched();
     }
 
-    private void calculateMaxViewport() {
-        tempMaximumViewport.set(Float.MAX_VALUE, Float.MIN_VALUE, Float.MIN_VALUE, Float.MAX_VALUE);
-        LineChartData data = dataProvider.getLineChartData();
+    /**
+     * Returns index of the last touched point of series sorted by X or -1, only points within X range of the touch
+     * area are checked.
+     */
+    private int findTouchedValue(PointSeries series, float touchX, float touchY, float touchValueX,
+                                 float valueRadiusX, float radius) {
+        final int from = series.lowerBound(touchValueX - valueRadiusX);
+        final int to = series.upperBound(touchValueX + valueRadiusX);
+        // Extra point on each side covers rounding errors of pixel to value conversion.
+        for (int valueIndex = Math.min(to, series.size() - 1), first = Math.max(from - 1, 0); valueIndex >= first;
+             --valueIndex) {
+            final float rawValueX = computator.computeRawX(series.getX(valueIndex));
+            final float rawValueY = computator.computeRawY(series.getY(valueIndex));
+            if (isInArea(rawValueX, rawValueY, touchX, touchY, radius)) {
+                return valueIndex;
+            }
+        }
+        return -1;
+    }
 
-        for (Line line : data.getLines()) {
-            // Calculate max and min for viewport.
-            for (PointValue pointValue : line.getValues()) {
-                if (pointValue.getX() < tempMaximumViewport.left) {
-                    tempMaximumViewport.left = pointValue.getX();
-                }
-                if (pointValue.getX() > tempMaximumViewport.right) {
-                    tempMaximumViewport.right = pointValue.getX();
-                }
-                if (pointValue.getY() < tempMaximumViewport.bottom) {
-                    tempMaximumViewport.bottom = pointValue.getY();
-                }
-                if (pointValue.getY() > tempMaximumViewport.top) {
-                    tempMaximumViewport.top = pointValue.getY();
+    @Override
+    public boolean fitViewportY(Viewport viewport) {
+        boolean hasValues = false;
+        float top = 0;
+        float bottom = 0;
+        final List<Line> lines = dataProvider.getLineChartData().getLines();
+        for (int i = 0, size = lines.size(); i < size; ++i) {
+            final PointSeries series = lines.get(i).getSeries();
+            if (series.isEmpty()) {
+                continue;
+            }
+            final float lineTop;
+            final float lineBottom;
+            if (series.isSortedByX()) {
+                final int from = series.lowerBound(viewport.left);
+                final int to = series.upperBound(viewport.right);
+                if (from >= to) {
+                    continue;
                 }
+                lineTop = series.getPyramid().getMaxY(from, to);
+                lineBottom = series.getPyramid().getMinY(from, to);
+            } else {
+                // Visible points of unsorted series can't be found quickly, use bounds of the whole series.
+                lineTop = series.getMaxY();
+                lineBottom = series.getMinY();
+            }
+            if (!hasValues) {
+                top = lineTop;
+                bottom = lineBottom;
+                hasValues = true;
+            } else {
+                top = Math.max(top, lineTop);
+                bottom = Math.min(bottom, lineBottom);
+            }
+        }
+        if (hasValues) {
+            viewport.top = top;
+            viewport.bottom = bottom;
+        }
+        return hasValues;
+    }
 
+    public boolean isViewportAutoFitYEnabled() {
+        return isViewportAutoFitYEnabled;
+    }
+
+    /**
+     * If enabled vertical range of current viewport is fitted to values visible in its horizontal range every time
+     * viewport changes, i.e. during scroll. Visible range is found with binary search and min/max pyramid of every
+     * line so it is fast for big series sorted by X, pyramid costs additional memory. Paths are not cached for scroll
+     * then since vertical range changes with every scroll.
+     */
+    public void setViewportAutoFitYEnabled(boolean isEnabled) {
+        this.isViewportAutoFitYEnabled = isEnabled;
+        computator.setViewportYFitter(isEnabled ? this : null);
+    }
+
+    /**
+     * Returns margin of built paths, without margin if viewport is fitted vertically. Cached frame is valid only for
+     * unchanged vertical range, with auto fit it changes on almost every scroll so margin would be built for nothing.
+     */
+    private float getPathMargin() {
+        return isViewportAutoFitYEnabled ? 0 : PATH_MARGIN;
+    }
+
+    /**
+     * Returns executor used to prepare line geometry or null if geometry is prepared during drawing.
+     */
+    public Executor getGeometryExecutor() {
+        return geometryExecutor;
+    }
+
+    /**
+     * Sets executor used to build line paths outside of the UI thread. Paths are built for the current viewport into
+     * a back frame while {@link #draw(Canvas)} draws the front frame, frames are swapped when the back one is ready.
+     * During scroll or data animation lines can lag one or two frames behind axes and points. Line settings are read
+     * when chart data is set, series can be modified but only on the UI thread. Pass null to build paths during
+     * drawing, that is default.
+     */
+    public void setGeometryExecutor(Executor geometryExecutor) {
+        this.geometryExecutor = geometryExecutor;
+        if (null == geometryExecutor) {
+            frontFrame.clear();
+        } else if (null == handler) {
+            handler = new Handler(Looper.getMainLooper());
+        }
+    }
+
+    /**
+     * @see #setSoftwareBufferEnabled(boolean)
+     */
+    public boolean isSoftwareBufferEnabled() {
+        return isSoftwareBufferEnabled;
+    }
+
+    /**
+     * Set false to draw lines directly on view canvas instead of full size ARGB_8888 bitmap, the bitmap is then not
+     * borrowed from {@link lecho.lib.hellocharts.util.ChartBitmapPool}. Lines don't use PorterDuff modes so result
+     * looks the same. True by default.
+     */
+    public void setSoftwareBufferEnabled(boolean isEnabled) {
+        this.isSoftwareBufferEnabled = isEnabled;
+        updateSoftwareBuffer();
+    }
+
+    /**
+     * Borrows software buffer for current chart size or returns it to the pool if software buffer is disabled.
+     */
+    private void updateSoftwareBuffer() {
+        if (isSoftwareBufferEnabled) {
+            softwareBuffer.prepare(computator.getChartWidth(), computator.getChartHeight());
+        } else {
+            softwareBuffer.release();
+        }
+    }
+
+    private void calculateMaxViewport() {
+        tempMaximumViewport.set(Float.MAX_VALUE, Float.MIN_VALUE, Float.MIN_VALUE, Float.MAX_VALUE);
+        final List<Line> lines = dataProvider.getLineChartData().getLines();
+
+        for (int i = 0, size = lines.size(); i < size; ++i) {
+            // Calculate max and min for viewport, series keeps its bounds so there is no need to iterate over points.
+            final PointSeries series = lines.get(i).getSeries();
+            if (series.isEmpty()) {
+                continue;
+            }
+            final float minX = series.getMinX();
+            final float maxX = series.getMaxX();
+            final float minY = series.getMinY();
+            final float maxY = series.getMaxY();
+            if (minX < tempMaximumViewport.left) {
+                tempMaximumViewport.left = minX;
+            }
+            if (maxX > tempMaximumViewport.right) {
+                tempMaximumViewport.right = maxX;
+            }
+            if (minY < tempMaximumViewport.bottom) {
+                tempMaximumViewport.bottom = minY;
+            }
+            if (maxY > tempMaximumViewport.top) {
+                tempMaximumViewport.top = maxY;
             }
         }
     }
@@ -211,201 +475,178 @@ public class LineChartRenderer extends AbstractChartRenderer {
     }
 
     /**
-     * Draws lines, uses path for drawing filled area on software canvas. Line is drawn with canvas.drawLines() method.
+     * Draws lines from the front frame. If only viewport offset changed since the frame was built it is drawn
+     * translated, otherwise paths are built again or, if geometry executor is set, new frame is requested and outdated
+     * frame is mapped to the current viewport until the new one is ready.
      */
-    private void drawPath(Canvas canvas, final Line line) {
-        prepareLinePaint(line);
-
-        int valueIndex = 0;
-        for (PointValue pointValue : line.getValues()) {
-
-            final float rawX = computator.computeRawX(pointValue.getX());
-            final float rawY = computator.computeRawY(pointValue.getY());
-
-            if (valueIndex == 0) {
-                path.moveTo(rawX, rawY);
-            } else {
-                path.lineTo(rawX, rawY);
+    private void drawFrame(Canvas canvas, LineChartData data) {
+        final List<Line> lines = data.getLines();
+        final Viewport viewport = computator.getVisibleViewport();
+        final Rect contentRect = computator.getContentRectMinusAllMargins();
+        if (!frontFrame.canDraw(lines, viewport, contentRect, baseValue, dataVersion)) {
+            if (null == geometryExecutor || !frontFrame.isReady || !requestFrame(lines)) {
+                pathBuilder.setTransform(computator, getPathMargin());
+                frontFrame.record(lines, getLineStates(lines), pathBuilder, baseValue, dataVersion, false);
+                frontFrame.build(pathBuilder);
             }
-
-            ++valueIndex;
-
         }
 
-        canvas.drawPath(path, linePaint);
-
-        if (line.isFilled()) {
-            drawArea(canvas, line);
+        final int restoreCount = canvas.save();
+        mapFrameToViewport(canvas, frontFrame, viewport, contentRect);
+        for (int i = 0; i < frontFrame.linesCount; ++i) {
+            if (!frontFrame.lines[i].hasLines()) {
+                continue;
+            }
+            final LineRenderState state = frontFrame.states[i];
+            canvas.drawPath(frontFrame.linePaths[i], state.linePaint);
+            if (null != frontFrame.areaPaths[i]) {
+                canvas.drawPath(frontFrame.areaPaths[i], state.getAreaPaint(canvas.getHeight()));
+            }
+            if (null != frameMetrics) {
+                frameMetrics.addPoints(frontFrame.series[i].size(), frontFrame.pathPointCounts[i]);
+            }
         }
-
-        path.reset();
+        canvas.restoreToCount(restoreCount);
     }
 
-    private void drawSquarePath(Canvas canvas, final Line line) {
-        prepareLinePaint(line);
-
-        int valueIndex = 0;
-        float previousRawY = 0;
-        for (PointValue pointValue : line.getValues()) {
-
-            final float rawX = computator.computeRawX(pointValue.getX());
-            final float rawY = computator.computeRawY(pointValue.getY());
-
-            if (valueIndex == 0) {
-                path.moveTo(rawX, rawY);
-            } else {
-                path.lineTo(rawX, previousRawY);
-                path.lineTo(rawX, rawY);
-            }
-
-            previousRawY = rawY;
-
-            ++valueIndex;
-
+    /**
+     * Records current state into back frame and submits it to geometry executor unless other frame is being prepared.
+     * Points are copied while recording so executor thread never reads series that UI thread may modify. Chart is
+     * invalidated when frame is ready and if it is outdated by then the next draw requests another one.
+     *
+     * @return false if executor rejected the frame, it has to be built on the UI thread then
+     */
+    private boolean requestFrame(List<Line> lines) {
+        if (isFramePending) {
+            return true;
         }
-
-        canvas.drawPath(path, linePaint);
-
-        if (line.isFilled()) {
-            drawArea(canvas, line);
+        backgroundPathBuilder.setTransform(computator, getPathMargin());
+        backFrame.record(lines, getLineStates(lines), backgroundPathBuilder, baseValue, dataVersion, true);
+        try {
+            geometryExecutor.execute(prepareFrameRunnable);
+        } catch (RejectedExecutionException e) {
+            // I.e. executor was shut down, frame is not pending so next draw tries again.
+            return false;
         }
-
-        path.reset();
+        // Frames are swapped by handler on this thread, so flag can't be cleared before it is set.
+        isFramePending = true;
+        return true;
     }
 
-    private void drawSmoothPath(Canvas canvas, final Line line) {
-        prepareLinePaint(line);
-
-        final int lineSize = line.getValues().size();
-        float prePreviousPointX = Float.NaN;
-        float prePreviousPointY = Float.NaN;
-        float previousPointX = Float.NaN;
-        float previousPointY = Float.NaN;
-        float currentPointX = Float.NaN;
-        float currentPointY = Float.NaN;
-        float nextPointX = Float.NaN;
-        float nextPointY = Float.NaN;
-
-        for (int valueIndex = 0; valueIndex < lineSize; ++valueIndex) {
-            if (Float.isNaN(currentPointX)) {
-                PointValue linePoint = line.getValues().get(valueIndex);
-                currentPointX = computator.computeRawX(linePoint.getX());
-                currentPointY = computator.computeRawY(linePoint.getY());
-            }
-            if (Float.isNaN(previousPointX)) {
-                if (valueIndex > 0) {
-                    PointValue linePoint = line.getValues().get(valueIndex - 1);
-                    previousPointX = computator.computeRawX(linePoint.getX());
-                    previousPointY = computator.computeRawY(linePoint.getY());
-                } else {
-                    previousPointX = currentPointX;
-                    previousPointY = currentPointY;
-                }
-            }
-
-            if (Float.isNaN(prePreviousPointX)) {
-                if (valueIndex > 1) {
-                    PointValue linePoint = line.getValues().get(valueIndex - 2);
-                    prePreviousPointX = computator.computeRawX(linePoint.getX());
-                    prePreviousPointY = computator.computeRawY(linePoint.getY());
-                } else {
-                    prePreviousPointX = previousPointX;
-                    prePreviousPointY = previousPointY;
-                }
-            }
-
-            // nextPoint is always new one or it is equal currentPoint.
-            if (valueIndex < lineSize - 1) {
-                PointValue linePoint = line.getValues().get(valueIndex + 1);
-                nextPointX = computator.computeRawX(linePoint.getX());
-                nextPointY = computator.computeRawY(linePoint.getY());
-            } else {
-                nextPointX = currentPointX;
-                nextPointY = currentPointY;
-            }
+    /**
+     * Translates canvas so frame built for other viewport or content rect is drawn in the current one. Canvas is never
+     * scaled, that would scale stroke width and area gradient too. Stale frame built for other viewport size is only
+     * aligned at its left bottom corner and drawn until the next frame is ready.
+     */
+    private void mapFrameToViewport(Canvas canvas, LineFrame frame, Viewport viewport, Rect contentRect) {
+        final Viewport frameViewport = frame.viewport;
+        final Rect frameContentRect = frame.contentRect;
+        if (frameViewport.equals(viewport) && frameContentRect.equals(contentRect)) {
+            return;
+        }
+        final float scaleX = contentRect.width() / viewport.width();
+        final float scaleY = contentRect.height() / viewport.height();
+        final float translateX = contentRect.left + (frameViewport.left - viewport.left) * scaleX
+                - frameContentRect.left;
+        final float translateY = contentRect.bottom - (frameViewport.bottom - viewport.bottom) * scaleY
+                - frameContentRect.bottom;
+        canvas.translate(translateX, translateY);
+    }
 
-            if (valueIndex == 0) {
-                // Move to start point.
-                path.moveTo(currentPointX, currentPointY);
-            } else {
-                // Calculate control points.
-                final float firstDiffX = (currentPointX - prePreviousPointX);
-                final float firstDiffY = (currentPointY - prePreviousPointY);
-                final float secondDiffX = (nextPointX - previousPointX);
-                final float secondDiffY = (nextPointY - previousPointY);
-                final float firstControlPointX = previousPointX + (LINE_SMOOTHNESS * firstDiffX);
-                final float firstControlPointY = previousPointY + (LINE_SMOOTHNESS * firstDiffY);
-                final float secondControlPointX = currentPointX - (LINE_SMOOTHNESS * secondDiffX);
-                final float secondControlPointY = currentPointY - (LINE_SMOOTHNESS * secondDiffY);
-                path.cubicTo(firstControlPointX, firstControlPointY, secondControlPointX, secondControlPointY,
-                        currentPointX, currentPointY);
+    /**
+     * Compiles styles of all lines, called when chart data is set.
+     */
+    private void compileRenderStates() {
+        final List<Line> lines = dataProvider.getLineChartData().getLines();
+        final int linesCount = lines.size();
+        if (lineStates.length < linesCount) {
+            // States are reused by line index, new ones are created only for more lines than chart ever had.
+            final int previousLength = lineStates.length;
+            lineStates = Arrays.copyOf(lineStates, linesCount);
+            for (int i = previousLength; i < linesCount; ++i) {
+                lineStates[i] = new LineRenderState();
             }
-
-            // Shift values by one back to prevent recalculation of values that have
-            // been already calculated.
-            prePreviousPointX = previousPointX;
-            prePreviousPointY = previousPointY;
-            previousPointX = currentPointX;
-            previousPointY = currentPointY;
-            currentPointX = nextPointX;
-            currentPointY = nextPointY;
         }
+        for (int i = 0; i < linesCount; ++i) {
+            lineStates[i].compile(lines.get(i), linePaint, pointPaint, density);
+        }
+        lineStatesCount = linesCount;
+    }
 
-        canvas.drawPath(path, linePaint);
-        if (line.isFilled()) {
-            drawArea(canvas, line);
+    /**
+     * Returns compiled styles of given lines, styles are compiled again if lines were replaced without setting chart
+     * data.
+     */
+    private LineRenderState[] getLineStates(List<Line> lines) {
+        final int linesCount = lines.size();
+        boolean isCurrent = lineStatesCount == linesCount;
+        for (int i = 0; isCurrent && i < linesCount; ++i) {
+            isCurrent = lineStates[i].line == lines.get(i);
+        }
+        if (!isCurrent) {
+            compileRenderStates();
         }
-        path.reset();
+        return lineStates;
     }
 
-    private void prepareLinePaint(final Line line) {
-        linePaint.setStrokeWidth(ChartUtils.dp2px(density, line.getStrokeWidth()));
-        linePaint.setColor(line.getColor());
-        linePaint.setPathEffect(line.getPathEffect());
-        linePaint.setShader(null);
+    private LineRenderState getLineState(int lineIndex, Line line) {
+        if (lineIndex >= lineStatesCount || lineStates[lineIndex].line != line) {
+            compileRenderStates();
+        }
+        return lineStates[lineIndex];
     }
 
     // TODO Drawing points can be done in the same loop as drawing lines but it
     // may cause problems in the future with
     // implementing point styles.
     private void drawPoints(Canvas canvas, Line line, int lineIndex, int mode) {
-        pointPaint.setColor(line.getPointColor());
-        int valueIndex = 0;
-        for (PointValue pointValue : line.getValues()) {
-            int pointRadius = ChartUtils.dp2px(density, line.getPointRadius());
-            final float rawX = computator.computeRawX(pointValue.getX());
-            final float rawY = computator.computeRawY(pointValue.getY());
+        final LineRenderState state = getLineState(lineIndex, line);
+        final int pointRadius = state.pointRadius;
+        final PointSeries series = line.getSeries();
+        calculateVisibleRange(series, checkPrecision);
+        final int count = visibleTo - visibleFrom;
+        if (rawPoints.length < count * 2) {
+            rawPoints = new float[count * 2];
+        }
+        series.getPoints(visibleFrom, visibleTo, rawPoints);
+        computator.computeRawPoints(rawPoints, 0, count, rawPoints);
+        int drawnCount = 0;
+        for (int valueIndex = visibleFrom; valueIndex < visibleTo; ++valueIndex) {
+            final float rawX = rawPoints[(valueIndex - visibleFrom) * 2];
+            final float rawY = rawPoints[(valueIndex - visibleFrom) * 2 + 1];
             if (computator.isWithinContentRect(rawX, rawY, checkPrecision)) {
                 // Draw points only if they are within contentRectMinusAllMargins, using contentRectMinusAllMargins
                 // instead of viewport to avoid some
                 // float rounding problems.
                 if (MODE_DRAW == mode) {
-                    drawPoint(canvas, line, pointValue, rawX, rawY, pointRadius);
+                    drawPoint(canvas, line, rawX, rawY, pointRadius, state.pointPaint);
+                    ++drawnCount;
                     if (line.hasLabels()) {
-                        drawLabel(canvas, line, pointValue, rawX, rawY, pointRadius + labelOffset);
+                        drawLabel(canvas, line, valueIndex, rawX, rawY, pointRadius + labelOffset);
                     }
                 } else if (MODE_HIGHLIGHT == mode) {
-                    highlightPoint(canvas, line, pointValue, rawX, rawY, lineIndex, valueIndex);
+                    highlightPoint(canvas, line, state, rawX, rawY, lineIndex, valueIndex);
                 } else {
                     throw new IllegalStateException("Cannot process points in mode: " + mode);
                 }
             }
-            ++valueIndex;
+        }
+        if (MODE_DRAW == mode && null != frameMetrics) {
+            frameMetrics.addPoints(series.size(), drawnCount);
         }
     }
 
-    private void drawPoint(Canvas canvas, Line line, PointValue pointValue, float rawX, float rawY,
-                           float pointRadius) {
+    private void drawPoint(Canvas canvas, Line line, float rawX, float rawY, float pointRadius, Paint paint) {
         if (ValueShape.SQUARE.equals(line.getShape())) {
             canvas.drawRect(rawX - pointRadius, rawY - pointRadius, rawX + pointRadius, rawY + pointRadius,
-                    pointPaint);
+                    paint);
         } else if (ValueShape.CIRCLE.equals(line.getShape())) {
-            canvas.drawCircle(rawX, rawY, pointRadius, pointPaint);
+            canvas.drawCircle(rawX, rawY, pointRadius, paint);
         } else if (ValueShape.DIAMOND.equals(line.getShape())) {
             canvas.save();
             canvas.rotate(45, rawX, rawY);
             canvas.drawRect(rawX - pointRadius, rawY - pointRadius, rawX + pointRadius, rawY + pointRadius,
-                    pointPaint);
+                    paint);
             canvas.restore();
         } else {
             throw new IllegalArgumentException("Invalid point shape: " + line.getShape());
@@ -418,20 +659,20 @@ public class LineChartRenderer extends AbstractChartRenderer {
         drawPoints(canvas, line, lineIndex, MODE_HIGHLIGHT);
     }
 
-    private void highlightPoint(Canvas canvas, Line line, PointValue pointValue, float rawX, float rawY, int lineIndex,
+    private void highlightPoint(Canvas canvas, Line line, LineRenderState state, float rawX, float rawY, int lineIndex,
                                 int valueIndex) {
         if (selectedValue.getFirstIndex() == lineIndex && selectedValue.getSecondIndex() == valueIndex) {
-            int pointRadius = ChartUtils.dp2px(density, line.getPointRadius());
-            pointPaint.setColor(line.getDarkenColor());
-            drawPoint(canvas, line, pointValue, rawX, rawY, pointRadius + touchToleranceMargin);
+            final int pointRadius = state.pointRadius;
+            drawPoint(canvas, line, rawX, rawY, pointRadius + touchToleranceMargin, state.darkenPaint);
             if (line.hasLabels() || line.hasLabelsOnlyForSelected()) {
-                drawLabel(canvas, line, pointValue, rawX, rawY, pointRadius + labelOffset);
+                drawLabel(canvas, line, valueIndex, rawX, rawY, pointRadius + labelOffset);
             }
         }
     }
 
-    private void drawLabel(Canvas canvas, Line line, PointValue pointValue, float rawX, float rawY, float offset) {
+    private void drawLabel(Canvas canvas, Line line, int valueIndex, float rawX, float rawY, float offset) {
         final Rect contentRect = computator.getContentRectMinusAllMargins();
+        final PointValue pointValue = line.getSeries().getValue(valueIndex, labelValue);
         final int numChars = line.getFormatter().formatChartValue(labelBuffer, pointValue);
         if (numChars == 0) {
             // No need to draw empty label
@@ -476,39 +717,35 @@ public class LineChartRenderer extends AbstractChartRenderer {
                 line.getDarkenColor());
     }
 
-    private void drawArea(Canvas canvas, Line line) {
-        final int lineSize = line.getValues().size();
-        if (lineSize < 2) {
-            //No point to draw area for one point or empty line.
+    /**
+     * Finds range of points visible in current viewport and stores it in {@link #visibleFrom} and {@link #visibleTo}.
+     * For series sorted by X binary search is used and range includes one neighbour on each side so line segments
+     * crossing viewport edges are drawn, for other series range covers all points.
+     *
+     * @param pixelMargin additional margin in pixels added to viewport on both sides
+     */
+    private void calculateVisibleRange(PointSeries series, int pixelMargin) {
+        final int lineSize = series.size();
+        visibleFrom = 0;
+        visibleTo = lineSize;
+        if (lineSize < 3 || !series.isSortedByX()) {
             return;
         }
-
-        final Rect contentRect = computator.getContentRectMinusAllMargins();
-        final float baseRawValue = Math.min(contentRect.bottom, Math.max(computator.computeRawY(baseValue),
-                contentRect.top));
-        //That checks works only if the last point is the right most one.
-        final float left = Math.max(computator.computeRawX(line.getValues().get(0).getX()), contentRect.left);
-        final float right = Math.min(computator.computeRawX(line.getValues().get(lineSize - 1).getX()),
-                contentRect.right);
-
-        path.lineTo(right, baseRawValue);
-        path.lineTo(left, baseRawValue);
-        path.close();
-
-        linePaint.setStyle(Paint.Style.FILL);
-        linePaint.setAlpha(line.getAreaTransparency());
-        linePaint.setShader(line.getGradientToTransparent() ?
-                new LinearGradient(0, 0, 0, canvas.getHeight(), line.getColor(),
-                        line.getColor() & 0x00ffffff, Shader.TileMode.MIRROR) :
-                null);
-        canvas.drawPath(path, linePaint);
-        linePaint.setStyle(Paint.Style.STROKE);
+        // Visible viewport is not equal to current viewport for preview charts.
+        final Viewport viewport = computator.getVisibleViewport();
+        final int contentWidth = computator.getContentRectMinusAllMargins().width();
+        float margin = 0;
+        if (pixelMargin > 0 && contentWidth > 0) {
+            margin = pixelMargin * viewport.width() / contentWidth;
+        }
+        visibleFrom = Math.max(0, series.lowerBound(viewport.left - margin) - 1);
+        visibleTo = Math.min(lineSize, series.upperBound(viewport.right + margin) + 1);
     }
 
     private boolean isInArea(float x, float y, float touchX, float touchY, float radius) {
         float diffX = touchX - x;
         float diffY = touchY - y;
-        return Math.pow(diffX, 2) + Math.pow(diffY, 2) <= 2 * Math.pow(radius, 2);
+        return diffX * diffX + diffY * diffY <= 2 * radius * radius;
     }
 
 }
@@ -0,0 +1,240 @@
+package lecho.lib.hellocharts.renderer;
+
+import android.graphics.Path;
+import android.graphics.Rect;
+
+import java.util.Arrays;
+import java.util.List;
+
+import lecho.lib.hellocharts.model.DecimationMode;
+import lecho.lib.hellocharts.model.Line;
+import lecho.lib.hellocharts.model.PointSeries;
+import lecho.lib.hellocharts.model.Viewport;
+
+/**
+ * Prepared pixel space geometry of all lines of LineChart for one viewport. Besides paths frame remembers state it
+ * was built for: viewport, content rect, line settings, data version and modification counts of series, so renderer
+ * can check if frame can still be drawn. Frame built on other thread copies points when it is recorded and is built
+ * only from the copies and recorded settings, lines can be modified on the UI thread in the meantime. Paths cover wider X range than viewport so frame stays valid while chart is
+ * scrolled horizontally and it is drawn translated, zoom, size or data change requires new frame.
+ */
+class LineFrame {
+    /**
+     * Maximum relative difference of viewport size for which frame is drawn translated instead of rebuilt, scroll
+     * changes viewport size by float rounding errors.
+     */
+    private static final float SIZE_TOLERANCE = 1e-5f;
+    private static final int FLAG_LINES = 1;
+    private static final int FLAG_CUBIC = 1 << 1;
+    private static final int FLAG_SQUARE = 1 << 2;
+    private static final int FLAG_FILLED = 1 << 3;
+
+    /**
+     * Visible viewport and content rect at the moment frame was recorded, path coordinates are relative to them.
+     */
+    final Viewport viewport = new Viewport();
+    final Rect contentRect = new Rect();
+    /**
+     * Viewport covered by paths.
+     */
+    final Viewport pathViewport = new Viewport();
+    float baseValue;
+    int dataVersion;
+    int linesCount;
+    Line[] lines = new Line[0];
+    /**
+     * Compiled styles of recorded lines, after chart data changed outdated frame is drawn with styles compiled again
+     * for the same line index.
+     */
+    LineRenderState[] states = new LineRenderState[0];
+    PointSeries[] series = new PointSeries[0];
+    int[] modificationCounts = new int[0];
+    /**
+     * Line settings that affect paths, see {@link #getLineFlags(Line)}.
+     */
+    int[] lineFlags = new int[0];
+    DecimationMode[] decimationModes = new DecimationMode[0];
+    int[] decimationTargets = new int[0];
+    /**
+     * Series paths are built from, series of lines or copies of their points.
+     */
+    PointSeries[] sources = new PointSeries[0];
+    /**
+     * Decimation used to build paths, copied points are already decimated.
+     */
+    DecimationMode[] buildModes = new DecimationMode[0];
+    /**
+     * Copies of points owned by this frame, reused between recordings.
+     */
+    PointSeries[] copies = new PointSeries[0];
+    Path[] linePaths = new Path[0];
+    /**
+     * Closed area paths, entry is null if line is not filled or has less than 2 visible points.
+     */
+    Path[] areaPaths = new Path[0];
+    Path[] areaPathsPool = new Path[0];
+    /**
+     * Number of points in line paths after culling and decimation.
+     */
+    int[] pathPointCounts = new int[0];
+    /**
+     * True if paths were built for the recorded state.
+     */
+    boolean isReady;
+
+    /**
+     * Records state for which frame will be built, must be called on the UI thread after transform of path builder
+     * was set.
+     *
+     * @param states     compiled styles of given lines by line index
+     * @param copyPoints true if frame will be built on other thread, points needed by paths are copied then
+     */
+    void record(List<Line> lines, LineRenderState[] states, LinePathBuilder pathBuilder, float baseValue,
+                int dataVersion, boolean copyPoints) {
+        isReady = false;
+        this.viewport.set(pathBuilder.getViewport());
+        this.contentRect.set(pathBuilder.getContentRect());
+        this.pathViewport.set(pathBuilder.getPathViewport());
+        this.baseValue = baseValue;
+        this.dataVersion = dataVersion;
+        linesCount = lines.size();
+        if (this.lines.length < linesCount) {
+            this.lines = new Line[linesCount];
+            this.states = new LineRenderState[linesCount];
+            series = new PointSeries[linesCount];
+            modificationCounts = new int[linesCount];
+            lineFlags = new int[linesCount];
+            decimationModes = new DecimationMode[linesCount];
+            decimationTargets = new int[linesCount];
+            sources = new PointSeries[linesCount];
+            buildModes = new DecimationMode[linesCount];
+            copies = Arrays.copyOf(copies, linesCount);
+            linePaths = Arrays.copyOf(linePaths, linesCount);
+            areaPaths = new Path[linesCount];
+            areaPathsPool = Arrays.copyOf(areaPathsPool, linesCount);
+            pathPointCounts = new int[linesCount];
+        }
+        for (int i = 0; i < linesCount; ++i) {
+            final Line line = lines.get(i);
+            this.lines[i] = line;
+            this.states[i] = states[i];
+            series[i] = line.getSeries();
+            modificationCounts[i] = line.getSeries().getModificationCount();
+            lineFlags[i] = getLineFlags(line);
+            decimationModes[i] = line.getDecimationMode();
+            decimationTargets[i] = line.getDecimationTarget();
+            if (!copyPoints || !line.hasLines()) {
+                sources[i] = series[i];
+                buildModes[i] = decimationModes[i];
+                continue;
+            }
+            if (null == copies[i]) {
+                copies[i] = new PointSeries();
+            }
+            pathBuilder.copyPathPoints(line, copies[i]);
+            buildModes[i] = DecimationMode.NONE;
+            sources[i] = copies[i];
+        }
+    }
+
+    /**
+     * Returns true if frame was built and can be drawn for given state, possibly translated, without rebuilding
+     * paths.
+     */
+    boolean canDraw(List<Line> lines, Viewport viewport, Rect contentRect, float baseValue, int dataVersion) {
+        if (!isReady || this.dataVersion != dataVersion || this.baseValue != baseValue
+                || !this.contentRect.equals(contentRect)) {
+            return false;
+        }
+        final float width = this.viewport.width();
+        final float height = this.viewport.height();
+        if (Math.abs(viewport.width() - width) > Math.abs(width) * SIZE_TOLERANCE
+                || Math.abs(viewport.top - this.viewport.top) > Math.abs(height) * SIZE_TOLERANCE
+                || Math.abs(viewport.bottom - this.viewport.bottom) > Math.abs(height) * SIZE_TOLERANCE
+                || viewport.left < pathViewport.left || viewport.right > pathViewport.right) {
+            return false;
+        }
+        return isDataCurrent(lines);
+    }
+
+    /**
+     * Returns true if lines, their settings and their series didn't change since frame was recorded.
+     */
+    boolean isDataCurrent(List<Line> lines) {
+        if (linesCount != lines.size()) {
+            return false;
+        }
+        for (int i = 0; i < linesCount; ++i) {
+            final Line line = lines.get(i);
+            if (this.lines[i] != line || series[i] != line.getSeries()
+                    || modificationCounts[i] != series[i].getModificationCount()
+                    || lineFlags[i] != getLineFlags(line) || decimationModes[i] != line.getDecimationMode()
+                    || decimationTargets[i] != line.getDecimationTarget()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builds paths for recorded lines, can be called on any thread as long as builder is not used by other thread.
+     * Only recorded settings and {@link #sources} are read, lines are not touched.
+     */
+    void build(LinePathBuilder pathBuilder) {
+        for (int i = 0; i < linesCount; ++i) {
+            if (null == linePaths[i]) {
+                linePaths[i] = new Path();
+            }
+            final Path linePath = linePaths[i];
+            linePath.reset();
+            areaPaths[i] = null;
+            pathPointCounts[i] = 0;
+            final int flags = lineFlags[i];
+            if ((flags & FLAG_LINES) == 0) {
+                continue;
+            }
+            pathPointCounts[i] = pathBuilder.buildLinePath(sources[i], (flags & FLAG_CUBIC) != 0,
+                    (flags & FLAG_SQUARE) != 0, buildModes[i], decimationTargets[i], linePath);
+            if ((flags & FLAG_FILLED) != 0) {
+                if (null == areaPathsPool[i]) {
+                    areaPathsPool[i] = new Path();
+                }
+                final Path areaPath = areaPathsPool[i];
+                areaPath.set(linePath);
+                if (pathBuilder.closeArea(areaPath, baseValue)) {
+                    areaPaths[i] = areaPath;
+                }
+            }
+        }
+        isReady = true;
+    }
+
+    /**
+     * Drops references to lines so they can be garbage collected.
+     */
+    void clear() {
+        isReady = false;
+        Arrays.fill(lines, null);
+        Arrays.fill(states, null);
+        Arrays.fill(series, null);
+        Arrays.fill(sources, null);
+        linesCount = 0;
+    }
+
+    private static int getLineFlags(Line line) {
+        int flags = 0;
+        if (line.hasLines()) {
+            flags |= FLAG_LINES;
+        }
+        if (line.isCubic()) {
+            flags |= FLAG_CUBIC;
+        }
+        if (line.isSquare()) {
+            flags |= FLAG_SQUARE;
+        }
+        if (line.isFilled()) {
+            flags |= FLAG_FILLED;
+        }
+        return flags;
+    }
+}
@@ -0,0 +1,320 @@
+package lecho.lib.hellocharts.renderer;
+
+import android.graphics.Path;
+import android.graphics.Rect;
+
+import lecho.lib.hellocharts.computator.ChartComputator;
+import lecho.lib.hellocharts.model.DecimationMode;
+import lecho.lib.hellocharts.model.Line;
+import lecho.lib.hellocharts.model.PointSeries;
+import lecho.lib.hellocharts.model.Viewport;
+import lecho.lib.hellocharts.util.DecimationUtils;
+
+/**
+ * Builds pixel space paths for lines of LineChart. Viewport and content rect are copied from computator by
+ * {@link #setTransform(ChartComputator, float)} and the builder doesn't touch computator later, so one builder
+ * instance can prepare geometry on a background thread while chart is scrolled on the UI thread. Builder is not thread
+ * safe, every thread needs its own instance.
+ * <p/>
+ * Paths can cover wider X range than visible viewport, pixel coordinates are still relative to the visible viewport so
+ * such paths can be translated when chart is scrolled.
+ */
+class LinePathBuilder {
+    private static final float LINE_SMOOTHNESS = 0.16f;
+
+    private final Viewport viewport = new Viewport();
+    private final Rect contentRect = new Rect();
+    /**
+     * Viewport covered by built paths, visible viewport extended horizontally by margin.
+     */
+    private final Viewport pathViewport = new Viewport();
+    /**
+     * Width of {@link #pathViewport} in pixels, used as number of columns for decimation.
+     */
+    private int pathWidth;
+    private float scaleX;
+    private float scaleY;
+    /**
+     * Series with visible points of the last built line and visible range within it.
+     */
+    private PointSeries pathSeries;
+    private int visibleFrom;
+    private int visibleTo;
+    /**
+     * Pixel coordinates of points of the path being built as interleaved X and Y values.
+     */
+    private float[] rawPoints = new float[0];
+    /**
+     * Holds visible points after decimation, reused between frames.
+     */
+    private PointSeries decimatedSeries = new PointSeries();
+    /**
+     * Holds points read from series pyramid when decimation works on many visible points per output point.
+     */
+    private PointSeries pyramidSeries = new PointSeries();
+
+    /**
+     * Copies visible viewport and content rect from computator, paths built later use that state.
+     *
+     * @param margin fraction of visible viewport width added to paths on both sides, limited by maximum viewport
+     */
+    public void setTransform(ChartComputator computator, float margin) {
+        viewport.set(computator.getVisibleViewport());
+        contentRect.set(computator.getContentRectMinusAllMargins());
+        scaleX = contentRect.width() / viewport.width();
+        scaleY = contentRect.height() / viewport.height();
+
+        final Viewport maxViewport = computator.getMaximumViewport();
+        final float marginX = viewport.width() * margin;
+        pathViewport.set(viewport);
+        pathViewport.left = Math.max(Math.min(maxViewport.left, viewport.left), viewport.left - marginX);
+        pathViewport.right = Math.min(Math.max(maxViewport.right, viewport.right), viewport.right + marginX);
+        pathWidth = Math.round(pathViewport.width() * scaleX);
+    }
+
+    public Viewport getViewport() {
+        return viewport;
+    }
+
+    public Rect getContentRect() {
+        return contentRect;
+    }
+
+    public Viewport getPathViewport() {
+        return pathViewport;
+    }
+
+    /**
+     * Same as {@link ChartComputator#computeRawX(float)} for the copied state, paths are translated in bulk like by
+     * {@link ChartComputator#computeRawPoints(float[], int, int, float[])}.
+     */
+    public float computeRawX(float valueX) {
+        return contentRect.left + (valueX - viewport.left) * scaleX;
+    }
+
+    /**
+     * Same as {@link ChartComputator#computeRawY(float)} for the copied state.
+     */
+    public float computeRawY(float valueY) {
+        return contentRect.bottom - (valueY - viewport.bottom) * scaleY;
+    }
+
+    /**
+     * Appends visible part of given series to the path, straight, square or cubic depending on line settings. Line
+     * settings are passed separately so path can be built from settings and points recorded earlier.
+     *
+     * @return number of points in the path, after decimation
+     */
+    public int buildLinePath(PointSeries series, boolean isCubic, boolean isSquare, DecimationMode decimationMode,
+                             int decimationTarget, Path path) {
+        final PointSeries pathSeries = prepareSeriesForPath(series, decimationMode, decimationTarget);
+        this.pathSeries = pathSeries;
+        if (isCubic) {
+            buildSmoothPath(pathSeries, path);
+        } else if (isSquare) {
+            buildSquarePath(pathSeries, path);
+        } else {
+            buildPath(pathSeries, path);
+        }
+        return visibleTo - visibleFrom;
+    }
+
+    /**
+     * Copies points of given line needed to build its path into given series, so path can be built on other thread
+     * while line is modified on the UI thread. Decimation is done here, with series pyramid it costs as much as its
+     * output and only decimated points are copied, path should be built from the copy without decimation. Line without
+     * decimation draws every visible point so all of them are copied.
+     */
+    public void copyPathPoints(Line line, PointSeries out) {
+        final PointSeries series = prepareSeriesForPath(line.getSeries(), line.getDecimationMode(),
+                line.getDecimationTarget());
+        out.setPoints(series, visibleFrom, visibleTo);
+    }
+
+    /**
+     * Closes path built by the last {@link #buildLinePath} call down to the base value so it can be
+     * filled.
+     *
+     * @return false if line has less than 2 visible points and there is no area to fill
+     */
+    public boolean closeArea(Path path, float baseValue) {
+        if (visibleTo - visibleFrom < 2) {
+            //No point to draw area for one point or empty line.
+            return false;
+        }
+
+        final float baseRawValue = Math.min(contentRect.bottom, Math.max(computeRawY(baseValue), contentRect.top));
+        //That checks works only if the last point is the right most one.
+        final float left = Math.max(computeRawX(pathSeries.getX(visibleFrom)), computeRawX(pathViewport.left));
+        final float right = Math.min(computeRawX(pathSeries.getX(visibleTo - 1)), computeRawX(pathViewport.right));
+
+        path.lineTo(right, baseRawValue);
+        path.lineTo(left, baseRawValue);
+        path.close();
+        return true;
+    }
+
+    private void buildPath(PointSeries series, Path path) {
+        final float[] rawPoints = loadRawPoints(series, visibleFrom, visibleTo);
+        for (int i = 0, end = (visibleTo - visibleFrom) * 2; i < end; i += 2) {
+            if (i == 0) {
+                path.moveTo(rawPoints[i], rawPoints[i + 1]);
+            } else {
+                path.lineTo(rawPoints[i], rawPoints[i + 1]);
+            }
+        }
+    }
+
+    private void buildSquarePath(PointSeries series, Path path) {
+        final float[] rawPoints = loadRawPoints(series, visibleFrom, visibleTo);
+        for (int i = 0, end = (visibleTo - visibleFrom) * 2; i < end; i += 2) {
+            if (i == 0) {
+                path.moveTo(rawPoints[i], rawPoints[i + 1]);
+            } else {
+                path.lineTo(rawPoints[i], rawPoints[i - 1]);
+                path.lineTo(rawPoints[i], rawPoints[i + 1]);
+            }
+        }
+    }
+
+    private void buildSmoothPath(PointSeries series, Path path) {
+        final int lineSize = series.size();
+        // Points outside of visible range are still used to calculate control points so curve shape doesn't change
+        // when chart is scrolled.
+        final int loadFrom = Math.max(0, visibleFrom - 1);
+        final int loadTo = Math.min(lineSize, visibleTo + 1);
+        final float[] rawPoints = loadRawPoints(series, loadFrom, loadTo);
+
+        for (int valueIndex = visibleFrom; valueIndex < visibleTo; ++valueIndex) {
+            final int current = (valueIndex - loadFrom) * 2;
+            final float currentPointX = rawPoints[current];
+            final float currentPointY = rawPoints[current + 1];
+
+            if (valueIndex == visibleFrom) {
+                // Move to start point.
+                path.moveTo(currentPointX, currentPointY);
+                continue;
+            }
+
+            // First point has no previous point and the last one has no next point, current point is used instead.
+            final int previous = current - 2;
+            final int prePrevious = valueIndex > 1 ? current - 4 : previous;
+            final int next = valueIndex < lineSize - 1 ? current + 2 : current;
+            final float previousPointX = rawPoints[previous];
+            final float previousPointY = rawPoints[previous + 1];
+
+            // Calculate control points.
+            final float firstDiffX = (currentPointX - rawPoints[prePrevious]);
+            final float firstDiffY = (currentPointY - rawPoints[prePrevious + 1]);
+            final float secondDiffX = (rawPoints[next] - previousPointX);
+            final float secondDiffY = (rawPoints[next + 1] - previousPointY);
+            final float firstControlPointX = previousPointX + (LINE_SMOOTHNESS * firstDiffX);
+            final float firstControlPointY = previousPointY + (LINE_SMOOTHNESS * firstDiffY);
+            final float secondControlPointX = currentPointX - (LINE_SMOOTHNESS * secondDiffX);
+            final float secondControlPointY = currentPointY - (LINE_SMOOTHNESS * secondDiffY);
+            path.cubicTo(firstControlPointX, firstControlPointY, secondControlPointX, secondControlPointY,
+                    currentPointX, currentPointY);
+        }
+    }
+
+    /**
+     * Copies points from given index range into {@link #rawPoints} and translates them into pixels in one pass.
+     */
+    private float[] loadRawPoints(PointSeries series, int from, int to) {
+        final int count = to - from;
+        if (rawPoints.length < count * 2) {
+            rawPoints = new float[count * 2];
+        }
+        series.getPoints(from, to, rawPoints);
+        final float left = viewport.left;
+        final float bottom = viewport.bottom;
+        final float rawLeft = contentRect.left;
+        final float rawBottom = contentRect.bottom;
+        for (int i = 0, end = count * 2; i < end; i += 2) {
+            rawPoints[i] = rawLeft + (rawPoints[i] - left) * scaleX;
+            rawPoints[i + 1] = rawBottom - (rawPoints[i + 1] - bottom) * scaleY;
+        }
+        return rawPoints;
+    }
+
+    /**
+     * Returns series that should be used to build path for given line and sets visible range for it. If decimation is
+     * enabled for the line visible points are downsampled into {@link #decimatedSeries}.
+     */
+    private PointSeries prepareSeriesForPath(PointSeries series, DecimationMode decimationMode, int decimationTarget) {
+        calculateVisibleRange(series);
+        if (!series.isSortedByX()) {
+            return series;
+        }
+        if (DecimationMode.M4.equals(decimationMode)) {
+            final int columns = pathWidth;
+            // M4 gives up to 4 points per column, it makes no sense for sparse data.
+            if (visibleTo - visibleFrom <= columns * 4) {
+                return series;
+            }
+            final PointSeries source = reduceWithPyramid(series, columns);
+            DecimationUtils.m4(source, visibleFrom, visibleTo, pathViewport.left, pathViewport.right, columns,
+                    decimatedSeries);
+        } else {
+            final int threshold = calculateDecimationThreshold(decimationMode, decimationTarget);
+            if (threshold < 3 || visibleTo - visibleFrom <= threshold) {
+                return series;
+            }
+            final PointSeries source = reduceWithPyramid(series, threshold);
+            DecimationUtils.largestTriangleThreeBuckets(source, visibleFrom, visibleTo, threshold, decimatedSeries);
+        }
+        visibleFrom = 0;
+        visibleTo = decimatedSeries.size();
+        return decimatedSeries;
+    }
+
+    /**
+     * If there are many visible points per output point of decimation, reads visible points from series pyramid level
+     * with buckets not bigger than one output point into {@link #pyramidSeries} and sets visible range for it. Then
+     * decimation costs as much as its output and not as number of visible points. Every bucket keeps its minimum and
+     * maximum so spikes survive this step.
+     *
+     * @return series that should be decimated, given series if there are too few points per output point
+     */
+    private PointSeries reduceWithPyramid(PointSeries series, int outputCount) {
+        final int level = outputCount > 0 ? series.getPyramid().chooseLevel((float) (visibleTo - visibleFrom) /
+                outputCount) : 0;
+        // Level 1 buckets have 2 points and give up to 4, they reduce nothing.
+        if (level <= 1) {
+            return series;
+        }
+        series.getPyramid().decimate(visibleFrom, visibleTo, level, pyramidSeries);
+        visibleFrom = 0;
+        visibleTo = pyramidSeries.size();
+        return pyramidSeries;
+    }
+
+    private int calculateDecimationThreshold(DecimationMode decimationMode, int decimationTarget) {
+        if (DecimationMode.AUTO.equals(decimationMode)) {
+            return pathWidth;
+        } else if (DecimationMode.FIXED.equals(decimationMode)) {
+            if (decimationTarget < 3 || viewport.width() <= 0) {
+                return decimationTarget;
+            }
+            // Target is number of points across visible viewport, path is wider by margins so it gets more points.
+            return Math.round(decimationTarget * pathViewport.width() / viewport.width());
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Finds range of points within path viewport, for series sorted by X range includes one neighbour on each
+     * side so line segments crossing viewport edges are drawn, for other series range covers all points.
+     */
+    private void calculateVisibleRange(PointSeries series) {
+        final int lineSize = series.size();
+        visibleFrom = 0;
+        visibleTo = lineSize;
+        if (lineSize < 3 || !series.isSortedByX()) {
+            return;
+        }
+        visibleFrom = Math.max(0, series.lowerBound(pathViewport.left) - 1);
+        visibleTo = Math.min(lineSize, series.upperBound(pathViewport.right) + 1);
+    }
+}
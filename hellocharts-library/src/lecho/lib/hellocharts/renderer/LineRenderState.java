@@ -0,0 +1,82 @@
+package lecho.lib.hellocharts.renderer;
+
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.Shader;
+
+import lecho.lib.hellocharts.model.Line;
+import lecho.lib.hellocharts.util.ChartUtils;
+
+/**
+ * Line style compiled into paints and pixel sizes when chart data is set, so drawing doesn't convert units or
+ * configure paints. Changes of line settings made later are applied when data is set again.
+ * States are reused between data changes so setting data doesn't allocate paints.
+ */
+class LineRenderState {
+    Line line;
+    int color;
+    final Paint linePaint = new Paint();
+    final Paint areaPaint = new Paint();
+    final Paint pointPaint = new Paint();
+    final Paint darkenPaint = new Paint();
+    int darkenColor;
+    /**
+     * Point radius in pixels.
+     */
+    int pointRadius;
+    private boolean hasGradient;
+    /**
+     * Area gradient and canvas height it was created for, gradient colour is {@link #color}.
+     */
+    private LinearGradient gradient;
+    private int gradientHeight = -1;
+
+    /**
+     * Compiles style of given line into this state, state is reused for the same line index when data changes. Area
+     * gradient is kept if line colour didn't change.
+     *
+     * @param linePaint  template for line paint, with stroke style
+     * @param pointPaint template for point paints, with fill style
+     */
+    void compile(Line line, Paint linePaint, Paint pointPaint, float density) {
+        this.line = line;
+        final int previousColor = color;
+        color = line.getColor();
+        this.linePaint.set(linePaint);
+        this.linePaint.setStrokeWidth(ChartUtils.dp2px(density, line.getStrokeWidth()));
+        this.linePaint.setColor(color);
+        this.linePaint.setPathEffect(line.getPathEffect());
+        this.linePaint.setShader(null);
+
+        areaPaint.set(this.linePaint);
+        areaPaint.setStyle(Paint.Style.FILL);
+        areaPaint.setAlpha(line.getAreaTransparency());
+        hasGradient = line.getGradientToTransparent();
+        if (!hasGradient || previousColor != color) {
+            gradient = null;
+            gradientHeight = -1;
+        }
+        areaPaint.setShader(gradient);
+
+        this.pointPaint.set(pointPaint);
+        this.pointPaint.setColor(line.getPointColor());
+        darkenColor = line.getDarkenColor();
+        darkenPaint.set(pointPaint);
+        darkenPaint.setColor(darkenColor);
+        pointRadius = ChartUtils.dp2px(density, line.getPointRadius());
+    }
+
+    /**
+     * Returns paint for area of filled line. Gradient to transparent spans whole canvas height so it is created again
+     * only when height or line colour changes, steady drawing and setting new data with the same colours doesn't
+     * allocate shaders.
+     */
+    Paint getAreaPaint(int canvasHeight) {
+        if (hasGradient && gradientHeight != canvasHeight) {
+            gradient = new LinearGradient(0, 0, 0, canvasHeight, color, color & 0x00ffffff, Shader.TileMode.MIRROR);
+            gradientHeight = canvasHeight;
+            areaPaint.setShader(gradient);
+        }
+        return areaPaint;
+    }
+}
@@ -1,7 +1,6 @@
 package lecho.lib.hellocharts.renderer;
 
 import android.content.Context;
-import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
@@ -14,6 +13,8 @@ import android.graphics.Rect;
 import android.graphics.RectF;
 import android.text.TextUtils;
 
+import java.util.List;
+
 import lecho.lib.hellocharts.formatter.PieChartValueFormatter;
 import lecho.lib.hellocharts.model.PieChartData;
 import lecho.lib.hellocharts.model.SelectedValue;
@@ -65,13 +66,37 @@ public class PieChartRenderer extends AbstractChartRenderer {
     private PieChartValueFormatter valueFormatter;
     private Viewport tempMaximumViewport = new Viewport();
 
-    private Bitmap softwareBitmap;
-    private Canvas softwareCanvas = new Canvas();
+    /**
+     * If true slices are drawn into full size software bitmap, if false they are drawn directly on view canvas and
+     * offscreen layer is used only for separation lines and center circle which need PorterDuff modes.
+     */
+    private boolean isSoftwareBufferEnabled = true;
+    private SoftwareBuffer softwareBuffer = new SoftwareBuffer();
+    /**
+     * Bounds of offscreen layer used when software buffer is disabled.
+     */
+    private RectF layerBounds = new RectF();
+
+    /**
+     * Start angles of slices without rotation, sliceAngles[i] is start of slice i and sliceAngles[n] is 360 degrees.
+     * Unit vectors of slice starts and middles are also not rotated, rotation is applied with rotationCos and
+     * rotationSin. Table is recalculated only when values change so rotation costs nothing and touch uses binary
+     * search.
+     */
+    private float[] sliceAngles = new float[1];
+    private float[] sliceStartCos = new float[0];
+    private float[] sliceStartSin = new float[0];
+    private float[] sliceMiddleCos = new float[0];
+    private float[] sliceMiddleSin = new float[0];
+    private int slicesCount;
+    private float rotationCos;
+    private float rotationSin;
 
     public PieChartRenderer(Context context, Chart chart, PieChartDataProvider dataProvider) {
         super(context, chart);
         this.dataProvider = dataProvider;
         touchAdditional = ChartUtils.dp2px(density, DEFAULT_TOUCH_ADDITIONAL_DP);
+        setChartRotation(rotation);
 
         slicePaint.setAntiAlias(true);
         slicePaint.setStyle(Paint.Style.FILL);
@@ -96,12 +121,7 @@ public class PieChartRenderer extends AbstractChartRenderer {
     @Override
     public void onChartSizeChanged() {
         calculateCircleOval();
-
-        if (computator.getChartWidth() > 0 && computator.getChartHeight() > 0) {
-            softwareBitmap = Bitmap.createBitmap(computator.getChartWidth(), computator.getChartHeight(),
-                    Bitmap.Config.ARGB_8888);
-            softwareCanvas.setBitmap(softwareBitmap);
-        }
+        updateSoftwareBuffer();
     }
 
     @Override
@@ -133,6 +153,8 @@ public class PieChartRenderer extends AbstractChartRenderer {
 
     @Override
     public void onChartViewportChanged() {
+        // Slices could be modified in place, angle table is cheap so it is recalculated together with viewport.
+        calculateSliceAngles();
         if (isViewportCalculationEnabled) {
             calculateMaxViewport();
             computator.setMaxViewport(tempMaximumViewport);
@@ -140,16 +162,31 @@ public class PieChartRenderer extends AbstractChartRenderer {
         }
     }
 
+    @Override
+    public void onChartDetachedFromWindow() {
+        softwareBuffer.release();
+    }
+
     @Override
     public void draw(Canvas canvas) {
-        // softwareBitmap can be null if chart is rendered in layout editor. In that case use default canvas and not
-        // softwareCanvas.
+        // Buffer is borrowed again if it was returned when chart was detached from window. There is no buffer if it is
+        // disabled or if chart is rendered in layout editor, in that case use default canvas.
+        final boolean isBuffered = isSoftwareBufferEnabled
+                && softwareBuffer.prepare(computator.getChartWidth(), computator.getChartHeight());
         final Canvas drawCanvas;
-        if (null != softwareBitmap) {
-            drawCanvas = softwareCanvas;
-            drawCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+        int layerSaveCount = -1;
+        if (isBuffered) {
+            drawCanvas = softwareBuffer.beginDraw();
         } else {
             drawCanvas = canvas;
+            final int sliceSpacing = calculateSliceSpacing();
+            if (hasCenterCircle || sliceSpacing > 0) {
+                // CLEAR and SRC modes would punch holes through everything drawn below chart, limit them to a layer
+                // that covers only the circle, highlighted slice and separation line caps.
+                layerBounds.set(originCircleOval);
+                layerBounds.inset(-touchAdditional - sliceSpacing, -touchAdditional - sliceSpacing);
+                layerSaveCount = canvas.saveLayer(layerBounds, null);
+            }
         }
 
         drawSlices(drawCanvas);
@@ -157,10 +194,13 @@ public class PieChartRenderer extends AbstractChartRenderer {
         if (hasCenterCircle) {
             drawCenterCircle(drawCanvas);
         }
+        if (layerSaveCount >= 0) {
+            canvas.restoreToCount(layerSaveCount);
+        }
         drawLabels(drawCanvas);
 
-        if (null != softwareBitmap) {
-            canvas.drawBitmap(softwareBitmap, 0, 0, null);
+        if (isBuffered) {
+            softwareBuffer.endDraw(canvas);
         }
     }
 
@@ -190,16 +230,9 @@ public class PieChartRenderer extends AbstractChartRenderer {
         // adding 360
         // and modulo 360 translates i.e -20 degrees to 340 degrees.
         final float touchAngle = (pointToAngle(touchX, touchY, centerX, centerY) - rotation + 360f) % 360f;
-        final float sliceScale = 360f / maxSum;
-        float lastAngle = 0f; // No start angle here, see above
-        int sliceIndex = 0;
-        for (SliceValue sliceValue : data.getValues()) {
-            final float angle = Math.abs(sliceValue.getValue()) * sliceScale;
-            if (touchAngle >= lastAngle) {
-                selectedValue.set(sliceIndex, sliceIndex, SelectedValueType.NONE);
-            }
-            lastAngle += angle;
-            ++sliceIndex;
+        final int sliceIndex = findSlice(touchAngle);
+        if (sliceIndex >= 0) {
+            selectedValue.set(sliceIndex, sliceIndex, SelectedValueType.NONE);
         }
         return isTouched();
     }
@@ -240,73 +273,48 @@ public class PieChartRenderer extends AbstractChartRenderer {
      * @param canvas
      */
     private void drawSlices(Canvas canvas) {
-        final PieChartData data = dataProvider.getPieChartData();
-        final float sliceScale = 360f / maxSum;
-        float lastAngle = rotation;
-        int sliceIndex = 0;
-        for (SliceValue sliceValue : data.getValues()) {
-            final float angle = Math.abs(sliceValue.getValue()) * sliceScale;
+        final List<SliceValue> values = dataProvider.getPieChartData().getValues();
+        for (int sliceIndex = 0; sliceIndex < slicesCount; ++sliceIndex) {
+            final SliceValue sliceValue = values.get(sliceIndex);
+            final float lastAngle = rotation + sliceAngles[sliceIndex];
+            final float angle = sliceAngles[sliceIndex + 1] - sliceAngles[sliceIndex];
             if (isTouched() && selectedValue.getFirstIndex() == sliceIndex) {
                 drawSlice(canvas, sliceValue, lastAngle, angle, MODE_HIGHLIGHT);
             } else {
                 drawSlice(canvas, sliceValue, lastAngle, angle, MODE_DRAW);
             }
-            lastAngle += angle;
-            ++sliceIndex;
+        }
+        if (null != frameMetrics) {
+            frameMetrics.addPoints(slicesCount, slicesCount);
         }
     }
 
     private void drawSeparationLines(Canvas canvas) {
-        final PieChartData data = dataProvider.getPieChartData();
-        if (data.getValues().size() < 2) {
-            //No need for separation lines for 0 or 1 slices.
-            return;
-        }
-        final int sliceSpacing = ChartUtils.dp2px(density, data.getSlicesSpacing());
+        final int sliceSpacing = calculateSliceSpacing();
         if (sliceSpacing < 1) {
             //No need for separation lines
             return;
         }
-        final float sliceScale = 360f / maxSum;
-        float lastAngle = rotation;
         final float circleRadius = originCircleOval.width() / 2f;
         separationLinesPaint.setStrokeWidth(sliceSpacing);
-        for (SliceValue sliceValue : data.getValues()) {
-            final float angle = Math.abs(sliceValue.getValue()) * sliceScale;
-
-            sliceVector.set((float) (Math.cos(Math.toRadians(lastAngle))),
-                    (float) (Math.sin(Math.toRadians(lastAngle))));
-            normalizeVector(sliceVector);
+        for (int sliceIndex = 0; sliceIndex < slicesCount; ++sliceIndex) {
+            rotateVector(sliceStartCos[sliceIndex], sliceStartSin[sliceIndex], sliceVector);
 
             float x1 = sliceVector.x * (circleRadius + touchAdditional) + originCircleOval.centerX();
             float y1 = sliceVector.y * (circleRadius + touchAdditional) + originCircleOval.centerY();
 
             canvas.drawLine(originCircleOval.centerX(), originCircleOval.centerY(), x1, y1, separationLinesPaint);
-
-            lastAngle += angle;
         }
     }
 
     public void drawLabels(Canvas canvas) {
-        final PieChartData data = dataProvider.getPieChartData();
-        final float sliceScale = 360f / maxSum;
-        float lastAngle = rotation;
-        int sliceIndex = 0;
-        for (SliceValue sliceValue : data.getValues()) {
-            final float angle = Math.abs(sliceValue.getValue()) * sliceScale;
-            if (isTouched()) {
-                if (hasLabels) {
-                    drawLabel(canvas, sliceValue, lastAngle, angle);
-                } else if (hasLabelsOnlyForSelected && selectedValue.getFirstIndex() == sliceIndex) {
-                    drawLabel(canvas, sliceValue, lastAngle, angle);
-                }
-            } else {
-                if (hasLabels) {
-                    drawLabel(canvas, sliceValue, lastAngle, angle);
-                }
+        final List<SliceValue> values = dataProvider.getPieChartData().getValues();
+        if (hasLabels) {
+            for (int sliceIndex = 0; sliceIndex < slicesCount; ++sliceIndex) {
+                drawLabel(canvas, values.get(sliceIndex), sliceIndex);
             }
-            lastAngle += angle;
-            ++sliceIndex;
+        } else if (hasLabelsOnlyForSelected && isTouched() && selectedValue.getFirstIndex() < slicesCount) {
+            drawLabel(canvas, values.get(selectedValue.getFirstIndex()), selectedValue.getFirstIndex());
         }
     }
 
@@ -316,9 +324,6 @@ public class PieChartRenderer extends AbstractChartRenderer {
      * and will have bigger radius.
      */
     private void drawSlice(Canvas canvas, SliceValue sliceValue, float lastAngle, float angle, int mode) {
-        sliceVector.set((float) (Math.cos(Math.toRadians(lastAngle + angle / 2))),
-                (float) (Math.sin(Math.toRadians(lastAngle + angle / 2))));
-        normalizeVector(sliceVector);
         drawCircleOval.set(originCircleOval);
         if (MODE_HIGHLIGHT == mode) {
             // Add additional touch feedback by setting bigger radius for that slice and darken color.
@@ -331,10 +336,20 @@ public class PieChartRenderer extends AbstractChartRenderer {
         }
     }
 
-    private void drawLabel(Canvas canvas, SliceValue sliceValue, float lastAngle, float angle) {
-        sliceVector.set((float) (Math.cos(Math.toRadians(lastAngle + angle / 2))),
-                (float) (Math.sin(Math.toRadians(lastAngle + angle / 2))));
-        normalizeVector(sliceVector);
+    /**
+     * Returns width of separation lines in pixels or 0 if they are not drawn.
+     */
+    private int calculateSliceSpacing() {
+        final PieChartData data = dataProvider.getPieChartData();
+        if (data.getValues().size() < 2) {
+            //No need for separation lines for 0 or 1 slices.
+            return 0;
+        }
+        return Math.max(0, ChartUtils.dp2px(density, data.getSlicesSpacing()));
+    }
+
+    private void drawLabel(Canvas canvas, SliceValue sliceValue, int sliceIndex) {
+        rotateVector(sliceMiddleCos[sliceIndex], sliceMiddleSin[sliceIndex], sliceVector);
 
         final int numChars = valueFormatter.formatChartValue(labelBuffer, sliceValue);
 
@@ -399,9 +414,66 @@ public class PieChartRenderer extends AbstractChartRenderer {
                 sliceValue.getDarkenColor());
     }
 
-    private void normalizeVector(PointF point) {
-        final float abs = point.length();
-        point.set(point.x / abs, point.y / abs);
+    /**
+     * Rotates unit vector given by cos and sin of its angle by current chart rotation.
+     */
+    private void rotateVector(float cos, float sin, PointF out) {
+        out.set(cos * rotationCos - sin * rotationSin, sin * rotationCos + cos * rotationSin);
+    }
+
+    /**
+     * Returns index of slice containing given angle(without rotation) or -1 if there are no slices. If there are empty
+     * slices at that angle the last of them is returned.
+     */
+    private int findSlice(float angle) {
+        if (slicesCount == 0) {
+            return -1;
+        }
+        // Binary search for the first slice starting after angle.
+        int low = 1;
+        int high = slicesCount;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (sliceAngles[middle] <= angle) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low - 1;
+    }
+
+    /**
+     * Calculates sum of all SliceValues and table of slice angles and unit vectors, see {@link #sliceAngles}.
+     */
+    private void calculateSliceAngles() {
+        final List<SliceValue> values = dataProvider.getPieChartData().getValues();
+        slicesCount = values.size();
+        maxSum = 0.0f;
+        for (int i = 0; i < slicesCount; ++i) {
+            maxSum += Math.abs(values.get(i).getValue());
+        }
+        if (sliceAngles.length < slicesCount + 1) {
+            sliceAngles = new float[slicesCount + 1];
+            sliceStartCos = new float[slicesCount];
+            sliceStartSin = new float[slicesCount];
+            sliceMiddleCos = new float[slicesCount];
+            sliceMiddleSin = new float[slicesCount];
+        }
+        final double sliceScale = maxSum > 0 ? 360.0 / maxSum : 0;
+        double lastAngle = 0;
+        for (int i = 0; i < slicesCount; ++i) {
+            final double angle = Math.abs(values.get(i).getValue()) * sliceScale;
+            final double startRadians = Math.toRadians(lastAngle);
+            final double middleRadians = Math.toRadians(lastAngle + angle / 2);
+            sliceAngles[i] = (float) lastAngle;
+            sliceStartCos[i] = (float) Math.cos(startRadians);
+            sliceStartSin[i] = (float) Math.sin(startRadians);
+            sliceMiddleCos[i] = (float) Math.cos(middleRadians);
+            sliceMiddleSin[i] = (float) Math.sin(middleRadians);
+            lastAngle += angle;
+        }
+        sliceAngles[slicesCount] = (float) lastAngle;
     }
 
     /**
@@ -438,13 +510,37 @@ public class PieChartRenderer extends AbstractChartRenderer {
 
     /**
      * Viewport is not really important for PieChart, this kind of chart doesn't relay on viewport but uses pixels
-     * coordinates instead. This method also calculates sum of all SliceValues.
+     * coordinates instead.
      */
     private void calculateMaxViewport() {
         tempMaximumViewport.set(0, MAX_WIDTH_HEIGHT, MAX_WIDTH_HEIGHT, 0);
-        maxSum = 0.0f;
-        for (SliceValue sliceValue : dataProvider.getPieChartData().getValues()) {
-            maxSum += Math.abs(sliceValue.getValue());
+    }
+
+    /**
+     * @see #setSoftwareBufferEnabled(boolean)
+     */
+    public boolean isSoftwareBufferEnabled() {
+        return isSoftwareBufferEnabled;
+    }
+
+    /**
+     * Set false to draw slices directly on view canvas instead of full size ARGB_8888 bitmap, the bitmap is then not
+     * borrowed from {@link lecho.lib.hellocharts.util.ChartBitmapPool}. Separation lines and center circle are then
+     * drawn within offscreen layer of circle size. True by default.
+     */
+    public void setSoftwareBufferEnabled(boolean isEnabled) {
+        this.isSoftwareBufferEnabled = isEnabled;
+        updateSoftwareBuffer();
+    }
+
+    /**
+     * Borrows software buffer for current chart size or returns it to the pool if software buffer is disabled.
+     */
+    private void updateSoftwareBuffer() {
+        if (isSoftwareBufferEnabled) {
+            softwareBuffer.prepare(computator.getChartWidth(), computator.getChartHeight());
+        } else {
+            softwareBuffer.release();
         }
     }
 
@@ -463,29 +559,23 @@ public class PieChartRenderer extends AbstractChartRenderer {
     public void setChartRotation(int rotation) {
         rotation = (rotation % 360 + 360) % 360;
         this.rotation = rotation;
+        rotationCos = (float) Math.cos(Math.toRadians(rotation));
+        rotationSin = (float) Math.sin(Math.toRadians(rotation));
     }
 
     /**
      * Returns SliceValue that is under given angle, selectedValue (if not null) will be hold slice index.
      */
     public SliceValue getValueForAngle(int angle, SelectedValue selectedValue) {
-        final PieChartData data = dataProvider.getPieChartData();
-        final float touchAngle = (angle - rotation + 360f) % 360f;
-        final float sliceScale = 360f / maxSum;
-        float lastAngle = 0f;
-        int sliceIndex = 0;
-        for (SliceValue sliceValue : data.getValues()) {
-            final float tempAngle = Math.abs(sliceValue.getValue()) * sliceScale;
-            if (touchAngle >= lastAngle) {
-                if (null != selectedValue) {
-                    selectedValue.set(sliceIndex, sliceIndex, SelectedValueType.NONE);
-                }
-                return sliceValue;
-            }
-            lastAngle += tempAngle;
-            ++sliceIndex;
+        final float touchAngle = ((angle - rotation) % 360f + 360f) % 360f;
+        final int sliceIndex = findSlice(touchAngle);
+        if (sliceIndex < 0) {
+            return null;
+        }
+        if (null != selectedValue) {
+            selectedValue.set(sliceIndex, sliceIndex, SelectedValueType.NONE);
         }
-        return null;
+        return dataProvider.getPieChartData().getValues().get(sliceIndex);
     }
 
     /**
@@ -0,0 +1,62 @@
+package lecho.lib.hellocharts.renderer;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.PorterDuff;
+
+import lecho.lib.hellocharts.util.ChartBitmapPool;
+
+/**
+ * Full size ARGB_8888 offscreen buffer of a chart renderer. Bitmap is borrowed from {@link ChartBitmapPool} and
+ * returned there when chart is resized or detached from window.
+ */
+class SoftwareBuffer {
+    private Bitmap bitmap;
+    private Canvas canvas = new Canvas();
+
+    /**
+     * Makes sure buffer has given size, borrows new bitmap if needed.
+     *
+     * @return false if size is empty and there is no buffer
+     */
+    public boolean prepare(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            release();
+            return false;
+        }
+        if (null != bitmap && bitmap.getWidth() == width && bitmap.getHeight() == height) {
+            return true;
+        }
+        release();
+        bitmap = ChartBitmapPool.getInstance().get(width, height, Bitmap.Config.ARGB_8888);
+        canvas.setBitmap(bitmap);
+        return true;
+    }
+
+    /**
+     * Returns buffer bitmap to the pool.
+     */
+    public void release() {
+        if (null != bitmap) {
+            canvas.setBitmap(null);
+            ChartBitmapPool.getInstance().put(bitmap);
+            bitmap = null;
+        }
+    }
+
+    /**
+     * Clears prepared buffer and returns canvas drawing into it.
+     */
+    public Canvas beginDraw() {
+        canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+        return canvas;
+    }
+
+    /**
+     * Draws buffer content on given canvas.
+     */
+    public void endDraw(Canvas canvas) {
+        canvas.drawBitmap(bitmap, 0, 0, null);
+    }
+}
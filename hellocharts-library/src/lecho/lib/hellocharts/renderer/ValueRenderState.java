@@ -0,0 +1,65 @@
+package lecho.lib.hellocharts.renderer;
+
+import android.graphics.Paint;
+
+import java.util.HashMap;
+
+/**
+ * Paints for a single chart value colour, used by column and bubble renderers. States are compiled when chart data is
+ * set and shared by all values with the same colour so drawing only switches between configured paints.
+ */
+class ValueRenderState {
+    final int color;
+    final int darkenColor;
+    final Paint paint;
+    final Paint darkenPaint;
+
+    private ValueRenderState(Paint template, int color, int darkenColor) {
+        this.color = color;
+        this.darkenColor = darkenColor;
+        paint = new Paint(template);
+        paint.setColor(color);
+        darkenPaint = new Paint(template);
+        darkenPaint.setColor(darkenColor);
+    }
+
+    /**
+     * Compiles and shares states by value colour. States are kept only for colours used by the current and the previous
+     * compilation, so setting new data with the same colours doesn't create new paints.
+     */
+    static class Palette {
+        private final Paint template;
+        private HashMap<Integer, ValueRenderState> states = new HashMap<Integer, ValueRenderState>();
+        private HashMap<Integer, ValueRenderState> previousStates = new HashMap<Integer, ValueRenderState>();
+
+        /**
+         * @param template paint with style settings copied by every compiled state
+         */
+        Palette(Paint template) {
+            this.template = template;
+        }
+
+        /**
+         * Starts new compilation, states of the previous one are reused if their colour is still used.
+         */
+        void begin() {
+            final HashMap<Integer, ValueRenderState> states = previousStates;
+            previousStates = this.states;
+            this.states = states;
+            this.states.clear();
+        }
+
+        ValueRenderState get(int color, int darkenColor) {
+            ValueRenderState state = states.get(color);
+            if (null != state && state.darkenColor == darkenColor) {
+                return state;
+            }
+            state = previousStates.remove(color);
+            if (null == state || state.darkenColor != darkenColor) {
+                state = new ValueRenderState(template, color, darkenColor);
+            }
+            states.put(color, state);
+            return state;
+        }
+    }
+}
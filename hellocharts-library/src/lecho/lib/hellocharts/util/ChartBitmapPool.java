@@ -0,0 +1,153 @@
+package lecho.lib.hellocharts.util;
+
+import android.graphics.Bitmap;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Process-wide pool of bitmaps used by chart renderers as offscreen buffers. Bitmaps returned by charts that were
+ * resized or detached from window are kept in buckets by allocation size and reused by other charts or by the same
+ * chart after rotation, pooled bitmap is reconfigured to requested size if its allocation is big enough. Pool keeps at
+ * most {@link #getMaxSize()} bytes, least recently returned bitmaps are evicted first.
+ * <p/>
+ * Content of bitmap taken from pool is undefined, it has to be cleared before drawing.
+ */
+public class ChartBitmapPool {
+    /**
+     * Default pool budget, enough for two full screen ARGB_8888 buffers on 1080x1920 display.
+     */
+    public static final int DEFAULT_MAX_SIZE = 16 * 1024 * 1024;
+    /**
+     * Pooled bitmap is not reused for request that needs less than 1/MAX_SIZE_MULTIPLE of its allocation.
+     */
+    private static final int MAX_SIZE_MULTIPLE = 2;
+    private static ChartBitmapPool instance;
+
+    /**
+     * Pooled bitmaps by allocation byte count.
+     */
+    private final TreeMap<Integer, ArrayList<Bitmap>> buckets = new TreeMap<Integer, ArrayList<Bitmap>>();
+    /**
+     * Pooled bitmaps in order they were returned, the first one is evicted first.
+     */
+    private final ArrayList<Bitmap> lruBitmaps = new ArrayList<Bitmap>();
+    private int maxSize = DEFAULT_MAX_SIZE;
+    private int currentSize;
+
+    public static synchronized ChartBitmapPool getInstance() {
+        if (null == instance) {
+            instance = new ChartBitmapPool();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns mutable bitmap of given size and config, from pool if possible or newly created.
+     */
+    public synchronized Bitmap get(int width, int height, Bitmap.Config config) {
+        final int byteCount = width * height * getBytesPerPixel(config);
+        for (Map.Entry<Integer, ArrayList<Bitmap>> entry = buckets.ceilingEntry(byteCount);
+             null != entry && entry.getKey() <= byteCount * MAX_SIZE_MULTIPLE;
+             entry = buckets.higherEntry(entry.getKey())) {
+            final ArrayList<Bitmap> bucket = entry.getValue();
+            // Try every bitmap of the bucket before moving to a bigger bucket, bitmaps that can't be reconfigured
+            // are dropped.
+            while (!bucket.isEmpty()) {
+                final Bitmap bitmap = bucket.remove(bucket.size() - 1);
+                if (bucket.isEmpty()) {
+                    buckets.remove(entry.getKey());
+                }
+                lruBitmaps.remove(bitmap);
+                currentSize -= entry.getKey();
+                if (bitmap.getWidth() != width || bitmap.getHeight() != height
+                        || !config.equals(bitmap.getConfig())) {
+                    try {
+                        bitmap.reconfigure(width, height, config);
+                    } catch (IllegalArgumentException e) {
+                        continue;
+                    }
+                }
+                return bitmap;
+            }
+        }
+        return Bitmap.createBitmap(width, height, config);
+    }
+
+    /**
+     * Returns bitmap to the pool, caller must not use it later. Bitmaps bigger than pool budget are dropped.
+     */
+    public synchronized void put(Bitmap bitmap) {
+        if (null == bitmap || bitmap.isRecycled() || !bitmap.isMutable()) {
+            return;
+        }
+        final int byteCount = bitmap.getAllocationByteCount();
+        if (byteCount > maxSize || lruBitmaps.contains(bitmap)) {
+            return;
+        }
+        ArrayList<Bitmap> bucket = buckets.get(byteCount);
+        if (null == bucket) {
+            bucket = new ArrayList<Bitmap>();
+            buckets.put(byteCount, bucket);
+        }
+        bucket.add(bitmap);
+        lruBitmaps.add(bitmap);
+        currentSize += byteCount;
+        trimToSize(maxSize);
+    }
+
+    /**
+     * Removes all bitmaps from pool, call it i.e. from {@link android.content.ComponentCallbacks2#onTrimMemory(int)}.
+     */
+    public synchronized void clear() {
+        trimToSize(0);
+    }
+
+    /**
+     * @see #setMaxSize(int)
+     */
+    public synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets maximum number of bytes kept by pool, bitmaps over the budget are evicted right away. Default is
+     * {@link #DEFAULT_MAX_SIZE}.
+     */
+    public synchronized void setMaxSize(int maxSize) {
+        this.maxSize = Math.max(0, maxSize);
+        trimToSize(this.maxSize);
+    }
+
+    /**
+     * Returns number of bytes allocated by bitmaps kept in pool.
+     */
+    public synchronized int getCurrentSize() {
+        return currentSize;
+    }
+
+    private void trimToSize(int size) {
+        while (currentSize > size && !lruBitmaps.isEmpty()) {
+            final Bitmap bitmap = lruBitmaps.remove(0);
+            final int byteCount = bitmap.getAllocationByteCount();
+            final ArrayList<Bitmap> bucket = buckets.get(byteCount);
+            bucket.remove(bitmap);
+            if (bucket.isEmpty()) {
+                buckets.remove(byteCount);
+            }
+            currentSize -= byteCount;
+            // Evicted bitmap is not recycled, it can still be referenced by display list of the last frame of a chart.
+        }
+    }
+
+    private static int getBytesPerPixel(Bitmap.Config config) {
+        if (Bitmap.Config.ALPHA_8.equals(config)) {
+            return 1;
+        } else if (Bitmap.Config.RGB_565.equals(config)) {
+            return 2;
+        } else {
+            return 4;
+        }
+    }
+}
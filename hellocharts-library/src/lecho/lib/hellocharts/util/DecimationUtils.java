@@ -0,0 +1,159 @@
+package lecho.lib.hellocharts.util;
+
+import lecho.lib.hellocharts.model.PointSeries;
+
+/**
+ * Downsampling algorithms used to reduce number of points drawn for big line series.
+ */
+public class DecimationUtils {
+
+    /**
+     * Downsamples range of points using Largest-Triangle-Three-Buckets algorithm. The first and the last point of the
+     * range are always kept, other points are split into buckets and from each bucket the point that forms the largest
+     * triangle with the previously selected point and average of the next bucket is selected. Source series should be
+     * sorted by X.
+     *
+     * @param source    series to downsample
+     * @param from      index of the first point of the range
+     * @param to        index after the last point of the range
+     * @param threshold maximum number of output points, must be at least 3
+     * @param out       series for the result, it is cleared before use so it can be reused between frames
+     */
+    public static void largestTriangleThreeBuckets(PointSeries source, int from, int to, int threshold,
+                                                   PointSeries out) {
+        out.clear();
+        final int count = to - from;
+        if (threshold < 3 || count <= threshold) {
+            for (int i = from; i < to; ++i) {
+                out.add(source.getX(i), source.getY(i));
+            }
+            return;
+        }
+        out.ensureCapacity(threshold);
+
+        // Buckets for all points except the first and the last one.
+        final double bucketSize = (double) (count - 2) / (threshold - 2);
+        int selectedIndex = from;
+        out.add(source.getX(from), source.getY(from));
+
+        for (int bucket = 0; bucket < threshold - 2; ++bucket) {
+            // Average of the next bucket, for the last bucket that is the last point.
+            final int averageFrom = from + (int) ((bucket + 1) * bucketSize) + 1;
+            final int averageTo = Math.min(from + (int) ((bucket + 2) * bucketSize) + 1, to);
+            float averageX = 0;
+            float averageY = 0;
+            for (int i = averageFrom; i < averageTo; ++i) {
+                averageX += source.getX(i);
+                averageY += source.getY(i);
+            }
+            final int averageCount = averageTo - averageFrom;
+            averageX /= averageCount;
+            averageY /= averageCount;
+
+            final int rangeFrom = from + (int) (bucket * bucketSize) + 1;
+            final int rangeTo = from + (int) ((bucket + 1) * bucketSize) + 1;
+            final float selectedX = source.getX(selectedIndex);
+            final float selectedY = source.getY(selectedIndex);
+            float maxArea = -1;
+            int maxAreaIndex = rangeFrom;
+            for (int i = rangeFrom; i < rangeTo; ++i) {
+                // Doubled triangle area, there is no need to divide by 2 when only comparing.
+                final float area = Math.abs((selectedX - averageX) * (source.getY(i) - selectedY)
+                        - (selectedX - source.getX(i)) * (averageY - selectedY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxAreaIndex = i;
+                }
+            }
+            out.add(source.getX(maxAreaIndex), source.getY(maxAreaIndex));
+            selectedIndex = maxAreaIndex;
+        }
+
+        out.add(source.getX(to - 1), source.getY(to - 1));
+    }
+
+    /**
+     * Aggregates range of points using M4 algorithm. X range from left to right is split into given number of columns,
+     * usually one column per pixel, and for every column the first, the last, the minimum and the maximum point are
+     * kept in their original order. Points outside of X range are kept as separate columns. Source series should be
+     * sorted by X.
+     *
+     * @param source  series to aggregate
+     * @param from    index of the first point of the range
+     * @param to      index after the last point of the range
+     * @param left    X value of the left edge of the first column
+     * @param right   X value of the right edge of the last column
+     * @param columns number of columns
+     * @param out     series for the result, it is cleared before use so it can be reused between frames
+     */
+    public static void m4(PointSeries source, int from, int to, float left, float right, int columns,
+                          PointSeries out) {
+        out.clear();
+        if (from >= to) {
+            return;
+        }
+        if (columns < 1 || right <= left) {
+            for (int i = from; i < to; ++i) {
+                out.add(source.getX(i), source.getY(i));
+            }
+            return;
+        }
+        final float columnScale = columns / (right - left);
+        int column = computeColumn(source.getX(from), left, columnScale, columns);
+        int firstIndex = from;
+        int minIndex = from;
+        int maxIndex = from;
+        float minY = source.getY(from);
+        float maxY = minY;
+        for (int i = from + 1; i < to; ++i) {
+            final float y = source.getY(i);
+            final int pointColumn = computeColumn(source.getX(i), left, columnScale, columns);
+            if (pointColumn != column) {
+                addColumn(source, firstIndex, minIndex, maxIndex, i - 1, out);
+                column = pointColumn;
+                firstIndex = minIndex = maxIndex = i;
+                minY = maxY = y;
+            } else if (y < minY) {
+                minY = y;
+                minIndex = i;
+            } else if (y > maxY) {
+                maxY = y;
+                maxIndex = i;
+            }
+        }
+        addColumn(source, firstIndex, minIndex, maxIndex, to - 1, out);
+    }
+
+    private static int computeColumn(float x, float left, float columnScale, int columns) {
+        final float column = (x - left) * columnScale;
+        if (column < 0) {
+            return -1;
+        } else if (column >= columns) {
+            return columns;
+        } else {
+            return (int) column;
+        }
+    }
+
+    /**
+     * Adds points of one M4 column in index order skipping duplicates.
+     */
+    private static void addColumn(PointSeries source, int firstIndex, int minIndex, int maxIndex, int lastIndex,
+                                  PointSeries out) {
+        final int lowerIndex = Math.min(minIndex, maxIndex);
+        final int upperIndex = Math.max(minIndex, maxIndex);
+        int previousIndex = firstIndex;
+        out.add(source.getX(firstIndex), source.getY(firstIndex));
+        if (lowerIndex > previousIndex) {
+            out.add(source.getX(lowerIndex), source.getY(lowerIndex));
+            previousIndex = lowerIndex;
+        }
+        if (upperIndex > previousIndex) {
+            out.add(source.getX(upperIndex), source.getY(upperIndex));
+            previousIndex = upperIndex;
+        }
+        if (lastIndex > previousIndex) {
+            out.add(source.getX(lastIndex), source.getY(lastIndex));
+        }
+    }
+}
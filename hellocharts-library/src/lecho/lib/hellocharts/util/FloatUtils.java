@@ -152,7 +152,7 @@ public class FloatUtils {
     public static void computeAutoGeneratedAxisValues(float start, float stop, int steps, AxisAutoValues outValues) {
         double range = stop - start;
         if (steps == 0 || range <= 0) {
-            outValues.values = new float[]{};
+            // Keep values buffer, it is reused when range is not empty again.
             outValues.valuesNumber = 0;
             return;
         }
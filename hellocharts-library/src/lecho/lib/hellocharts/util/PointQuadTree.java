@@ -0,0 +1,237 @@
+package lecho.lib.hellocharts.util;
+
+import java.util.Arrays;
+
+/**
+ * Quadtree over points given as arrays of X and Y coordinates, used to find points within rectangle without scanning
+ * all of them. Every node keeps bounds of its points and is split into four quadrants until it has at most
+ * {@link #LEAF_SIZE} points. Tree keeps references to coordinate arrays so it has to be rebuilt when they change.
+ */
+public class PointQuadTree {
+    private static final int LEAF_SIZE = 16;
+    /**
+     * Limits depth for many points with equal coordinates that can't be split.
+     */
+    private static final int MAX_DEPTH = 24;
+    /**
+     * Results up to this size are sorted by insertion, bigger ones by radix passes.
+     */
+    private static final int INSERTION_SORT_MAX_SIZE = 32;
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX_MASK = (1 << RADIX_BITS) - 1;
+
+    private float[] xs;
+    private float[] ys;
+    /**
+     * Point indexes ordered so that every node covers consecutive range of them.
+     */
+    private int[] indexes = new int[0];
+    private int count;
+
+    /**
+     * Nodes as parallel arrays, children of node are four consecutive nodes starting at nodeFirstChild or -1 for leaf.
+     */
+    private float[] nodeLeft = new float[0];
+    private float[] nodeBottom = new float[0];
+    private float[] nodeRight = new float[0];
+    private float[] nodeTop = new float[0];
+    private int[] nodeFrom = new int[0];
+    private int[] nodeTo = new int[0];
+    private int[] nodeFirstChild = new int[0];
+    private int nodeCount;
+
+    /**
+     * Query result and scratch buffer for sorting it, both sized for all points when tree is built so queries don't
+     * allocate.
+     */
+    private int[] result = new int[0];
+    private int[] sortBuffer = new int[0];
+    private final int[] radixCounts = new int[1 << RADIX_BITS];
+
+    /**
+     * Builds tree for first count points, arrays are not copied and must not change until next build.
+     */
+    public void build(float[] xs, float[] ys, int count) {
+        this.xs = xs;
+        this.ys = ys;
+        this.count = count;
+        if (indexes.length < count) {
+            indexes = new int[count];
+            result = new int[count];
+            sortBuffer = new int[count];
+        }
+        for (int i = 0; i < count; ++i) {
+            indexes[i] = i;
+        }
+        nodeCount = 0;
+        if (count > 0) {
+            buildNode(addNode(0, count), 0);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Finds indexes of points within given rectangle, bounds are inclusive. Indexes are stored in ascending order in
+     * array returned by {@link #getResult()}.
+     *
+     * @return number of found points
+     */
+    public int query(float left, float bottom, float right, float top) {
+        int resultSize = 0;
+        if (nodeCount > 0) {
+            resultSize = queryNode(0, left, bottom, right, top, 0);
+            sortResult(resultSize);
+        }
+        return resultSize;
+    }
+
+    /**
+     * Returns array with result of the last {@link #query(float, float, float, float)}, array is reused by next query.
+     */
+    public int[] getResult() {
+        return result;
+    }
+
+    private int queryNode(int node, float left, float bottom, float right, float top, int resultSize) {
+        if (nodeFrom[node] == nodeTo[node] || nodeLeft[node] > right || nodeRight[node] < left
+                || nodeBottom[node] > top || nodeTop[node] < bottom) {
+            return resultSize;
+        }
+        final int firstChild = nodeFirstChild[node];
+        if (firstChild >= 0) {
+            for (int child = firstChild; child < firstChild + 4; ++child) {
+                resultSize = queryNode(child, left, bottom, right, top, resultSize);
+            }
+            return resultSize;
+        }
+        final boolean isContained = nodeLeft[node] >= left && nodeRight[node] <= right && nodeBottom[node] >= bottom
+                && nodeTop[node] <= top;
+        for (int i = nodeFrom[node]; i < nodeTo[node]; ++i) {
+            final int index = indexes[i];
+            if (isContained || (xs[index] >= left && xs[index] <= right && ys[index] >= bottom && ys[index] <= top)) {
+                result[resultSize++] = index;
+            }
+        }
+        return resultSize;
+    }
+
+    /**
+     * Sorts first size indexes of result in ascending order without allocations.
+     */
+    private void sortResult(int size) {
+        if (size <= INSERTION_SORT_MAX_SIZE) {
+            for (int i = 1; i < size; ++i) {
+                final int index = result[i];
+                int j = i - 1;
+                while (j >= 0 && result[j] > index) {
+                    result[j + 1] = result[j];
+                    --j;
+                }
+                result[j + 1] = index;
+            }
+            return;
+        }
+        // LSD radix sort, indexes are lower than count so only its significant digits are sorted.
+        int[] source = result;
+        int[] target = sortBuffer;
+        for (int shift = 0; shift < Integer.SIZE && ((count - 1) >>> shift) > 0; shift += RADIX_BITS) {
+            Arrays.fill(radixCounts, 0);
+            for (int i = 0; i < size; ++i) {
+                ++radixCounts[(source[i] >>> shift) & RADIX_MASK];
+            }
+            int position = 0;
+            for (int digit = 0; digit < radixCounts.length; ++digit) {
+                final int digitCount = radixCounts[digit];
+                radixCounts[digit] = position;
+                position += digitCount;
+            }
+            for (int i = 0; i < size; ++i) {
+                final int index = source[i];
+                target[radixCounts[(index >>> shift) & RADIX_MASK]++] = index;
+            }
+            final int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != result) {
+            System.arraycopy(source, 0, result, 0, size);
+        }
+    }
+
+    private void buildNode(int node, int depth) {
+        final int from = nodeFrom[node];
+        final int to = nodeTo[node];
+        float left = Float.POSITIVE_INFINITY;
+        float bottom = Float.POSITIVE_INFINITY;
+        float right = Float.NEGATIVE_INFINITY;
+        float top = Float.NEGATIVE_INFINITY;
+        for (int i = from; i < to; ++i) {
+            final float x = xs[indexes[i]];
+            final float y = ys[indexes[i]];
+            left = Math.min(left, x);
+            right = Math.max(right, x);
+            bottom = Math.min(bottom, y);
+            top = Math.max(top, y);
+        }
+        nodeLeft[node] = left;
+        nodeBottom[node] = bottom;
+        nodeRight[node] = right;
+        nodeTop[node] = top;
+        nodeFirstChild[node] = -1;
+        if (to - from <= LEAF_SIZE || depth >= MAX_DEPTH || (left == right && bottom == top)) {
+            return;
+        }
+        final float centerX = (left + right) / 2;
+        final float centerY = (bottom + top) / 2;
+        final int splitX = partition(from, to, centerX, true);
+        final int splitLeftY = partition(from, splitX, centerY, false);
+        final int splitRightY = partition(splitX, to, centerY, false);
+        final int firstChild = addNode(from, splitLeftY);
+        addNode(splitLeftY, splitX);
+        addNode(splitX, splitRightY);
+        addNode(splitRightY, to);
+        nodeFirstChild[node] = firstChild;
+        for (int child = firstChild; child < firstChild + 4; ++child) {
+            if (nodeFrom[child] < nodeTo[child]) {
+                buildNode(child, depth + 1);
+            }
+        }
+    }
+
+    /**
+     * Moves indexes of points with coordinate lower than split value before others and returns index of the first
+     * other point.
+     */
+    private int partition(int from, int to, float split, boolean byX) {
+        final float[] values = byX ? xs : ys;
+        int lower = from;
+        for (int i = from; i < to; ++i) {
+            final int index = indexes[i];
+            if (values[index] < split) {
+                indexes[i] = indexes[lower];
+                indexes[lower++] = index;
+            }
+        }
+        return lower;
+    }
+
+    private int addNode(int from, int to) {
+        if (nodeCount == nodeFrom.length) {
+            final int capacity = Math.max(16, nodeCount * 2);
+            nodeLeft = Arrays.copyOf(nodeLeft, capacity);
+            nodeBottom = Arrays.copyOf(nodeBottom, capacity);
+            nodeRight = Arrays.copyOf(nodeRight, capacity);
+            nodeTop = Arrays.copyOf(nodeTop, capacity);
+            nodeFrom = Arrays.copyOf(nodeFrom, capacity);
+            nodeTo = Arrays.copyOf(nodeTo, capacity);
+            nodeFirstChild = Arrays.copyOf(nodeFirstChild, capacity);
+        }
+        nodeFrom[nodeCount] = from;
+        nodeTo[nodeCount] = to;
+        nodeFirstChild[nodeCount] = -1;
+        return nodeCount++;
+    }
+}
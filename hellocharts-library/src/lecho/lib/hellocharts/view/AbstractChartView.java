@@ -11,15 +11,21 @@ import android.view.View;
 import lecho.lib.hellocharts.animation.ChartAnimationListener;
 import lecho.lib.hellocharts.animation.ChartDataAnimator;
 import lecho.lib.hellocharts.animation.ChartDataAnimatorV14;
+import lecho.lib.hellocharts.animation.ChartDataAnimatorV16;
 import lecho.lib.hellocharts.animation.ChartDataAnimatorV8;
+import lecho.lib.hellocharts.animation.ChartFrameScheduler;
 import lecho.lib.hellocharts.animation.ChartViewportAnimator;
 import lecho.lib.hellocharts.animation.ChartViewportAnimatorV14;
+import lecho.lib.hellocharts.animation.ChartViewportAnimatorV16;
 import lecho.lib.hellocharts.animation.ChartViewportAnimatorV8;
 import lecho.lib.hellocharts.computator.ChartComputator;
 import lecho.lib.hellocharts.gesture.ChartTouchHandler;
 import lecho.lib.hellocharts.gesture.ContainerScrollType;
 import lecho.lib.hellocharts.gesture.ZoomType;
+import lecho.lib.hellocharts.listener.ChartPerformanceListener;
 import lecho.lib.hellocharts.listener.ViewportChangeListener;
+import lecho.lib.hellocharts.model.ChartFrameMetrics;
+import lecho.lib.hellocharts.model.ChartOperation;
 import lecho.lib.hellocharts.model.SelectedValue;
 import lecho.lib.hellocharts.model.Viewport;
 import lecho.lib.hellocharts.renderer.AxesRenderer;
@@ -27,7 +33,8 @@ import lecho.lib.hellocharts.renderer.ChartRenderer;
 import lecho.lib.hellocharts.util.ChartUtils;
 
 /**
- * Abstract class for charts views.
+ * Abstract class for charts views. Drawing, touch handling and scrolling don't allocate objects once buffers grew to
+ * the size of chart data, renderers and touch handlers have to keep that contract.
  *
  * @author Leszek Wach
  */
@@ -38,9 +45,23 @@ public abstract class AbstractChartView extends View implements Chart {
     protected ChartRenderer chartRenderer;
     protected ChartDataAnimator dataAnimator;
     protected ChartViewportAnimator viewportAnimator;
+    /**
+     * Scheduler shared by all charts, null below API 16.
+     */
+    protected ChartFrameScheduler frameScheduler;
     protected boolean isInteractive = true;
     protected boolean isContainerScrollEnabled = false;
     protected ContainerScrollType containerScrollType;
+    /**
+     * Holds viewport computed by {@link #moveTo(float, float)} and {@link #setZoomLevel(float, float, float)}, it is
+     * copied by computator and animator.
+     */
+    private Viewport tempViewport = new Viewport();
+    /**
+     * Null unless performance is measured, drawing and data updates only check it for null in that case.
+     */
+    private ChartPerformanceListener performanceListener;
+    private ChartFrameMetrics frameMetrics;
 
     public AbstractChartView(Context context) {
         this(context, null, 0);
@@ -59,9 +80,13 @@ public abstract class AbstractChartView extends View implements Chart {
         if (Build.VERSION.SDK_INT < Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
             this.dataAnimator = new ChartDataAnimatorV8(this);
             this.viewportAnimator = new ChartViewportAnimatorV8(this);
-        } else {
+        } else if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN) {
             this.viewportAnimator = new ChartViewportAnimatorV14(this);
             this.dataAnimator = new ChartDataAnimatorV14(this);
+        } else {
+            this.frameScheduler = ChartFrameScheduler.getInstance();
+            this.viewportAnimator = new ChartViewportAnimatorV16(this);
+            this.dataAnimator = new ChartDataAnimatorV16(this);
         }
     }
 
@@ -79,18 +104,38 @@ public abstract class AbstractChartView extends View implements Chart {
         axesRenderer.onChartSizeChanged();
     }
 
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        chartRenderer.onChartDetachedFromWindow();
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
 
         if (isEnabled()) {
+            // Time of every stage is read only if performance is measured, frame is drawn the same way in both cases.
+            final boolean isMeasured = null != performanceListener;
+            if (isMeasured) {
+                frameMetrics.reset();
+            }
+            final long startTime = isMeasured ? System.nanoTime() : 0;
             axesRenderer.drawInBackground(canvas);
+            final long axesBackgroundTime = isMeasured ? System.nanoTime() : 0;
             int clipRestoreCount = canvas.save();
             canvas.clipRect(chartComputator.getContentRectMinusAllMargins());
             chartRenderer.draw(canvas);
             canvas.restoreToCount(clipRestoreCount);
+            final long chartTime = isMeasured ? System.nanoTime() : 0;
             chartRenderer.drawUnclipped(canvas);
+            final long unclippedTime = isMeasured ? System.nanoTime() : 0;
             axesRenderer.drawInForeground(canvas);
+            if (isMeasured) {
+                frameMetrics.setStageTimes(axesBackgroundTime - startTime, chartTime - axesBackgroundTime,
+                        unclippedTime - chartTime, System.nanoTime() - unclippedTime);
+                performanceListener.onFrameMeasured(frameMetrics);
+            }
         } else {
             canvas.drawColor(ChartUtils.DEFAULT_COLOR);
         }
@@ -111,7 +156,7 @@ public abstract class AbstractChartView extends View implements Chart {
             }
 
             if (needInvalidate) {
-                ViewCompat.postInvalidateOnAnimation(this);
+                postInvalidateChart();
             }
 
             return true;
@@ -126,7 +171,7 @@ public abstract class AbstractChartView extends View implements Chart {
         super.computeScroll();
         if (isInteractive) {
             if (touchHandler.computeScroll()) {
-                ViewCompat.postInvalidateOnAnimation(this);
+                postInvalidateChart();
             }
         }
     }
@@ -149,15 +194,22 @@ public abstract class AbstractChartView extends View implements Chart {
     @Override
     public void animationDataUpdate(float scale) {
         getChartData().update(scale);
-        chartRenderer.onChartViewportChanged();
-        ViewCompat.postInvalidateOnAnimation(this);
+        if (null == performanceListener) {
+            chartRenderer.onChartDataAnimationUpdate(scale);
+        } else {
+            final long startTime = System.nanoTime();
+            chartRenderer.onChartDataAnimationUpdate(scale);
+            performanceListener.onOperationMeasured(ChartOperation.VIEWPORT_CALCULATION,
+                    System.nanoTime() - startTime);
+        }
+        postInvalidateChart();
     }
 
     @Override
     public void animationDataFinished() {
         getChartData().finish();
-        chartRenderer.onChartViewportChanged();
-        ViewCompat.postInvalidateOnAnimation(this);
+        chartRenderer.onChartDataAnimationFinished();
+        postInvalidateChart();
     }
 
     @Override
@@ -175,6 +227,23 @@ public abstract class AbstractChartView extends View implements Chart {
         chartComputator.setViewportChangeListener(viewportChangeListener);
     }
 
+    @Override
+    public ChartPerformanceListener getPerformanceListener() {
+        return performanceListener;
+    }
+
+    @Override
+    public void setPerformanceListener(ChartPerformanceListener performanceListener) {
+        this.performanceListener = performanceListener;
+        if (null == performanceListener) {
+            frameMetrics = null;
+        } else if (null == frameMetrics) {
+            frameMetrics = new ChartFrameMetrics();
+        }
+        chartRenderer.setFrameMetrics(frameMetrics);
+        touchHandler.setPerformanceListener(performanceListener);
+    }
+
     @Override
     public ChartRenderer getChartRenderer() {
         return chartRenderer;
@@ -182,9 +251,13 @@ public abstract class AbstractChartView extends View implements Chart {
 
     @Override
     public void setChartRenderer(ChartRenderer renderer) {
+        if (null != chartRenderer) {
+            // Replaced renderer won't draw anymore, return its offscreen buffers to the pool.
+            chartRenderer.onChartDetachedFromWindow();
+        }
         chartRenderer = renderer;
         resetRendererAndTouchHandler();
-        ViewCompat.postInvalidateOnAnimation(this);
+        postInvalidateChart();
     }
 
     @Override
@@ -247,7 +320,8 @@ public abstract class AbstractChartView extends View implements Chart {
     private Viewport computeScrollViewport(float x, float y) {
         Viewport maxViewport = getMaximumViewport();
         Viewport currentViewport = getCurrentViewport();
-        Viewport scrollViewport = new Viewport(currentViewport);
+        Viewport scrollViewport = tempViewport;
+        scrollViewport.set(currentViewport);
 
         if (maxViewport.contains(x, y)) {
             final float width = currentViewport.width();
@@ -297,7 +371,7 @@ public abstract class AbstractChartView extends View implements Chart {
     @Override
     public void setMaxZoom(float maxZoom) {
         chartComputator.setMaxZoom(maxZoom);
-        ViewCompat.postInvalidateOnAnimation(this);
+        postInvalidateChart();
     }
 
     @Override
@@ -323,7 +397,8 @@ public abstract class AbstractChartView extends View implements Chart {
 
     private Viewport computeZoomViewport(float x, float y, float zoomLevel) {
         final Viewport maxViewport = getMaximumViewport();
-        Viewport zoomViewport = new Viewport(getMaximumViewport());
+        Viewport zoomViewport = tempViewport;
+        zoomViewport.set(maxViewport);
 
         if (maxViewport.contains(x, y)) {
 
@@ -383,7 +458,7 @@ public abstract class AbstractChartView extends View implements Chart {
     @Override
     public void setMaximumViewport(Viewport maxViewport) {
         chartRenderer.setMaximumViewport(maxViewport);
-        ViewCompat.postInvalidateOnAnimation(this);
+        postInvalidateChart();
     }
 
     @Override
@@ -392,7 +467,7 @@ public abstract class AbstractChartView extends View implements Chart {
             viewportAnimator.cancelAnimation();
             viewportAnimator.startAnimation(getCurrentViewport(), targetViewport);
         }
-        ViewCompat.postInvalidateOnAnimation(this);
+        postInvalidateChart();
     }
 
     @Override
@@ -401,7 +476,7 @@ public abstract class AbstractChartView extends View implements Chart {
             viewportAnimator.cancelAnimation();
             viewportAnimator.startAnimation(getCurrentViewport(), targetViewport, duration);
         }
-        ViewCompat.postInvalidateOnAnimation(this);
+        postInvalidateChart();
     }
 
     @Override
@@ -414,7 +489,7 @@ public abstract class AbstractChartView extends View implements Chart {
         if (null != targetViewport) {
             chartRenderer.setCurrentViewport(targetViewport);
         }
-        ViewCompat.postInvalidateOnAnimation(this);
+        postInvalidateChart();
     }
 
     @Override
@@ -447,7 +522,7 @@ public abstract class AbstractChartView extends View implements Chart {
     public void selectValue(SelectedValue selectedValue) {
         chartRenderer.selectValue(selectedValue);
         callTouchListener();
-        ViewCompat.postInvalidateOnAnimation(this);
+        postInvalidateChart();
     }
 
     @Override
@@ -466,11 +541,40 @@ public abstract class AbstractChartView extends View implements Chart {
         this.containerScrollType = containerScrollType;
     }
 
+    @Override
+    public void onChartDataAppended() {
+        if (null == performanceListener) {
+            chartRenderer.onChartDataAppended();
+        } else {
+            final long startTime = System.nanoTime();
+            chartRenderer.onChartDataAppended();
+            performanceListener.onOperationMeasured(ChartOperation.VIEWPORT_CALCULATION,
+                    System.nanoTime() - startTime);
+        }
+        postInvalidateChart();
+    }
+
     protected void onChartDataChange() {
+        final long startTime = null != performanceListener ? System.nanoTime() : 0;
         chartComputator.resetContentRect();
         chartRenderer.onChartDataChanged();
         axesRenderer.onChartDataChanged();
-        ViewCompat.postInvalidateOnAnimation(this);
+        if (null != performanceListener) {
+            performanceListener.onOperationMeasured(ChartOperation.DATA_CHANGE, System.nanoTime() - startTime);
+        }
+        postInvalidateChart();
+    }
+
+    /**
+     * Requests redraw of this chart on the next frame. With shared frame scheduler all requests made before the next
+     * vsync result in a single invalidate.
+     */
+    protected void postInvalidateChart() {
+        if (null != frameScheduler) {
+            frameScheduler.invalidate(this);
+        } else {
+            ViewCompat.postInvalidateOnAnimation(this);
+        }
     }
 
     /**
@@ -479,8 +583,10 @@ public abstract class AbstractChartView extends View implements Chart {
      */
     protected void resetRendererAndTouchHandler() {
         this.chartRenderer.resetRenderer();
+        this.chartRenderer.setFrameMetrics(frameMetrics);
         this.axesRenderer.resetRenderer();
         this.touchHandler.resetTouchHandler();
+        this.touchHandler.setPerformanceListener(performanceListener);
     }
 
     /**
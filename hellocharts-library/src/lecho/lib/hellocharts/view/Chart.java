@@ -5,6 +5,7 @@ import lecho.lib.hellocharts.computator.ChartComputator;
 import lecho.lib.hellocharts.gesture.ChartTouchHandler;
 import lecho.lib.hellocharts.gesture.ContainerScrollType;
 import lecho.lib.hellocharts.gesture.ZoomType;
+import lecho.lib.hellocharts.listener.ChartPerformanceListener;
 import lecho.lib.hellocharts.listener.ViewportChangeListener;
 import lecho.lib.hellocharts.model.ChartData;
 import lecho.lib.hellocharts.model.SelectedValue;
@@ -34,6 +35,16 @@ public interface Chart {
 
     public ChartTouchHandler getTouchHandler();
 
+    /**
+     * Call this method after appending values to current chart data, i.e. to circular
+     * {@link lecho.lib.hellocharts.model.PointSeries}. Unlike setting new chart data it doesn't reset renderers, only
+     * viewports are updated and chart is invalidated. Default implementation only notifies renderer, charts that are
+     * views should invalidate too.
+     */
+    public default void onChartDataAppended() {
+        getChartRenderer().onChartDataAppended();
+    }
+
     /**
      * Updates chart data with given scale. Called during chart data animation update.
      */
@@ -92,6 +103,21 @@ public interface Chart {
      */
     public void setViewportChangeListener(ViewportChangeListener viewportChangeListener);
 
+    /**
+     * @see #setPerformanceListener(ChartPerformanceListener)
+     */
+    public default ChartPerformanceListener getPerformanceListener() {
+        return null;
+    }
+
+    /**
+     * Set listener to receive timings of drawing stages, touch checks and data updates together with counters of drawn
+     * and culled points. Null by default, when no listener is set chart doesn't measure anything. Default
+     * implementation ignores listener, chart is not measured.
+     */
+    public default void setPerformanceListener(ChartPerformanceListener performanceListener) {
+    }
+
     public void callTouchListener();
 
     /**
@@ -4,6 +4,8 @@ import android.content.Context;
 import android.util.AttributeSet;
 import android.util.Log;
 
+import java.util.concurrent.Executor;
+
 import lecho.lib.hellocharts.BuildConfig;
 import lecho.lib.hellocharts.listener.DummyLineChartOnValueSelectListener;
 import lecho.lib.hellocharts.listener.LineChartOnValueSelectListener;
@@ -77,6 +79,66 @@ public class LineChartView extends AbstractChartView implements LineChartDataPro
         }
     }
 
+    /**
+     * @see #setViewportAutoFitYEnabled(boolean)
+     */
+    public boolean isViewportAutoFitYEnabled() {
+        return getLineChartRenderer().isViewportAutoFitYEnabled();
+    }
+
+    /**
+     * Set true if Y axis should be fitted to values visible in current X range while chart is scrolled or zoomed.
+     *
+     * @see LineChartRenderer#setViewportAutoFitYEnabled(boolean)
+     */
+    public void setViewportAutoFitYEnabled(boolean isEnabled) {
+        getLineChartRenderer().setViewportAutoFitYEnabled(isEnabled);
+        // Reapply current viewport to fit it right away.
+        setCurrentViewport(getCurrentViewport());
+    }
+
+    /**
+     * @see #setGeometryExecutor(Executor)
+     */
+    public Executor getGeometryExecutor() {
+        return getLineChartRenderer().getGeometryExecutor();
+    }
+
+    /**
+     * Set executor to prepare line paths outside of the UI thread, useful for big data sets. Null by default.
+     *
+     * @see LineChartRenderer#setGeometryExecutor(Executor)
+     */
+    public void setGeometryExecutor(Executor geometryExecutor) {
+        getLineChartRenderer().setGeometryExecutor(geometryExecutor);
+        postInvalidateChart();
+    }
+
+    /**
+     * @see #setSoftwareBufferEnabled(boolean)
+     */
+    public boolean isSoftwareBufferEnabled() {
+        return getLineChartRenderer().isSoftwareBufferEnabled();
+    }
+
+    /**
+     * Set false to draw lines directly on view canvas instead of full size software bitmap. True by default.
+     *
+     * @see LineChartRenderer#setSoftwareBufferEnabled(boolean)
+     */
+    public void setSoftwareBufferEnabled(boolean isEnabled) {
+        getLineChartRenderer().setSoftwareBufferEnabled(isEnabled);
+        postInvalidateChart();
+    }
+
+    /**
+     * Returns current renderer, it is read on every call because subclasses like preview chart replace renderer set in
+     * this constructor.
+     */
+    private LineChartRenderer getLineChartRenderer() {
+        return (LineChartRenderer) chartRenderer;
+    }
+
     public LineChartOnValueSelectListener getOnValueTouchListener() {
         return onValueTouchListener;
     }
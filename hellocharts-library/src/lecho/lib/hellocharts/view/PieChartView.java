@@ -3,7 +3,6 @@ package lecho.lib.hellocharts.view;
 import android.content.Context;
 import android.graphics.RectF;
 import android.os.Build;
-import androidx.core.view.ViewCompat;
 import android.util.AttributeSet;
 import android.util.Log;
 import android.view.View;
@@ -11,6 +10,7 @@ import android.view.View;
 import lecho.lib.hellocharts.BuildConfig;
 import lecho.lib.hellocharts.animation.PieChartRotationAnimator;
 import lecho.lib.hellocharts.animation.PieChartRotationAnimatorV14;
+import lecho.lib.hellocharts.animation.PieChartRotationAnimatorV16;
 import lecho.lib.hellocharts.animation.PieChartRotationAnimatorV8;
 import lecho.lib.hellocharts.gesture.PieChartTouchHandler;
 import lecho.lib.hellocharts.listener.DummyPieChartOnValueSelectListener;
@@ -52,8 +52,10 @@ public class PieChartView extends AbstractChartView implements PieChartDataProvi
         setChartRenderer(pieChartRenderer);
         if (Build.VERSION.SDK_INT < Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
             this.rotationAnimator = new PieChartRotationAnimatorV8(this);
-        } else {
+        } else if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN) {
             this.rotationAnimator = new PieChartRotationAnimatorV14(this);
+        } else {
+            this.rotationAnimator = new PieChartRotationAnimatorV16(this);
         }
         setPieChartData(PieChartData.generateDummyData());
     }
@@ -119,7 +121,7 @@ public class PieChartView extends AbstractChartView implements PieChartDataProvi
      */
     public void setCircleOval(RectF orginCircleOval) {
         pieChartRenderer.setCircleOval(orginCircleOval);
-        ViewCompat.postInvalidateOnAnimation(this);
+        postInvalidateChart();
     }
 
     /**
@@ -145,7 +147,7 @@ public class PieChartView extends AbstractChartView implements PieChartDataProvi
         } else {
             pieChartRenderer.setChartRotation(rotation);
         }
-        ViewCompat.postInvalidateOnAnimation(this);
+        postInvalidateChart();
     }
 
     public boolean isChartRotationEnabled() {
@@ -187,6 +189,23 @@ public class PieChartView extends AbstractChartView implements PieChartDataProvi
      */
     public void setCircleFillRatio(float fillRatio) {
         pieChartRenderer.setCircleFillRatio(fillRatio);
-        ViewCompat.postInvalidateOnAnimation(this);
+        postInvalidateChart();
+    }
+
+    /**
+     * @see #setSoftwareBufferEnabled(boolean)
+     */
+    public boolean isSoftwareBufferEnabled() {
+        return pieChartRenderer.isSoftwareBufferEnabled();
+    }
+
+    /**
+     * Set false to draw slices directly on view canvas instead of full size software bitmap. True by default.
+     *
+     * @see PieChartRenderer#setSoftwareBufferEnabled(boolean)
+     */
+    public void setSoftwareBufferEnabled(boolean isEnabled) {
+        pieChartRenderer.setSoftwareBufferEnabled(isEnabled);
+        postInvalidateChart();
     }
 }
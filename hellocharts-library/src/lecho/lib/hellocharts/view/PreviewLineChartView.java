@@ -1,7 +1,6 @@
 package lecho.lib.hellocharts.view;
 
 import android.content.Context;
-import androidx.core.view.ViewCompat;
 import android.util.AttributeSet;
 import android.util.Log;
 
@@ -50,7 +49,7 @@ public class PreviewLineChartView extends LineChartView {
         }
 
         previewChartRenderer.setPreviewColor(color);
-        ViewCompat.postInvalidateOnAnimation(this);
+        postInvalidateChart();
     }
 
     @Override
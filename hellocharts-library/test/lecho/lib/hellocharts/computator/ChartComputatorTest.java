@@ -0,0 +1,55 @@
+package lecho.lib.hellocharts.computator;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that batch {@link ChartComputator#computeRawPoints(float[], int, int, float[])} gives the same results as
+ * per-point {@link ChartComputator#computeRawX(float)} and {@link ChartComputator#computeRawY(float)}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 31)
+public class ChartComputatorTest {
+    private static final int POINTS_COUNT = 10000;
+
+    private final ChartComputator computator = new ChartComputator();
+    private final float[] points = new float[POINTS_COUNT * 2];
+    private final float[] perPointResult = new float[POINTS_COUNT * 2];
+    private final float[] batchResult = new float[POINTS_COUNT * 2];
+
+    @Before
+    public void setUp() {
+        computator.setContentRect(1080, 720, 16, 16, 16, 16);
+        computator.setMaxViewport(0, 100, POINTS_COUNT, -100);
+        computator.setCurrentViewport(POINTS_COUNT / 4f, 80, POINTS_COUNT * 3 / 4f, -60);
+        for (int i = 0; i < POINTS_COUNT; ++i) {
+            points[i * 2] = i;
+            points[i * 2 + 1] = (float) Math.sin(i / 1000.0) * 100;
+        }
+    }
+
+    @Test
+    public void batchTransformMatchesPerPointTransform() {
+        computePerPoint();
+        computeBatch();
+        for (int i = 0; i < points.length; ++i) {
+            assertEquals(perPointResult[i], batchResult[i], 0.01f);
+        }
+    }
+
+    private void computePerPoint() {
+        for (int i = 0; i < POINTS_COUNT; ++i) {
+            perPointResult[i * 2] = computator.computeRawX(points[i * 2]);
+            perPointResult[i * 2 + 1] = computator.computeRawY(points[i * 2 + 1]);
+        }
+    }
+
+    private void computeBatch() {
+        computator.computeRawPoints(points, 0, POINTS_COUNT, batchResult);
+    }
+}
@@ -0,0 +1,277 @@
+package lecho.lib.hellocharts.model;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares data animation through {@link AnimationBuffer} with per-value interpolation it replaced, value = origin +
+ * diff * scale on every frame and origin + diff when animation finishes.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 31)
+public class AnimationBufferTest {
+    private static final float[] SCALES = {0f, 0.1f, 0.25f, 0.5f, 0.75f, 0.9f, 1f};
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void columnAnimationMatchesPerValueInterpolation() {
+        final ColumnChartData data = createColumnData(100);
+        final List<SubcolumnValue> values = getSubcolumnValues(data);
+        final float[] origins = new float[values.size()];
+        final float[] diffs = new float[values.size()];
+        for (int i = 0; i < values.size(); ++i) {
+            final SubcolumnValue value = values.get(i);
+            if (random.nextInt(3) == 0) {
+                value.setTarget(random.nextFloat() * 200 - 100);
+            }
+            origins[i] = value.getOriginValue();
+            diffs[i] = value.getTargetValue() - value.getOriginValue();
+        }
+
+        for (float scale : SCALES) {
+            data.update(scale);
+            for (int i = 0; i < values.size(); ++i) {
+                assertEquals(origins[i] + diffs[i] * scale, values.get(i).getValue(), 0);
+            }
+        }
+        data.finish();
+        for (int i = 0; i < values.size(); ++i) {
+            assertEquals(origins[i] + diffs[i], values.get(i).getValue(), 0);
+        }
+        assertEquals(0, data.getAnimationBuffer().size());
+    }
+
+    @Test
+    public void sliceAnimationMatchesPerValueInterpolation() {
+        final List<SliceValue> values = new ArrayList<SliceValue>();
+        final float[] origins = new float[200];
+        final float[] diffs = new float[200];
+        for (int i = 0; i < 200; ++i) {
+            final SliceValue value = new SliceValue(random.nextFloat() * 100);
+            origins[i] = value.getValue();
+            if (random.nextInt(3) == 0) {
+                final float target = random.nextFloat() * 100;
+                value.setTarget(target);
+                diffs[i] = target - origins[i];
+            }
+            values.add(value);
+        }
+        final PieChartData data = new PieChartData(values);
+
+        for (float scale : SCALES) {
+            data.update(scale);
+            for (int i = 0; i < values.size(); ++i) {
+                assertEquals(origins[i] + diffs[i] * scale, values.get(i).getValue(), 0);
+            }
+        }
+        data.finish();
+        for (int i = 0; i < values.size(); ++i) {
+            assertEquals(origins[i] + diffs[i], values.get(i).getValue(), 0);
+        }
+    }
+
+    @Test
+    public void bubbleAnimationMatchesPerValueInterpolation() {
+        final BubbleChartData data = createBubbleData(200);
+        final List<BubbleValue> values = data.getValues();
+        final float[] origins = new float[values.size() * 3];
+        final float[] diffs = new float[values.size() * 3];
+        for (int i = 0; i < values.size(); ++i) {
+            final BubbleValue value = values.get(i);
+            origins[i * 3] = value.getOriginX();
+            origins[i * 3 + 1] = value.getOriginY();
+            origins[i * 3 + 2] = value.getOriginZ();
+            diffs[i * 3] = value.getTargetX() - value.getOriginX();
+            diffs[i * 3 + 1] = value.getTargetY() - value.getOriginY();
+            diffs[i * 3 + 2] = value.getTargetZ() - value.getOriginZ();
+        }
+
+        for (float scale : SCALES) {
+            data.update(scale);
+            for (int i = 0; i < values.size(); ++i) {
+                assertEquals(origins[i * 3] + diffs[i * 3] * scale, values.get(i).getX(), 0);
+                assertEquals(origins[i * 3 + 1] + diffs[i * 3 + 1] * scale, values.get(i).getY(), 0);
+                assertEquals(origins[i * 3 + 2] + diffs[i * 3 + 2] * scale, values.get(i).getZ(), 0);
+            }
+        }
+        data.finish();
+        for (int i = 0; i < values.size(); ++i) {
+            assertEquals(origins[i * 3] + diffs[i * 3], values.get(i).getX(), 0);
+            assertEquals(origins[i * 3 + 1] + diffs[i * 3 + 1], values.get(i).getY(), 0);
+            assertEquals(origins[i * 3 + 2] + diffs[i * 3 + 2], values.get(i).getZ(), 0);
+        }
+    }
+
+    @Test
+    public void finishWritesExactTargets() {
+        // Targets reachable exactly with float arithmetic.
+        final ColumnChartData data = createColumnData(10);
+        final List<SubcolumnValue> values = getSubcolumnValues(data);
+        for (int i = 0; i < values.size(); ++i) {
+            values.get(i).setValue(i).setTarget(i * 2 + 0.5f);
+        }
+        data.update(0.3f);
+        data.finish();
+        for (int i = 0; i < values.size(); ++i) {
+            assertEquals(i * 2 + 0.5f, values.get(i).getValue(), 0);
+        }
+        // Second animation starts from the finished values.
+        values.get(0).setTarget(-7);
+        data.update(0.5f);
+        assertEquals(0.5f + (-7 - 0.5f) * 0.5f, values.get(0).getValue(), 0);
+        data.finish();
+        assertEquals(-7, values.get(0).getValue(), 0);
+    }
+
+    @Test
+    public void valueChangedDuringAnimationIsBoundAgain() {
+        final ColumnChartData data = createColumnData(10);
+        final SubcolumnValue value = data.getColumns().get(3).getValues().get(0);
+        value.setValue(10).setTarget(20);
+        data.update(0.5f);
+        assertEquals(15, value.getValue(), 0);
+
+        // New target starts from current value, the next frame skips the stale slot and the one after uses new slot.
+        value.setTarget(35);
+        data.update(0.6f);
+        data.update(0.8f);
+        assertEquals(15 + 20 * 0.8f, value.getValue(), 0);
+        data.finish();
+        assertEquals(35, value.getValue(), 0);
+    }
+
+    @Test
+    public void onlyColumnValuesWithNonZeroDiffAreBound() {
+        final ColumnChartData data = createColumnData(100);
+        final Set<Long> changed = new HashSet<Long>();
+        for (int i = 0; i < data.getColumns().size(); ++i) {
+            final List<SubcolumnValue> values = data.getColumns().get(i).getValues();
+            for (int j = 0; j < values.size(); ++j) {
+                final int operation = random.nextInt(3);
+                if (operation == 0) {
+                    values.get(j).setTarget(values.get(j).getValue() + 1);
+                    changed.add(toKey(i, j));
+                } else if (operation == 1) {
+                    // Target equal to current value doesn't move.
+                    values.get(j).setTarget(values.get(j).getValue());
+                }
+            }
+        }
+        data.update(0.5f);
+
+        final AnimationBuffer buffer = data.getAnimationBuffer();
+        final Set<Long> bound = new HashSet<Long>();
+        for (int slot = 0; slot < buffer.size(); ++slot) {
+            bound.add(toKey(buffer.getIndex(slot), buffer.getSubindex(slot)));
+        }
+        assertEquals(changed.size(), buffer.size());
+        assertEquals(changed, bound);
+    }
+
+    @Test
+    public void onlyBubblesWithNonZeroDiffAreBound() {
+        final BubbleChartData data = createBubbleData(200);
+        final Set<Long> changed = new HashSet<Long>();
+        for (int i = 0; i < data.getValues().size(); ++i) {
+            final BubbleValue value = data.getValues().get(i);
+            if (value.getTargetX() != value.getOriginX() || value.getTargetY() != value.getOriginY()
+                    || value.getTargetZ() != value.getOriginZ()) {
+                changed.add(toKey(i, 0));
+            }
+        }
+        data.update(0.5f);
+
+        final AnimationBuffer buffer = data.getAnimationBuffer();
+        final Set<Long> bound = new HashSet<Long>();
+        for (int slot = 0; slot < buffer.size(); ++slot) {
+            bound.add(toKey(buffer.getIndex(slot), buffer.getSubindex(slot)));
+        }
+        assertEquals(changed.size(), buffer.size());
+        assertEquals(changed, bound);
+    }
+
+    @Test
+    public void changedIndexesFollowNewAnimation() {
+        final List<SliceValue> values = new ArrayList<SliceValue>();
+        for (int i = 0; i < 10; ++i) {
+            values.add(new SliceValue(i + 1));
+        }
+        final PieChartData data = new PieChartData(values);
+        final AnimationBuffer buffer = data.getAnimationBuffer();
+        data.update(0.5f);
+        assertEquals(0, buffer.size());
+        data.finish();
+
+        values.get(2).setTarget(30);
+        values.get(7).setTarget(70);
+        data.update(0.5f);
+        assertEquals(2, buffer.size());
+        assertEquals(2, buffer.getIndex(0));
+        assertEquals(7, buffer.getIndex(1));
+        data.finish();
+        assertEquals(0, buffer.size());
+
+        // Animation started over with another value.
+        values.get(4).setTarget(40);
+        data.update(0.1f);
+        assertEquals(1, buffer.size());
+        assertEquals(4, buffer.getIndex(0));
+    }
+
+    private static long toKey(int index, int subindex) {
+        return ((long) index << 32) | subindex;
+    }
+
+    private ColumnChartData createColumnData(int columnsCount) {
+        final List<Column> columns = new ArrayList<Column>();
+        for (int i = 0; i < columnsCount; ++i) {
+            final List<SubcolumnValue> values = new ArrayList<SubcolumnValue>();
+            for (int j = 0, count = 1 + random.nextInt(4); j < count; ++j) {
+                values.add(new SubcolumnValue(random.nextFloat() * 100));
+            }
+            columns.add(new Column(values));
+        }
+        return new ColumnChartData(columns);
+    }
+
+    /**
+     * Returns bubbles with random targets, some of them change only one coordinate.
+     */
+    private BubbleChartData createBubbleData(int count) {
+        final List<BubbleValue> values = new ArrayList<BubbleValue>();
+        for (int i = 0; i < count; ++i) {
+            final BubbleValue value = new BubbleValue(random.nextFloat(), random.nextFloat(), random.nextFloat());
+            switch (random.nextInt(4)) {
+                case 0:
+                    value.setTarget(random.nextFloat(), random.nextFloat(), random.nextFloat());
+                    break;
+                case 1:
+                    value.setTarget(value.getX(), value.getY(), random.nextFloat());
+                    break;
+                default:
+                    break;
+            }
+            values.add(value);
+        }
+        return new BubbleChartData(values);
+    }
+
+    private static List<SubcolumnValue> getSubcolumnValues(ColumnChartData data) {
+        final List<SubcolumnValue> values = new ArrayList<SubcolumnValue>();
+        for (Column column : data.getColumns()) {
+            values.addAll(column.getValues());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,144 @@
+package lecho.lib.hellocharts.model;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares {@link MinMaxPyramid} with brute-force min/max on random circular series whose head is in the middle of
+ * arrays, so ranges and buckets cross the head slot.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 31)
+public class MinMaxPyramidTest {
+    private static final int CAPACITY = 1000;
+
+    private final Random random = new Random(42);
+    private final PointSeries out = new PointSeries();
+
+    @Test
+    public void rangeQueriesMatchBruteForce() {
+        final PointSeries series = createWrappedSeries(CAPACITY * 2 + 611);
+        final MinMaxPyramid pyramid = series.getPyramid();
+        for (int from = 0; from < CAPACITY; from += 7) {
+            for (int to = from + 1; to <= CAPACITY; to += 13) {
+                assertEquals(bruteForceMinY(series, from, to), pyramid.getMinY(from, to), 0);
+                assertEquals(bruteForceMaxY(series, from, to), pyramid.getMaxY(from, to), 0);
+            }
+        }
+    }
+
+    @Test
+    public void rangeQuerySplitsRangeWrappedAroundArrays() {
+        // Head slot is 611, indexes 300-500 cover slots 911-999 and 0-111.
+        final PointSeries series = createWrappedSeries(CAPACITY * 2 + 611);
+        series.set(310, series.getX(310), 1000);
+        series.set(480, series.getX(480), -1000);
+        final MinMaxPyramid pyramid = series.getPyramid();
+        assertEquals(1000, pyramid.getMaxY(300, 500), 0);
+        assertEquals(-1000, pyramid.getMinY(300, 500), 0);
+        assertEquals(bruteForceMaxY(series, 311, 480), pyramid.getMaxY(311, 480), 0);
+        assertEquals(bruteForceMinY(series, 311, 480), pyramid.getMinY(311, 480), 0);
+        // Single point ranges on both sides of the arrays end.
+        assertEquals(series.getY(388), pyramid.getMinY(388, 389), 0);
+        assertEquals(series.getY(389), pyramid.getMaxY(389, 390), 0);
+    }
+
+    @Test
+    public void decimateKeepsRangeMinMaxAndOrder() {
+        final PointSeries series = createWrappedSeries(CAPACITY * 3 + 357);
+        final MinMaxPyramid pyramid = series.getPyramid();
+        for (int i = 0; i < 200; ++i) {
+            final int from = random.nextInt(CAPACITY);
+            final int to = from + 1 + random.nextInt(CAPACITY - from);
+            final int level = random.nextInt(pyramid.getLevelCount());
+            pyramid.decimate(from, to, level, out);
+            assertDecimated(series, from, to);
+        }
+    }
+
+    @Test
+    public void decimateSplitsBucketContainingHeadSlot() {
+        // Head slot 5 is in the middle of a bucket on every level.
+        final PointSeries series = createWrappedSeries(CAPACITY + 5);
+        final MinMaxPyramid pyramid = series.getPyramid();
+        for (int level = 1; level < pyramid.getLevelCount(); ++level) {
+            pyramid.decimate(0, CAPACITY, level, out);
+            assertDecimated(series, 0, CAPACITY);
+        }
+    }
+
+    @Test
+    public void pyramidIsUpdatedAfterEviction() {
+        final PointSeries series = createWrappedSeries(CAPACITY + 17);
+        final MinMaxPyramid pyramid = series.getPyramid();
+        pyramid.build();
+        float x = series.getX(series.size() - 1);
+        for (int i = 0; i < CAPACITY * 2; ++i) {
+            // Occasional extremes make sure evicted extremes are not reported.
+            final float y = i % 97 == 0 ? 1000 * (random.nextFloat() - 0.5f) : random.nextFloat() * 100 - 50;
+            series.add(++x, y);
+            if (i % 50 == 0) {
+                final int from = random.nextInt(CAPACITY);
+                final int to = from + 1 + random.nextInt(CAPACITY - from);
+                assertEquals(bruteForceMinY(series, from, to), pyramid.getMinY(from, to), 0);
+                assertEquals(bruteForceMaxY(series, from, to), pyramid.getMaxY(from, to), 0);
+                pyramid.decimate(from, to, pyramid.chooseLevel(16), out);
+                assertDecimated(series, from, to);
+            }
+        }
+    }
+
+    /**
+     * Returns full circular series sorted by X with random Y after adding given number of points.
+     */
+    private PointSeries createWrappedSeries(int addedCount) {
+        final PointSeries series = new PointSeries(CAPACITY, true);
+        for (int i = 0; i < addedCount; ++i) {
+            series.add(i, random.nextFloat() * 100 - 50);
+        }
+        return series;
+    }
+
+    /**
+     * Decimated range must keep its first and last point, its minimum and maximum and X order.
+     */
+    private void assertDecimated(PointSeries series, int from, int to) {
+        assertTrue(out.size() <= to - from);
+        assertEquals(series.getX(from), out.getX(0), 0);
+        assertEquals(series.getX(to - 1), out.getX(out.size() - 1), 0);
+        float minY = Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+        for (int i = 0; i < out.size(); ++i) {
+            if (i > 0) {
+                assertTrue(out.getX(i - 1) < out.getX(i));
+            }
+            minY = Math.min(minY, out.getY(i));
+            maxY = Math.max(maxY, out.getY(i));
+        }
+        assertEquals(bruteForceMinY(series, from, to), minY, 0);
+        assertEquals(bruteForceMaxY(series, from, to), maxY, 0);
+    }
+
+    private static float bruteForceMinY(PointSeries series, int from, int to) {
+        float minY = Float.MAX_VALUE;
+        for (int i = from; i < to; ++i) {
+            minY = Math.min(minY, series.getY(i));
+        }
+        return minY;
+    }
+
+    private static float bruteForceMaxY(PointSeries series, int from, int to) {
+        float maxY = -Float.MAX_VALUE;
+        for (int i = from; i < to; ++i) {
+            maxY = Math.max(maxY, series.getY(i));
+        }
+        return maxY;
+    }
+}
@@ -0,0 +1,187 @@
+package lecho.lib.hellocharts.model;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks circular {@link PointSeries}: eviction at capacity, index operations on series wrapped around the end of its
+ * arrays and bounds after the extreme point was evicted.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 31)
+public class PointSeriesTest {
+    private static final int CAPACITY = 8;
+
+    @Test
+    public void appendEvictsOldestPointAtCapacity() {
+        final PointSeries series = new PointSeries(4, true);
+        for (int i = 0; i < 4; ++i) {
+            series.add(i, i * 10);
+        }
+        assertTrue(series.isFull());
+
+        series.add(4, 40);
+        series.add(5, 50);
+        assertEquals(4, series.size());
+        assertEquals(4, series.capacity());
+        for (int i = 0; i < 4; ++i) {
+            assertEquals(i + 2, series.getX(i), 0);
+            assertEquals((i + 2) * 10, series.getY(i), 0);
+        }
+    }
+
+    @Test
+    public void searchAndCopyWorkOnWrappedSeries() {
+        // Points 5..12 with the head in the middle of arrays.
+        final PointSeries series = createWrappedSeries();
+
+        assertEquals(0, series.lowerBound(5));
+        assertEquals(3, series.lowerBound(7.5f));
+        assertEquals(4, series.upperBound(8));
+        assertEquals(CAPACITY, series.lowerBound(100));
+        assertEquals(0, series.upperBound(-100));
+
+        final float[] points = new float[CAPACITY * 2];
+        series.getPoints(1, 7, points);
+        for (int i = 0; i < 6; ++i) {
+            assertEquals(i + 6, points[i * 2], 0);
+            assertEquals((i + 6) * 2, points[i * 2 + 1], 0);
+        }
+
+        final PointSeries copy = new PointSeries();
+        copy.setPoints(series, 2, 8);
+        assertEquals(6, copy.size());
+        assertEquals(7, copy.getX(0), 0);
+        assertEquals(12, copy.getX(5), 0);
+    }
+
+    @Test
+    public void insertAndRemoveAcrossHeadSlot() {
+        final PointSeries series = createWrappedSeries();
+        final List<float[]> expected = new ArrayList<float[]>();
+        for (int i = 5; i < 13; ++i) {
+            expected.add(new float[]{i, i * 2});
+        }
+
+        // Full circular series evicts the oldest point before insert.
+        series.insert(3, new PointValue(7.5f, 15));
+        expected.remove(0);
+        expected.add(2, new float[]{7.5f, 15});
+        assertPoints(expected, series);
+
+        series.remove(5);
+        expected.remove(5);
+        assertPoints(expected, series);
+
+        series.remove(0);
+        expected.remove(0);
+        assertPoints(expected, series);
+
+        series.insert(0, new PointValue(1, 1));
+        expected.add(0, new float[]{1, 1});
+        assertPoints(expected, series);
+    }
+
+    @Test
+    public void randomOperationsMatchList() {
+        final Random random = new Random(42);
+        final PointSeries series = new PointSeries(CAPACITY, true);
+        final List<float[]> expected = new ArrayList<float[]>();
+        for (int i = 0; i < 2000; ++i) {
+            final int operation = random.nextInt(4);
+            final float x = random.nextFloat() * 100;
+            final float y = random.nextFloat() * 100;
+            if (operation < 2 || expected.isEmpty()) {
+                series.add(x, y);
+                if (expected.size() == CAPACITY) {
+                    expected.remove(0);
+                }
+                expected.add(new float[]{x, y});
+            } else if (operation == 2) {
+                int index = random.nextInt(expected.size() + 1);
+                series.insert(index, new PointValue(x, y));
+                if (expected.size() == CAPACITY) {
+                    expected.remove(0);
+                    if (index > 0) {
+                        --index;
+                    }
+                }
+                expected.add(index, new float[]{x, y});
+            } else {
+                final int index = random.nextInt(expected.size());
+                series.remove(index);
+                expected.remove(index);
+            }
+            assertPoints(expected, series);
+        }
+    }
+
+    @Test
+    public void boundsAreRescannedAfterExtremeIsEvicted() {
+        final PointSeries series = new PointSeries(4, true);
+        series.add(0, 100);
+        series.add(1, -100);
+        series.add(2, 2);
+        series.add(3, 3);
+        assertEquals(100, series.getMaxY(), 0);
+        assertEquals(-100, series.getMinY(), 0);
+
+        series.add(4, 4);
+        assertEquals(4, series.getMaxY(), 0);
+        assertEquals(-100, series.getMinY(), 0);
+        assertEquals(1, series.getMinX(), 0);
+
+        series.add(5, 5);
+        assertEquals(5, series.getMaxY(), 0);
+        assertEquals(2, series.getMinY(), 0);
+        assertEquals(2, series.getMinX(), 0);
+        assertEquals(5, series.getMaxX(), 0);
+        assertTrue(series.isSortedByX());
+
+        // Evicting the only point out of X order makes series sorted again.
+        series.add(1, 1);
+        assertFalse(series.isSortedByX());
+        for (int i = 0; i < 4; ++i) {
+            series.add(10 + i, 0);
+        }
+        assertTrue(series.isSortedByX());
+        assertEquals(0, series.getMaxY(), 0);
+    }
+
+    /**
+     * Returns full circular series with points 5..12 that wrapped around the end of its arrays.
+     */
+    private static PointSeries createWrappedSeries() {
+        final PointSeries series = new PointSeries(CAPACITY, true);
+        for (int i = 0; i < 13; ++i) {
+            series.add(i, i * 2);
+        }
+        return series;
+    }
+
+    private static void assertPoints(List<float[]> expected, PointSeries series) {
+        assertEquals(expected.size(), series.size());
+        float minY = Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.get(i)[0], series.getX(i), 0);
+            assertEquals(expected.get(i)[1], series.getY(i), 0);
+            minY = Math.min(minY, expected.get(i)[1]);
+            maxY = Math.max(maxY, expected.get(i)[1]);
+        }
+        if (!expected.isEmpty()) {
+            assertEquals(minY, series.getMinY(), 0);
+            assertEquals(maxY, series.getMaxY(), 0);
+        }
+    }
+}
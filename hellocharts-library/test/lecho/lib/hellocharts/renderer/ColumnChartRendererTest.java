@@ -0,0 +1,156 @@
+package lecho.lib.hellocharts.renderer;
+
+import android.graphics.Rect;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import lecho.lib.hellocharts.computator.ChartComputator;
+import lecho.lib.hellocharts.model.Column;
+import lecho.lib.hellocharts.model.ColumnChartData;
+import lecho.lib.hellocharts.model.SubcolumnValue;
+import lecho.lib.hellocharts.model.Viewport;
+import lecho.lib.hellocharts.view.ColumnChartView;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares arithmetic column ranges of {@link ColumnChartRenderer} with linear scan over all columns, the way columns
+ * were drawn and touch checked before. Every column that scan would draw inside content rect or hit by touch must be
+ * within the range.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 31)
+public class ColumnChartRendererTest {
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 720;
+    private static final int COLUMNS_COUNT = 50;
+    private static final float[] COLUMN_WIDTHS = {2, 9.5f, 40, 300};
+    private static final float PIXEL_TOLERANCE = 1.01f;
+
+    private final Random random = new Random(42);
+    private ColumnChartView chart;
+    private ColumnChartRenderer renderer;
+    private ChartComputator computator;
+
+    @Before
+    public void setUp() {
+        chart = new ColumnChartView(RuntimeEnvironment.getApplication());
+        final List<Column> columns = new ArrayList<Column>();
+        for (int i = 0; i < COLUMNS_COUNT; ++i) {
+            final List<SubcolumnValue> values = new ArrayList<SubcolumnValue>();
+            values.add(new SubcolumnValue(i % 7 + 1));
+            columns.add(new Column(values));
+        }
+        chart.setColumnChartData(new ColumnChartData(columns));
+        chart.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        chart.layout(0, 0, WIDTH, HEIGHT);
+        renderer = (ColumnChartRenderer) chart.getChartRenderer();
+        computator = chart.getChartComputator();
+    }
+
+    @Test
+    public void visibleRangeContainsColumnsDrawnInContentRect() {
+        for (int i = 0; i < 200; ++i) {
+            final float width = 1 + random.nextFloat() * COLUMNS_COUNT;
+            final float left = random.nextFloat() * (COLUMNS_COUNT + 4) - 2 - width / 2;
+            setViewport(left, left + width);
+            for (float columnWidth : COLUMN_WIDTHS) {
+                assertVisibleRange(columnWidth);
+            }
+        }
+    }
+
+    @Test
+    public void visibleRangeContainsColumnsAtViewportEdges() {
+        // Column centers and column edges exactly on viewport edges.
+        for (int left = 0; left < COLUMNS_COUNT - 5; left += 3) {
+            setViewport(left, left + 5);
+            for (float columnWidth : COLUMN_WIDTHS) {
+                assertVisibleRange(columnWidth);
+            }
+            setViewport(left + 0.5f, left + 4.5f);
+            for (float columnWidth : COLUMN_WIDTHS) {
+                assertVisibleRange(columnWidth);
+            }
+        }
+    }
+
+    @Test
+    public void touchedRangeContainsColumnsUnderTouch() {
+        final Rect contentRect = computator.getContentRectMinusAllMargins();
+        for (int i = 0; i < 50; ++i) {
+            final float width = 1 + random.nextFloat() * COLUMNS_COUNT;
+            final float left = random.nextFloat() * (COLUMNS_COUNT - width);
+            setViewport(left, left + width);
+            for (int j = 0; j < 20; ++j) {
+                final float touchX = contentRect.left + random.nextFloat() * contentRect.width();
+                for (float columnWidth : COLUMN_WIDTHS) {
+                    assertTouchedRange(touchX, columnWidth);
+                }
+            }
+            // Touch exactly on column edges.
+            for (float columnWidth : COLUMN_WIDTHS) {
+                final int column = (int) Math.ceil(left);
+                assertTouchedRange(computator.computeRawX(column) - columnWidth / 2, columnWidth);
+                assertTouchedRange(computator.computeRawX(column) + columnWidth / 2, columnWidth);
+            }
+        }
+    }
+
+    private void setViewport(float left, float right) {
+        final Viewport maxViewport = chart.getMaximumViewport();
+        chart.setCurrentViewport(new Viewport(left, maxViewport.top, right, maxViewport.bottom));
+    }
+
+    private void assertVisibleRange(float columnWidth) {
+        final Rect contentRect = computator.getContentRectMinusAllMargins();
+        renderer.calculateVisibleColumnRange(columnWidth);
+        int firstVisible = COLUMNS_COUNT;
+        int lastVisible = -1;
+        for (int column = 0; column < COLUMNS_COUNT; ++column) {
+            final float rawX = computator.computeRawX(column);
+            if (rawX + columnWidth / 2 >= contentRect.left && rawX - columnWidth / 2 <= contentRect.right) {
+                assertTrue("column " + column + " not in " + renderer.columnsFrom + "-" + renderer.columnsTo,
+                        column >= renderer.columnsFrom && column < renderer.columnsTo);
+            }
+            if (rawX + columnWidth / 2 + PIXEL_TOLERANCE >= contentRect.left
+                    && rawX - columnWidth / 2 - PIXEL_TOLERANCE <= contentRect.right) {
+                firstVisible = Math.min(firstVisible, column);
+                lastVisible = Math.max(lastVisible, column);
+            }
+        }
+        if (lastVisible >= 0) {
+            // Range may have one more column on each side for labels, but not more.
+            assertTrue(renderer.columnsFrom >= firstVisible - 1);
+            assertTrue(renderer.columnsTo <= lastVisible + 2);
+        }
+    }
+
+    private void assertTouchedRange(float touchX, float columnWidth) {
+        renderer.calculateTouchedColumnRange(touchX, columnWidth);
+        for (int column = 0; column < COLUMNS_COUNT; ++column) {
+            final float rawX = computator.computeRawX(column);
+            // Same as RectF.contains() used by the scan, right edge is exclusive.
+            final boolean isTouched = rawX - columnWidth / 2 <= touchX && touchX < rawX + columnWidth / 2;
+            final boolean isInRange = column >= renderer.columnsFrom && column < renderer.columnsTo;
+            if (isTouched) {
+                assertTrue("touched column " + column + " not in " + renderer.columnsFrom + "-"
+                        + renderer.columnsTo, isInRange);
+            } else if (isInRange) {
+                // Columns are widened by one pixel in range calculation.
+                assertTrue(Math.abs(rawX - touchX) <= columnWidth / 2 + PIXEL_TOLERANCE);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package lecho.lib.hellocharts.renderer;
+
+import android.graphics.Paint;
+import android.graphics.Shader;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+import lecho.lib.hellocharts.model.Line;
+import lecho.lib.hellocharts.util.AllocationCounter;
+import lecho.lib.hellocharts.util.ChartUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Checks that area gradient of filled line is created once and reused by following frames and data updates with the
+ * same line colour.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 31)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class LineRenderStateTest {
+    private static final int HEIGHT = 720;
+    private static final float DENSITY = 2;
+
+    private final Paint linePaint = new Paint();
+    private final Paint pointPaint = new Paint();
+    private LineRenderState state;
+
+    @Before
+    public void setUp() {
+        linePaint.setStyle(Paint.Style.STROKE);
+        pointPaint.setStyle(Paint.Style.FILL);
+        state = new LineRenderState();
+        state.compile(createLine(ChartUtils.COLOR_BLUE), linePaint, pointPaint, DENSITY);
+    }
+
+    @Test
+    public void gradientIsReusedAcrossFrames() {
+        final Shader shader = state.getAreaPaint(HEIGHT).getShader();
+        assertNotNull(shader);
+
+        final AllocationCounter counter = new AllocationCounter();
+        counter.start();
+        for (int i = 0; i < 100; ++i) {
+            state.getAreaPaint(HEIGHT);
+        }
+        final long allocatedBytes = counter.stop();
+        assertEquals("bytes allocated by 100 frames", 0, allocatedBytes);
+        assertSame(shader, state.getAreaPaint(HEIGHT).getShader());
+    }
+
+    @Test
+    public void gradientIsReusedAcrossDataUpdatesWithSameColour() {
+        final Shader shader = state.getAreaPaint(HEIGHT).getShader();
+
+        // New data with new line objects of the same colour.
+        for (int i = 0; i < 10; ++i) {
+            state.compile(createLine(ChartUtils.COLOR_BLUE), linePaint, pointPaint, DENSITY);
+            assertSame(shader, state.getAreaPaint(HEIGHT).getShader());
+        }
+    }
+
+    @Test
+    public void gradientIsCreatedAgainWhenColourOrHeightChanges() {
+        final Shader shader = state.getAreaPaint(HEIGHT).getShader();
+
+        final Shader resizedShader = state.getAreaPaint(HEIGHT / 2).getShader();
+        assertNotSame(shader, resizedShader);
+
+        state.compile(createLine(ChartUtils.COLOR_RED), linePaint, pointPaint, DENSITY);
+        final Shader recolouredShader = state.getAreaPaint(HEIGHT / 2).getShader();
+        assertNotNull(recolouredShader);
+        assertNotSame(resizedShader, recolouredShader);
+    }
+
+    private static Line createLine(int color) {
+        return new Line().setColor(color).setFilled(true).setHasGradientToTransparent(true);
+    }
+}
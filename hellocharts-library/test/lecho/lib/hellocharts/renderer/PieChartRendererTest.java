@@ -0,0 +1,133 @@
+package lecho.lib.hellocharts.renderer;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import lecho.lib.hellocharts.model.PieChartData;
+import lecho.lib.hellocharts.model.SelectedValue;
+import lecho.lib.hellocharts.model.SliceValue;
+import lecho.lib.hellocharts.view.PieChartView;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Compares slice lookup of {@link PieChartRenderer} with linear scan over all slices, the way touched slice was found
+ * before the angle table. Scan selects the last slice starting at or before touch angle, so empty slices at the same
+ * angle are selected over their non-empty predecessor.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 31)
+public class PieChartRendererTest {
+    private static final int[] ROTATIONS = {0, 1, 45, 90, 180, 270, 359, 360, -90};
+
+    private final PieChartView chart = new PieChartView(RuntimeEnvironment.getApplication());
+    private final SelectedValue selectedValue = new SelectedValue();
+
+    @Test
+    public void lookupMatchesLinearScanForExactAngles() {
+        // Slice boundaries are exact in float, so lookup must match scan on every angle including boundaries.
+        assertLookupMatchesScan(createValues(10, 0, 80, 0, 0, 90, 180), 0);
+        // Empty slices at 0 and at 360 degrees.
+        assertLookupMatchesScan(createValues(0, 0, 90, 270, 0), 0);
+        assertLookupMatchesScan(createValues(0, 360, 0, 0), 0);
+        assertLookupMatchesScan(createValues(-45, 45, 0, -270), 0);
+    }
+
+    @Test
+    public void lookupMatchesLinearScanForRandomValues() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 20; ++i) {
+            final int count = 1 + random.nextInt(30);
+            final float[] values = new float[count];
+            for (int j = 0; j < count; ++j) {
+                // Some empty slices.
+                values[j] = random.nextInt(4) == 0 ? 0 : random.nextFloat() * 100;
+            }
+            // Angles are calculated in double now, slices may differ only near their boundaries.
+            assertLookupMatchesScan(createValues(values), 0.001f);
+        }
+    }
+
+    @Test
+    public void lookupReturnsNullWithoutSlices() {
+        chart.setPieChartData(new PieChartData(new ArrayList<SliceValue>()));
+        assertNull(chart.getValueForAngle(0, selectedValue));
+        assertNull(chart.getValueForAngle(360, selectedValue));
+    }
+
+    private void assertLookupMatchesScan(List<SliceValue> values, float boundaryTolerance) {
+        chart.setPieChartData(new PieChartData(values));
+        for (int rotation : ROTATIONS) {
+            chart.setChartRotation(rotation, false);
+            final int chartRotation = chart.getChartRotation();
+            for (int angle = 0; angle <= 360; ++angle) {
+                final float touchAngle = ((angle - chartRotation) % 360f + 360f) % 360f;
+                if (isNearBoundary(values, touchAngle, boundaryTolerance)) {
+                    continue;
+                }
+                final int expectedIndex = scanSlice(values, touchAngle);
+                final SliceValue value = chart.getValueForAngle(angle, selectedValue);
+                assertSame("angle " + angle + " rotation " + rotation, values.get(expectedIndex), value);
+                assertEquals(expectedIndex, selectedValue.getFirstIndex());
+            }
+        }
+    }
+
+    /**
+     * Old linear scan from checkTouch().
+     */
+    private static int scanSlice(List<SliceValue> values, float touchAngle) {
+        float maxSum = 0f;
+        for (SliceValue sliceValue : values) {
+            maxSum += Math.abs(sliceValue.getValue());
+        }
+        final float sliceScale = 360f / maxSum;
+        float lastAngle = 0f;
+        int sliceIndex = 0;
+        int selectedIndex = -1;
+        for (SliceValue sliceValue : values) {
+            final float angle = Math.abs(sliceValue.getValue()) * sliceScale;
+            if (touchAngle >= lastAngle) {
+                selectedIndex = sliceIndex;
+            }
+            lastAngle += angle;
+            ++sliceIndex;
+        }
+        return selectedIndex;
+    }
+
+    private static boolean isNearBoundary(List<SliceValue> values, float touchAngle, float tolerance) {
+        if (tolerance == 0) {
+            return false;
+        }
+        float maxSum = 0f;
+        for (SliceValue sliceValue : values) {
+            maxSum += Math.abs(sliceValue.getValue());
+        }
+        float lastAngle = 0f;
+        for (SliceValue sliceValue : values) {
+            if (Math.abs(touchAngle - lastAngle) <= tolerance) {
+                return true;
+            }
+            lastAngle += Math.abs(sliceValue.getValue()) * 360f / maxSum;
+        }
+        return false;
+    }
+
+    private static List<SliceValue> createValues(float... values) {
+        final List<SliceValue> sliceValues = new ArrayList<SliceValue>();
+        for (float value : values) {
+            sliceValues.add(new SliceValue(value));
+        }
+        return sliceValues;
+    }
+}
@@ -0,0 +1,42 @@
+package lecho.lib.hellocharts.util;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Counts bytes allocated by the current thread, used by tests that check that drawing doesn't allocate. Reading the
+ * counter may allocate itself, that overhead is measured once and subtracted.
+ */
+public final class AllocationCounter {
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final long threadId = Thread.currentThread().getId();
+    private long overhead;
+    private long startBytes;
+
+    public AllocationCounter() {
+        // Calibrate with the same calls that are used for measuring, first calls also link them.
+        long minOverhead = Long.MAX_VALUE;
+        for (int i = 0; i < 16; ++i) {
+            start();
+            minOverhead = Math.min(minOverhead, stop());
+        }
+        overhead = minOverhead;
+    }
+
+    public void start() {
+        startBytes = read();
+    }
+
+    /**
+     * Returns number of bytes allocated by the current thread since {@link #start()}. Call it before building assertion
+     * message, string constants are allocated when first used.
+     */
+    public long stop() {
+        return Math.max(0, read() - startBytes - overhead);
+    }
+
+    private long read() {
+        return THREAD_BEAN.getThreadAllocatedBytes(threadId);
+    }
+}
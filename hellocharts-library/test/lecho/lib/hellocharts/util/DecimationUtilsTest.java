@@ -0,0 +1,166 @@
+package lecho.lib.hellocharts.util;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import lecho.lib.hellocharts.model.PointSeries;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks invariants of decimation algorithms on random series: kept edges, output size, X order and that every output
+ * point comes from the source. M4 must also keep minimum and maximum of every column so spikes survive.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 31)
+public class DecimationUtilsTest {
+    private static final int POINTS_COUNT = 10000;
+
+    private final PointSeries out = new PointSeries();
+
+    @Test
+    public void lttbKeepsFirstAndLastPoint() {
+        final PointSeries source = createRandomSeries(1);
+        DecimationUtils.largestTriangleThreeBuckets(source, 100, 9000, 500, out);
+        assertFirstAndLast(source, 100, 9000);
+    }
+
+    @Test
+    public void lttbOutputHasThresholdPointsSortedByX() {
+        for (int threshold = 3; threshold < 2000; threshold += 97) {
+            final PointSeries source = createRandomSeries(threshold);
+            DecimationUtils.largestTriangleThreeBuckets(source, 0, POINTS_COUNT, threshold, out);
+            assertTrue(out.size() <= threshold);
+            assertSortedByX(out);
+            assertPointsFromSource(source, out);
+        }
+    }
+
+    @Test
+    public void lttbCopiesRangeBelowThreshold() {
+        final PointSeries source = createRandomSeries(2);
+        DecimationUtils.largestTriangleThreeBuckets(source, 10, 60, 100, out);
+        assertEquals(50, out.size());
+        for (int i = 0; i < out.size(); ++i) {
+            assertEquals(source.getX(i + 10), out.getX(i), 0);
+            assertEquals(source.getY(i + 10), out.getY(i), 0);
+        }
+    }
+
+    @Test
+    public void m4KeepsFirstAndLastPoint() {
+        final PointSeries source = createRandomSeries(3);
+        DecimationUtils.m4(source, 100, 9000, 1000, 8000, 700, out);
+        assertFirstAndLast(source, 100, 9000);
+    }
+
+    @Test
+    public void m4KeepsAtMostFourPointsPerColumnSortedByX() {
+        final PointSeries source = createRandomSeries(4);
+        final float left = 500;
+        final float right = 9500;
+        final int columns = 300;
+        DecimationUtils.m4(source, 0, POINTS_COUNT, left, right, columns, out);
+        assertSortedByX(out);
+        assertPointsFromSource(source, out);
+
+        // Points outside of X range fall into two extra columns, -1 and columns.
+        final int[] counts = new int[columns + 2];
+        for (int i = 0; i < out.size(); ++i) {
+            ++counts[computeColumn(out.getX(i), left, right, columns) + 1];
+        }
+        for (int count : counts) {
+            assertTrue(count <= 4);
+        }
+        assertTrue(out.size() <= (columns + 2) * 4);
+    }
+
+    @Test
+    public void m4KeepsMinimumAndMaximumOfEveryColumn() {
+        final PointSeries source = createRandomSeries(5);
+        final float left = 0;
+        final float right = POINTS_COUNT;
+        final int columns = 123;
+        // Spikes in random columns.
+        final Random random = new Random(6);
+        for (int i = 0; i < 20; ++i) {
+            final int index = random.nextInt(POINTS_COUNT);
+            source.set(index, source.getX(index), i % 2 == 0 ? 1000 + i : -1000 - i);
+        }
+        DecimationUtils.m4(source, 0, POINTS_COUNT, left, right, columns, out);
+
+        final float[] expectedMin = new float[columns + 2];
+        final float[] expectedMax = new float[columns + 2];
+        final float[] actualMin = new float[columns + 2];
+        final float[] actualMax = new float[columns + 2];
+        Arrays.fill(expectedMin, Float.MAX_VALUE);
+        Arrays.fill(expectedMax, -Float.MAX_VALUE);
+        Arrays.fill(actualMin, Float.MAX_VALUE);
+        Arrays.fill(actualMax, -Float.MAX_VALUE);
+        for (int i = 0; i < source.size(); ++i) {
+            final int column = computeColumn(source.getX(i), left, right, columns) + 1;
+            expectedMin[column] = Math.min(expectedMin[column], source.getY(i));
+            expectedMax[column] = Math.max(expectedMax[column], source.getY(i));
+        }
+        for (int i = 0; i < out.size(); ++i) {
+            final int column = computeColumn(out.getX(i), left, right, columns) + 1;
+            actualMin[column] = Math.min(actualMin[column], out.getY(i));
+            actualMax[column] = Math.max(actualMax[column], out.getY(i));
+        }
+        for (int column = 0; column < columns + 2; ++column) {
+            assertEquals(expectedMin[column], actualMin[column], 0);
+            assertEquals(expectedMax[column], actualMax[column], 0);
+        }
+    }
+
+    /**
+     * Same column assignment as M4, -1 and columns for points outside of X range.
+     */
+    private static int computeColumn(float x, float left, float right, int columns) {
+        final float column = (x - left) * (columns / (right - left));
+        if (column < 0) {
+            return -1;
+        }
+        return Math.min((int) column, columns);
+    }
+
+    private static PointSeries createRandomSeries(long seed) {
+        final Random random = new Random(seed);
+        final PointSeries series = new PointSeries(POINTS_COUNT);
+        for (int i = 0; i < POINTS_COUNT; ++i) {
+            // Uneven X steps so buckets and columns have different numbers of points.
+            series.add(i + random.nextFloat() * 0.9f, random.nextFloat() * 100 - 50);
+        }
+        return series;
+    }
+
+    private void assertFirstAndLast(PointSeries source, int from, int to) {
+        assertEquals(source.getX(from), out.getX(0), 0);
+        assertEquals(source.getY(from), out.getY(0), 0);
+        assertEquals(source.getX(to - 1), out.getX(out.size() - 1), 0);
+        assertEquals(source.getY(to - 1), out.getY(out.size() - 1), 0);
+    }
+
+    private static void assertSortedByX(PointSeries series) {
+        for (int i = 1; i < series.size(); ++i) {
+            assertTrue(series.getX(i - 1) <= series.getX(i));
+        }
+    }
+
+    /**
+     * Checks that every output point is a source point, X values of random series are unique.
+     */
+    private static void assertPointsFromSource(PointSeries source, PointSeries out) {
+        for (int i = 0; i < out.size(); ++i) {
+            final int index = source.lowerBound(out.getX(i));
+            assertEquals(out.getX(i), source.getX(index), 0);
+            assertEquals(out.getY(i), source.getY(index), 0);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package lecho.lib.hellocharts.util;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares {@link PointQuadTree} queries with linear scan over all points, the way bubbles were culled and hit-tested
+ * before the tree.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 31)
+public class PointQuadTreeTest {
+    private static final int POINTS_COUNT = 5000;
+
+    private final Random random = new Random(42);
+    private final PointQuadTree tree = new PointQuadTree();
+    private final int[] expected = new int[POINTS_COUNT];
+
+    @Test
+    public void queryMatchesLinearScan() {
+        final float[] xs = new float[POINTS_COUNT];
+        final float[] ys = new float[POINTS_COUNT];
+        for (int i = 0; i < POINTS_COUNT; ++i) {
+            xs[i] = random.nextFloat() * 1000;
+            ys[i] = random.nextFloat() * 500 - 250;
+        }
+        tree.build(xs, ys, POINTS_COUNT);
+        assertQueries(xs, ys, POINTS_COUNT);
+    }
+
+    @Test
+    public void queryMatchesLinearScanForClusteredAndEqualPoints() {
+        final float[] xs = new float[POINTS_COUNT];
+        final float[] ys = new float[POINTS_COUNT];
+        for (int i = 0; i < POINTS_COUNT; ++i) {
+            if (i % 3 == 0) {
+                // Many points with equal coordinates can't be split by quadrants.
+                xs[i] = 500;
+                ys[i] = 0;
+            } else {
+                xs[i] = 500 + (float) random.nextGaussian() * 5;
+                ys[i] = (float) random.nextGaussian() * 5;
+            }
+        }
+        tree.build(xs, ys, POINTS_COUNT);
+        assertQueries(xs, ys, POINTS_COUNT);
+    }
+
+    @Test
+    public void treeCanBeRebuiltForFewerPoints() {
+        final float[] xs = new float[POINTS_COUNT];
+        final float[] ys = new float[POINTS_COUNT];
+        for (int i = 0; i < POINTS_COUNT; ++i) {
+            xs[i] = random.nextFloat() * 1000;
+            ys[i] = random.nextFloat() * 1000;
+        }
+        tree.build(xs, ys, POINTS_COUNT);
+        tree.build(xs, ys, 100);
+        assertEquals(100, tree.size());
+        assertQueries(xs, ys, 100);
+
+        tree.build(xs, ys, 0);
+        assertEquals(0, tree.query(-Float.MAX_VALUE, -Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE));
+    }
+
+    private void assertQueries(float[] xs, float[] ys, int count) {
+        for (int i = 0; i < 300; ++i) {
+            final float size = i < 100 ? 5 : i < 200 ? 100 : 2000;
+            final float left = random.nextFloat() * 1100 - 50 - size / 2;
+            final float bottom = random.nextFloat() * 600 - 300 - size / 2;
+            assertQuery(xs, ys, count, left, bottom, left + size, bottom + size);
+        }
+        // Points exactly on the query edges are inside.
+        assertQuery(xs, ys, count, xs[0], ys[0], xs[0], ys[0]);
+        assertQuery(xs, ys, count, xs[1], ys[2], xs[3], ys[4]);
+    }
+
+    private void assertQuery(float[] xs, float[] ys, int count, float left, float bottom, float right, float top) {
+        int expectedCount = 0;
+        for (int i = 0; i < count; ++i) {
+            if (xs[i] >= left && xs[i] <= right && ys[i] >= bottom && ys[i] <= top) {
+                expected[expectedCount++] = i;
+            }
+        }
+        final int resultCount = tree.query(left, bottom, right, top);
+        assertEquals(expectedCount, resultCount);
+        final int[] result = tree.getResult();
+        for (int i = 0; i < resultCount; ++i) {
+            assertEquals(expected[i], result[i]);
+        }
+    }
+}
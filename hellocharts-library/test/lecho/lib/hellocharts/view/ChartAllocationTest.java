@@ -0,0 +1,206 @@
+package lecho.lib.hellocharts.view;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lecho.lib.hellocharts.model.AbstractChartData;
+import lecho.lib.hellocharts.model.Axis;
+import lecho.lib.hellocharts.model.BubbleChartData;
+import lecho.lib.hellocharts.model.BubbleValue;
+import lecho.lib.hellocharts.model.Column;
+import lecho.lib.hellocharts.model.ColumnChartData;
+import lecho.lib.hellocharts.model.ComboLineColumnChartData;
+import lecho.lib.hellocharts.model.DecimationMode;
+import lecho.lib.hellocharts.model.Line;
+import lecho.lib.hellocharts.model.LineChartData;
+import lecho.lib.hellocharts.model.PieChartData;
+import lecho.lib.hellocharts.model.PointValue;
+import lecho.lib.hellocharts.model.SliceValue;
+import lecho.lib.hellocharts.model.SubcolumnValue;
+import lecho.lib.hellocharts.model.Viewport;
+import lecho.lib.hellocharts.util.AllocationCounter;
+import lecho.lib.hellocharts.util.ChartUtils;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Renders every chart type on a real (native) canvas and fails if drawing, scrolling or touch checking allocates after
+ * warm-up. Frames alternate between two viewports and two touch points so warm-up grows every reused buffer.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 31)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class ChartAllocationTest {
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 720;
+    private static final int WARM_UP_FRAMES = 60;
+    private static final int MEASURED_FRAMES = 60;
+
+    private Context context;
+    private Canvas canvas;
+
+    @Before
+    public void setUp() {
+        context = RuntimeEnvironment.getApplication();
+        canvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+    }
+
+    @Test
+    public void lineChartDoesNotAllocate() {
+        final LineChartView chart = new LineChartView(context);
+        chart.setLineChartData(createLineData());
+        assertNoAllocations(chart, true);
+    }
+
+    @Test
+    public void previewLineChartDoesNotAllocate() {
+        final PreviewLineChartView chart = new PreviewLineChartView(context);
+        chart.setLineChartData(createLineData());
+        assertNoAllocations(chart, true);
+    }
+
+    @Test
+    public void columnChartDoesNotAllocate() {
+        final ColumnChartView chart = new ColumnChartView(context);
+        chart.setColumnChartData(createColumnData());
+        assertNoAllocations(chart, true);
+    }
+
+    @Test
+    public void previewColumnChartDoesNotAllocate() {
+        final PreviewColumnChartView chart = new PreviewColumnChartView(context);
+        chart.setColumnChartData(createColumnData());
+        assertNoAllocations(chart, true);
+    }
+
+    @Test
+    public void bubbleChartDoesNotAllocate() {
+        final BubbleChartView chart = new BubbleChartView(context);
+        chart.setBubbleChartData(createBubbleData());
+        assertNoAllocations(chart, true);
+    }
+
+    @Test
+    public void pieChartDoesNotAllocate() {
+        final PieChartView chart = new PieChartView(context);
+        chart.setPieChartData(createPieData());
+        assertNoAllocations(chart, false);
+    }
+
+    @Test
+    public void comboChartDoesNotAllocate() {
+        final ComboLineColumnChartView chart = new ComboLineColumnChartView(context);
+        chart.setComboLineColumnChartData(new ComboLineColumnChartData(createColumnData(), createLineData()));
+        assertNoAllocations(chart, true);
+    }
+
+    /**
+     * @param scroll true to alternate viewport between frames, pie chart doesn't use viewport
+     */
+    private void assertNoAllocations(AbstractChartView chart, boolean scroll) {
+        chart.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        chart.layout(0, 0, WIDTH, HEIGHT);
+
+        final Viewport maxViewport = new Viewport(chart.getMaximumViewport());
+        final Viewport scrolledViewport = new Viewport(maxViewport);
+        scrolledViewport.inset(maxViewport.width() / 4, maxViewport.height() / 8);
+        scrolledViewport.offset(maxViewport.width() / 8, 0);
+        final Viewport[] viewports = {maxViewport, scrolledViewport};
+        final float[] touchXs = {WIDTH / 2f, 1};
+        final float[] touchYs = {HEIGHT / 2f, 1};
+
+        for (int i = 0; i < WARM_UP_FRAMES; ++i) {
+            drawFrame(chart, scroll ? viewports[i % 2] : null, touchXs[i % 2], touchYs[i % 2]);
+        }
+        final AllocationCounter counter = new AllocationCounter();
+        counter.start();
+        for (int i = 0; i < MEASURED_FRAMES; ++i) {
+            drawFrame(chart, scroll ? viewports[i % 2] : null, touchXs[i % 2], touchYs[i % 2]);
+        }
+        final long allocatedBytes = counter.stop();
+        assertEquals(chart.getClass().getSimpleName() + " allocated bytes after warm-up", 0, allocatedBytes);
+    }
+
+    private void drawFrame(AbstractChartView chart, Viewport viewport, float touchX, float touchY) {
+        if (null != viewport) {
+            chart.setCurrentViewport(viewport);
+        }
+        chart.getChartRenderer().checkTouch(touchX, touchY);
+        chart.onDraw(canvas);
+    }
+
+    private static void setAxes(AbstractChartData data) {
+        data.setAxisXBottom(new Axis().setHasLines(true));
+        data.setAxisYLeft(new Axis().setHasLines(true));
+    }
+
+    private static LineChartData createLineData() {
+        final List<PointValue> bigValues = new ArrayList<PointValue>();
+        for (int i = 0; i < 20000; ++i) {
+            bigValues.add(new PointValue(i, (float) Math.sin(i / 100.0) * 50 + (i % 7)));
+        }
+        final Line bigLine = new Line(bigValues).setColor(ChartUtils.COLOR_BLUE).setHasPoints(false)
+                .setFilled(true).setHasGradientToTransparent(true).setDecimationMode(DecimationMode.AUTO);
+
+        final List<PointValue> smallValues = new ArrayList<PointValue>();
+        for (int i = 0; i < 50; ++i) {
+            smallValues.add(new PointValue(i * 400, (i * 37) % 100 - 50));
+        }
+        final Line smallLine = new Line(smallValues).setColor(ChartUtils.COLOR_ORANGE).setCubic(true)
+                .setHasLabelsOnlyForSelected(true);
+
+        final List<Line> lines = new ArrayList<Line>();
+        lines.add(bigLine);
+        lines.add(smallLine);
+        final LineChartData data = new LineChartData(lines);
+        setAxes(data);
+        return data;
+    }
+
+    private static ColumnChartData createColumnData() {
+        final List<Column> columns = new ArrayList<Column>();
+        for (int i = 0; i < 30; ++i) {
+            final List<SubcolumnValue> values = new ArrayList<SubcolumnValue>();
+            for (int j = 0; j < 3; ++j) {
+                values.add(new SubcolumnValue((i * 13 + j * 29) % 50 - 10, ChartUtils.pickColor()));
+            }
+            columns.add(new Column(values).setHasLabelsOnlyForSelected(true));
+        }
+        final ColumnChartData data = new ColumnChartData(columns);
+        setAxes(data);
+        return data;
+    }
+
+    private static BubbleChartData createBubbleData() {
+        final List<BubbleValue> values = new ArrayList<BubbleValue>();
+        for (int i = 0; i < 500; ++i) {
+            values.add(new BubbleValue(i % 50, (i * 17) % 100, (i * 7) % 30 + 1, ChartUtils.pickColor()));
+        }
+        final BubbleChartData data = new BubbleChartData(values);
+        data.setHasLabelsOnlyForSelected(true);
+        setAxes(data);
+        return data;
+    }
+
+    private static PieChartData createPieData() {
+        final List<SliceValue> values = new ArrayList<SliceValue>();
+        for (int i = 0; i < 8; ++i) {
+            values.add(new SliceValue(i + 1, ChartUtils.pickColor()));
+        }
+        return new PieChartData(values).setHasLabels(true).setHasCenterCircle(true).setCenterText1("Total");
+    }
+}
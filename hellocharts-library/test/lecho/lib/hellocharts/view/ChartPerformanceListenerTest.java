@@ -0,0 +1,151 @@
+package lecho.lib.hellocharts.view;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.MotionEvent;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lecho.lib.hellocharts.listener.ChartPerformanceListener;
+import lecho.lib.hellocharts.model.ChartFrameMetrics;
+import lecho.lib.hellocharts.model.ChartOperation;
+import lecho.lib.hellocharts.model.DecimationMode;
+import lecho.lib.hellocharts.model.Line;
+import lecho.lib.hellocharts.model.LineChartData;
+import lecho.lib.hellocharts.model.PointValue;
+import lecho.lib.hellocharts.model.Viewport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Draws line charts with {@link ChartPerformanceListener} set and checks point counters of frame metrics for culled and
+ * decimated lines, and that touch checks and data changes are reported as operations.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 31)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class ChartPerformanceListenerTest {
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 720;
+
+    private final RecordingListener listener = new RecordingListener();
+    private LineChartView chart;
+    private Canvas canvas;
+
+    @Before
+    public void setUp() {
+        chart = new LineChartView(RuntimeEnvironment.getApplication());
+        canvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+    }
+
+    @Test
+    public void culledLineReportsOnlyPointsAroundViewport() {
+        setLine(1000, DecimationMode.NONE);
+        chart.setPerformanceListener(listener);
+        final Viewport maxViewport = chart.getMaximumViewport();
+        chart.setCurrentViewport(new Viewport(400, maxViewport.top, 500, maxViewport.bottom));
+        chart.onDraw(canvas);
+
+        assertEquals(1, listener.framesCount);
+        assertEquals(1000, listener.pointsSubmitted);
+        // All 101 visible points and a margin of points outside of viewport kept for scrolling.
+        assertTrue(listener.pointsDrawn >= 101);
+        assertTrue(listener.pointsDrawn <= 160);
+        assertEquals(listener.pointsSubmitted - listener.pointsDrawn, listener.pointsCulled);
+    }
+
+    @Test
+    public void decimatedLineReportsDecimatedPoints() {
+        setLine(100000, DecimationMode.AUTO);
+        chart.setPerformanceListener(listener);
+        chart.onDraw(canvas);
+
+        final int contentWidth = chart.getChartComputator().getContentRectMinusAllMargins().width();
+        assertEquals(1, listener.framesCount);
+        assertEquals(100000, listener.pointsSubmitted);
+        // AUTO decimation draws at most one point per pixel of content width.
+        assertTrue(listener.pointsDrawn > 2);
+        assertTrue(listener.pointsDrawn <= contentWidth);
+        assertEquals(listener.pointsSubmitted - listener.pointsDrawn, listener.pointsCulled);
+    }
+
+    @Test
+    public void dataChangeAndTouchCheckAreReported() {
+        setLine(100, DecimationMode.NONE);
+        chart.setPerformanceListener(listener);
+        chart.setLineChartData(createData(100, DecimationMode.NONE));
+        assertEquals(1, listener.operations.size());
+        assertEquals(ChartOperation.DATA_CHANGE, listener.operations.get(0));
+
+        final MotionEvent event = MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, WIDTH / 2f, HEIGHT / 2f, 0);
+        chart.onTouchEvent(event);
+        event.recycle();
+        assertTrue(listener.operations.contains(ChartOperation.CHECK_TOUCH));
+        for (long duration : listener.durations) {
+            assertTrue(duration >= 0);
+        }
+
+        // Nothing is reported after listener is removed.
+        final int operationsCount = listener.operations.size();
+        chart.setPerformanceListener(null);
+        chart.setLineChartData(createData(100, DecimationMode.NONE));
+        chart.onDraw(canvas);
+        assertEquals(operationsCount, listener.operations.size());
+        assertEquals(0, listener.framesCount);
+    }
+
+    private void setLine(int pointsCount, DecimationMode decimationMode) {
+        chart.setLineChartData(createData(pointsCount, decimationMode));
+        chart.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        chart.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    private static LineChartData createData(int pointsCount, DecimationMode decimationMode) {
+        final List<PointValue> values = new ArrayList<PointValue>();
+        for (int i = 0; i < pointsCount; ++i) {
+            values.add(new PointValue(i, (float) Math.sin(i / 10.0) * 50));
+        }
+        final List<Line> lines = new ArrayList<Line>();
+        // Without points only line vertices are counted.
+        lines.add(new Line(values).setHasPoints(false).setDecimationMode(decimationMode));
+        return new LineChartData(lines);
+    }
+
+    /**
+     * Copies counters of the last frame, metrics object is reused by chart.
+     */
+    private static class RecordingListener implements ChartPerformanceListener {
+        private final List<ChartOperation> operations = new ArrayList<ChartOperation>();
+        private final List<Long> durations = new ArrayList<Long>();
+        private int framesCount;
+        private int pointsSubmitted;
+        private int pointsDrawn;
+        private int pointsCulled;
+
+        @Override
+        public void onFrameMeasured(ChartFrameMetrics metrics) {
+            ++framesCount;
+            pointsSubmitted = metrics.getPointsSubmitted();
+            pointsDrawn = metrics.getPointsDrawn();
+            pointsCulled = metrics.getPointsCulled();
+        }
+
+        @Override
+        public void onOperationMeasured(ChartOperation operation, long duration) {
+            operations.add(operation);
+            durations.add(duration);
+        }
+    }
+}